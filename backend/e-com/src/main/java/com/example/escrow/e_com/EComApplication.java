@@ -2,8 +2,10 @@ package com.example.escrow.e_com;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EComApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,10 @@
+package com.example.escrow.e_com.audit;
+
+public enum AuditAction {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    REGISTRATION,
+    PROFILE_CHANGE,
+    ROLE_CHANGE,
+    DELETION
+}
@@ -0,0 +1,330 @@
+package com.example.escrow.e_com.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit trail of security-relevant user actions, kept in memory-mapped
+ * segment files outside the database. An append is a short locked copy into the
+ * mapped active segment; a dedicated flusher thread forces dirty pages to disk every
+ * {@code flush-interval} (group commit), so no request waits on fsync and a crash
+ * loses at most that window. Full or stale segments are rolled, sealed (trimmed and
+ * remapped read-only) and eventually dropped once past retention.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    static final int MAX_DETAIL_CHARS = 256;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int indexInterval;
+    private final Duration maxSegmentAge;
+    private final Duration retention;
+    private final Duration flushInterval;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private final byte[] scratch = new byte[AuditSegment.FIXED_PAYLOAD + MAX_DETAIL_CHARS * 4];
+    private long lastTimestamp;
+    private long activeOpenedAt;
+
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private final List<AuditSegment> pendingSeal = new CopyOnWriteArrayList<>();
+    private volatile AuditSegment active;
+    private volatile AuditSegment spare;
+    private long nextSegmentId;
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    public AuditLog(@Value("${audit.log.dir:./audit}") String directory,
+                    @Value("${audit.log.segment-bytes:67108864}") int segmentBytes,
+                    @Value("${audit.log.index-interval:64}") int indexInterval,
+                    @Value("${audit.log.max-segment-age:PT1H}") Duration maxSegmentAge,
+                    @Value("${audit.log.retention:P365D}") Duration retention,
+                    @Value("${audit.log.flush-interval:PT0.005S}") Duration flushInterval) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.indexInterval = indexInterval;
+        this.maxSegmentAge = maxSegmentAge;
+        this.retention = retention;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(".seg")).sorted().toList();
+            }
+            for (int i = 0; i < files.size(); i++) {
+                // Only the newest file is mapped at full size; older ones were trimmed when sealed
+                int capacity = i == files.size() - 1 ? segmentBytes : 0;
+                AuditSegment segment = AuditSegment.open(files.get(i), capacity, indexInterval);
+                segments.add(segment);
+                nextSegmentId = segment.id() + 1;
+                lastTimestamp = Math.max(lastTimestamp, segment.maxTimestamp());
+            }
+            // Older segments are sealed on the next maintenance pass; the newest keeps taking appends
+            for (int i = 0; i < segments.size() - 1; i++) {
+                pendingSeal.add(segments.get(i));
+            }
+            if (segments.isEmpty()) {
+                AuditSegment segment = newSegment();
+                segments.add(segment);
+            }
+            active = segments.get(segments.size() - 1);
+            activeOpenedAt = System.currentTimeMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit log in " + directory, e);
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Records an action once the surrounding transaction commits, or immediately when
+     * there is none, so rolled-back changes never show up in the trail. The trail outlives
+     * user purges, so {@code detail} must never carry personal data.
+     */
+    public void record(Long userId, AuditAction action, String detail) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(userId, action, detail);
+                }
+            });
+        } else {
+            append(userId, action, detail);
+        }
+    }
+
+    // One synchronization for the whole set instead of one per user
+    public void recordAll(Collection<Long> userIds, AuditAction action, String detail) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userIds.forEach(id -> append(id, action, detail));
+                }
+            });
+        } else {
+            userIds.forEach(id -> append(id, action, detail));
+        }
+    }
+
+    public void append(long userId, AuditAction action, String detail) {
+        byte[] detailBytes = detail == null ? new byte[0]
+                : (detail.length() > MAX_DETAIL_CHARS ? detail.substring(0, MAX_DETAIL_CHARS) : detail)
+                        .getBytes(StandardCharsets.UTF_8);
+
+        appendLock.lock();
+        try {
+            // Timestamps never go backwards within the log, which keeps the sparse index sorted
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            lastTimestamp = timestamp;
+
+            int length = AuditSegment.FIXED_PAYLOAD + detailBytes.length;
+            ByteBuffer.wrap(scratch)
+                    .putLong(timestamp)
+                    .putLong(userId)
+                    .put((byte) action.ordinal())
+                    .put(detailBytes);
+
+            if (!active.append(timestamp, userId, scratch, length, crc)) {
+                roll();
+                active.append(timestamp, userId, scratch, length, crc);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} records for one user in {@code [from, to]}, oldest first.
+     * Segments outside the time range or whose bloom filter rules out the user are skipped.
+     */
+    public List<AuditRecord> query(long userId, Instant from, Instant to, int limit) {
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        List<AuditRecord> out = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            if (out.size() >= limit) {
+                break;
+            }
+            segment.scan(userId, fromMillis, toMillis, limit, out);
+        }
+        return out;
+    }
+
+    /**
+     * Background roller and compactor: keeps a preallocated spare segment ready, rolls
+     * the active segment once it is older than {@code max-segment-age}, seals rolled
+     * segments and deletes sealed ones that fell out of retention.
+     */
+    @Scheduled(fixedDelayString = "${audit.log.maintenance-interval:PT10S}")
+    public void maintain() {
+        try {
+            if (spare == null) {
+                long id;
+                appendLock.lock();
+                try {
+                    id = nextSegmentId++;
+                } finally {
+                    appendLock.unlock();
+                }
+                AuditSegment created = AuditSegment.create(directory, id, segmentBytes, indexInterval);
+                boolean usable;
+                appendLock.lock();
+                try {
+                    // A roll may have raced ahead with a newer segment; a stale spare would break id order
+                    usable = spare == null && created.id() > active.id();
+                    if (usable) {
+                        spare = created;
+                    }
+                } finally {
+                    appendLock.unlock();
+                }
+                if (!usable) {
+                    created.delete();
+                }
+            }
+
+            appendLock.lock();
+            try {
+                if (!active.isEmpty() && System.currentTimeMillis() - activeOpenedAt >= maxSegmentAge.toMillis()) {
+                    roll();
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            for (AuditSegment segment : pendingSeal) {
+                segment.seal();
+                pendingSeal.remove(segment);
+            }
+
+            long cutoff = System.currentTimeMillis() - retention.toMillis();
+            for (AuditSegment segment : segments) {
+                if (segment.isSealed() && segment.maxTimestamp() < cutoff) {
+                    segments.remove(segment);
+                    segment.delete();
+                    log.info("Dropped audit segment {} past retention", segment.id());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Audit log maintenance failed", e);
+        }
+    }
+
+    public void flush() {
+        for (AuditSegment segment : pendingSeal) {
+            segment.flush();
+        }
+        active.flush();
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            for (AuditSegment segment : segments) {
+                segment.close();
+            }
+            if (spare != null) {
+                spare.delete();
+                spare = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock
+    private void roll() {
+        AuditSegment previous = active;
+        AuditSegment next = spare;
+        spare = null;
+        try {
+            if (next == null) {
+                next = newSegment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll audit segment", e);
+        }
+        segments.add(next);
+        active = next;
+        activeOpenedAt = System.currentTimeMillis();
+        pendingSeal.add(previous);
+    }
+
+    private AuditSegment newSegment() throws IOException {
+        return AuditSegment.create(directory, nextSegmentId++, segmentBytes, indexInterval);
+    }
+
+    private void flushLoop() {
+        long sleepMillis = Math.max(1, flushInterval.toMillis());
+        while (running) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Audit log flush failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.escrow.e_com.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+    private Instant timestamp;
+    private Long userId;
+    private AuditAction action;
+    private String detail;
+}
@@ -0,0 +1,303 @@
+package com.example.escrow.e_com.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped file of the audit log. Records are framed as
+ * {@code [int length][int crc32c][long timestamp][long userId][byte action][detail]},
+ * written with absolute puts only, and published by a volatile end position, so
+ * readers scan concurrently with the single writer without locking. A zero length
+ * or a CRC mismatch marks the end of valid data after a crash.
+ *
+ * <p>Each segment keeps a sparse (timestamp, offset) index every
+ * {@code indexInterval} records and a small bloom filter of user ids, so queries
+ * skip whole segments and seek close to the start of a time range.
+ */
+final class AuditSegment {
+
+    static final int FRAME_HEADER = 8;
+    static final int FIXED_PAYLOAD = 17;
+
+    private static final int BLOOM_BITS = 1 << 20;
+
+    private final long id;
+    private final Path path;
+    private final int indexInterval;
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private final int capacity;
+
+    private volatile int end;
+    private int flushed;
+    private int recordCount;
+
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    private long[] indexTimestamps = new long[64];
+    private int[] indexOffsets = new int[64];
+    private volatile int indexSize;
+
+    private final long[] bloom = new long[BLOOM_BITS / 64];
+
+    private volatile boolean sealed;
+
+    private AuditSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity, int indexInterval) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.indexInterval = indexInterval;
+    }
+
+    static AuditSegment create(Path dir, long id, int capacity, int indexInterval) throws IOException {
+        Path path = dir.resolve(fileName(id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new AuditSegment(id, path, channel, buffer, capacity, indexInterval);
+    }
+
+    /**
+     * Maps an existing file and rebuilds end position, index and bloom filter by scanning it.
+     * The file is mapped at {@code max(size, capacity)}; pass 0 to keep a sealed file's size.
+     */
+    static AuditSegment open(Path path, int capacity, int indexInterval) throws IOException {
+        long id = Long.parseLong(path.getFileName().toString().replace(".seg", ""));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(channel.size(), capacity);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        AuditSegment segment = new AuditSegment(id, path, channel, buffer, size, indexInterval);
+        segment.recover();
+        return segment;
+    }
+
+    static String fileName(long id) {
+        return String.format("%020d.seg", id);
+    }
+
+    long id() {
+        return id;
+    }
+
+    int end() {
+        return end;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    boolean isEmpty() {
+        return end == 0;
+    }
+
+    /**
+     * Appends one record; the caller serializes writers and supplies a scratch buffer
+     * holding the encoded payload. Returns false when the segment has no room left.
+     */
+    boolean append(long timestamp, long userId, byte[] payload, int payloadLength, CRC32C crc) {
+        int offset = end;
+        int frameLength = FRAME_HEADER + payloadLength;
+        // Keep 4 zero bytes after the last record so recovery always finds a terminator
+        if (offset + frameLength + 4 > capacity) {
+            return false;
+        }
+        crc.reset();
+        crc.update(payload, 0, payloadLength);
+
+        MappedByteBuffer buf = buffer;
+        buf.put(offset + FRAME_HEADER, payload, 0, payloadLength);
+        buf.putInt(offset + 4, (int) crc.getValue());
+        buf.putInt(offset, payloadLength);
+
+        track(offset, timestamp, userId);
+        end = offset + frameLength;
+        return true;
+    }
+
+    synchronized void flush() {
+        int target = end;
+        if (target > flushed) {
+            buffer.force(flushed, target - flushed);
+            flushed = target;
+        }
+    }
+
+    // Flushes, trims the preallocated tail and remaps the file read-only
+    synchronized void seal() throws IOException {
+        flush();
+        int size = end;
+        if (size < capacity) {
+            channel.truncate(size);
+        }
+        MappedByteBuffer readOnly = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        channel.close();
+        channel = null;
+        buffer = readOnly;
+        sealed = true;
+    }
+
+    synchronized void close() {
+        try {
+            if (channel != null) {
+                flush();
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    boolean mightContain(long userId) {
+        int h1 = (int) (userId ^ (userId >>> 32));
+        int h2 = Long.hashCode(userId * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < 3; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds records of {@code userId} with {@code from <= timestamp <= to} to {@code out},
+     * stopping at {@code limit}.
+     */
+    void scan(long userId, long from, long to, int limit, List<AuditRecord> out) {
+        int stop = end; // read the published end first; everything before it is fully written
+        if (stop == 0 || to < minTimestamp || from > maxTimestamp || !mightContain(userId)) {
+            return;
+        }
+        ByteBuffer buf = buffer;
+        for (int offset = seek(from); offset < stop && out.size() < limit; ) {
+            int length = buf.getInt(offset);
+            int payload = offset + FRAME_HEADER;
+            long timestamp = buf.getLong(payload);
+            if (timestamp > to) {
+                return;
+            }
+            if (timestamp >= from && buf.getLong(payload + 8) == userId) {
+                out.add(decode(buf, payload, length));
+            }
+            offset = payload + length;
+        }
+    }
+
+    // Offset of the last indexed record strictly before `from`, so the scan starts at or before the range
+    private int seek(long from) {
+        int n = indexSize;
+        long[] timestamps = indexTimestamps;
+        int[] offsets = indexOffsets;
+        int lo = 0;
+        int hi = n - 1;
+        int result = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] < from) {
+                result = offsets[mid];
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private void recover() {
+        CRC32C crc = new CRC32C();
+        byte[] scratch = new byte[256];
+        ByteBuffer buf = buffer;
+        int offset = 0;
+        while (offset + FRAME_HEADER <= capacity) {
+            int length = buf.getInt(offset);
+            if (length < FIXED_PAYLOAD || offset + FRAME_HEADER + length > capacity) {
+                break;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            buf.get(offset + FRAME_HEADER, scratch, 0, length);
+            crc.reset();
+            crc.update(scratch, 0, length);
+            if ((int) crc.getValue() != buf.getInt(offset + 4)) {
+                break; // torn write at the tail
+            }
+            track(offset, buf.getLong(offset + FRAME_HEADER), buf.getLong(offset + FRAME_HEADER + 8));
+            offset += FRAME_HEADER + length;
+        }
+        // Zero whatever follows so the next append starts from a clean terminator
+        for (int i = offset; i < Math.min(capacity, offset + FRAME_HEADER); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        end = offset;
+        flushed = offset;
+    }
+
+    private void track(int offset, long timestamp, long userId) {
+        if (recordCount % indexInterval == 0) {
+            int n = indexSize;
+            if (n == indexTimestamps.length) {
+                long[] timestamps = Arrays.copyOf(indexTimestamps, n * 2);
+                int[] offsets = Arrays.copyOf(indexOffsets, n * 2);
+                indexOffsets = offsets;
+                indexTimestamps = timestamps;
+            }
+            indexTimestamps[n] = timestamp;
+            indexOffsets[n] = offset;
+            indexSize = n + 1;
+        }
+        recordCount++;
+
+        int h1 = (int) (userId ^ (userId >>> 32));
+        int h2 = Long.hashCode(userId * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < 3; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+
+        if (timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+    }
+
+    private static AuditRecord decode(ByteBuffer buf, int payload, int length) {
+        long timestamp = buf.getLong(payload);
+        long userId = buf.getLong(payload + 8);
+        AuditAction action = AuditAction.values()[buf.get(payload + 16)];
+        byte[] detail = new byte[length - FIXED_PAYLOAD];
+        buf.get(payload + FIXED_PAYLOAD, detail);
+        return new AuditRecord(Instant.ofEpochMilli(timestamp), userId, action,
+                detail.length == 0 ? null : new String(detail, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.escrow.e_com.autocomplete;
+
+import com.example.escrow.e_com.repository.ProductRepository;
+import com.example.escrow.e_com.repository.ProductRepository.SellerCount;
+import com.example.escrow.e_com.repository.ProductRepository.TitleCount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Search-as-you-type over product titles and seller names. Queries read whichever
+ * {@link TernarySearchTrie} is current; a background thread rebuilds it from the database
+ * every rebuild interval and swaps it in, so catalog writes show up after one interval.
+ */
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private final ProductRepository productRepository;
+    private final int topK;
+    private final Duration rebuildInterval;
+    private final AtomicReference<TernarySearchTrie> current = new AtomicReference<>(TernarySearchTrie.empty());
+    private final Timer rebuildTimer;
+    private final ScheduledExecutorService rebuilder;
+
+    public AutocompleteIndex(ProductRepository productRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${autocomplete.top-k:10}") int topK,
+                             @Value("${autocomplete.rebuild-interval:PT1M}") Duration rebuildInterval) {
+        this.productRepository = productRepository;
+        this.topK = topK;
+        this.rebuildInterval = rebuildInterval;
+        this.rebuildTimer = Timer.builder("autocomplete.rebuild")
+                .register(meterRegistry);
+        Gauge.builder("autocomplete.entries", current, ref -> ref.get().entries())
+                .register(meterRegistry);
+        // Own thread: a long rebuild must not hold up the shared @Scheduled pool
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autocomplete-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public List<Suggestion> complete(String prefix, int limit) {
+        if (prefix == null) {
+            return List.of();
+        }
+        return current.get().complete(prefix, Math.min(limit, topK));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    public void rebuild() {
+        TernarySearchTrie trie = rebuildTimer.record(() -> TernarySearchTrie.build(loadSuggestions(), topK));
+        current.set(trie);
+        log.debug("Autocomplete rebuilt: {} entries, {} nodes", trie.entries(), trie.nodes());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Keep serving the previous trie
+            log.warn("Autocomplete rebuild failed", e);
+        }
+    }
+
+    // Titles differing only in case or spacing are one suggestion
+    private List<WeightedSuggestion> loadSuggestions() {
+        Map<String, WeightedSuggestion> titles = new LinkedHashMap<>();
+        for (TitleCount row : productRepository.countByTitle()) {
+            String text = row.getTitle().trim().replaceAll("\\s+", " ");
+            titles.merge(text.toLowerCase(Locale.ROOT),
+                    new WeightedSuggestion(new Suggestion(text, SuggestionKind.PRODUCT, null), row.getListings()),
+                    (a, b) -> new WeightedSuggestion(a.suggestion(), a.weight() + b.weight()));
+        }
+        List<WeightedSuggestion> suggestions = new ArrayList<>(titles.values());
+        for (SellerCount row : productRepository.countBySeller()) {
+            suggestions.add(new WeightedSuggestion(
+                    new Suggestion(row.getName().trim(), SuggestionKind.SELLER, row.getSellerId()), row.getListings()));
+        }
+        return suggestions;
+    }
+}
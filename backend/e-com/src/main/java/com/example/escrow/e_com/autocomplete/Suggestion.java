@@ -0,0 +1,5 @@
+package com.example.escrow.e_com.autocomplete;
+
+// id is the seller's user id for SELLER suggestions and null for product titles
+public record Suggestion(String text, SuggestionKind kind, Long id) {
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.autocomplete;
+
+public enum SuggestionKind {
+
+    PRODUCT,
+    SELLER
+}
@@ -0,0 +1,256 @@
+package com.example.escrow.e_com.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable ternary search trie over completion keys, with the best {@code k}
+ * suggestions precomputed at every node. Nodes live in parallel primitive arrays, and
+ * each node's top-k is a shared immutable list, so a lookup walks the prefix and returns
+ * that list without allocating.
+ *
+ * <p>Every entry is reachable from the start of each of its first few words ("wool
+ * scarf" completes both "wo" and "sc"). Ranking is by weight, then shorter text, then
+ * alphabetical.
+ */
+public final class TernarySearchTrie {
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WORD_STARTS = 4;
+    private static final int NONE = -1;
+
+    private final char[] chars;
+    private final int[] lo;
+    private final int[] eq;
+    private final int[] hi;
+    private final List<Suggestion>[] top;
+    private final int root;
+    private final int entries;
+
+    private TernarySearchTrie(char[] chars, int[] lo, int[] eq, int[] hi, List<Suggestion>[] top, int root,
+                              int entries) {
+        this.chars = chars;
+        this.lo = lo;
+        this.eq = eq;
+        this.hi = hi;
+        this.top = top;
+        this.root = root;
+        this.entries = entries;
+    }
+
+    public static TernarySearchTrie empty() {
+        return build(List.of(), 1);
+    }
+
+    /** Builds the trie; suggestions with the same text (ignoring case) should already be merged. */
+    public static TernarySearchTrie build(List<WeightedSuggestion> suggestions, int k) {
+        List<WeightedSuggestion> ranked = new ArrayList<>(suggestions);
+        ranked.sort(Comparator.comparingLong(WeightedSuggestion::weight).reversed()
+                .thenComparingInt(s -> s.suggestion().text().length())
+                .thenComparing(s -> s.suggestion().text()));
+
+        // Rank order is the entry id, so "best k" is "smallest k ids"
+        Map<String, List<Integer>> terminals = new HashMap<>();
+        for (int id = 0; id < ranked.size(); id++) {
+            for (String key : keys(ranked.get(id).suggestion().text())) {
+                terminals.computeIfAbsent(key, ignored -> new ArrayList<>(1)).add(id);
+            }
+        }
+        String[] sortedKeys = terminals.keySet().toArray(String[]::new);
+        Arrays.sort(sortedKeys);
+
+        Builder builder = new Builder(sortedKeys.length * 4 + 16);
+        int root = builder.insertBalanced(sortedKeys, 0, sortedKeys.length - 1, NONE, terminals);
+
+        Suggestion[] byId = new Suggestion[ranked.size()];
+        for (int id = 0; id < byId.length; id++) {
+            byId[id] = ranked.get(id).suggestion();
+        }
+        @SuppressWarnings("unchecked")
+        List<Suggestion>[] top = new List[builder.size];
+        builder.computeTop(root, k, byId, top);
+        return new TernarySearchTrie(Arrays.copyOf(builder.chars, builder.size), Arrays.copyOf(builder.lo, builder.size),
+                Arrays.copyOf(builder.eq, builder.size), Arrays.copyOf(builder.hi, builder.size), top, root,
+                ranked.size());
+    }
+
+    /** The best suggestions starting with {@code prefix}, at most {@code limit}. */
+    public List<Suggestion> complete(CharSequence prefix, int limit) {
+        int length = prefix.length();
+        while (length > 0 && Character.isWhitespace(prefix.charAt(length - 1))) {
+            length--;
+        }
+        int start = 0;
+        while (start < length && Character.isWhitespace(prefix.charAt(start))) {
+            start++;
+        }
+        if (start == length || length - start > MAX_KEY_LENGTH) {
+            return List.of();
+        }
+
+        int node = root;
+        int i = start;
+        while (node != NONE) {
+            char c = prefix.charAt(i);
+            // Runs of whitespace match the single space used in keys
+            if (Character.isWhitespace(c)) {
+                if (Character.isWhitespace(prefix.charAt(i - 1))) {
+                    i++;
+                    continue;
+                }
+                c = ' ';
+            } else {
+                c = Character.toLowerCase(c);
+            }
+            if (c < chars[node]) {
+                node = lo[node];
+            } else if (c > chars[node]) {
+                node = hi[node];
+            } else if (++i == length) {
+                List<Suggestion> best = top[node];
+                return best.size() <= limit ? best : best.subList(0, Math.max(0, limit));
+            } else {
+                node = eq[node];
+            }
+        }
+        return List.of();
+    }
+
+    public int entries() {
+        return entries;
+    }
+
+    public int nodes() {
+        return chars.length;
+    }
+
+    // Normalized full text plus the suffixes that start at its next few words
+    static List<String> keys(String text) {
+        String normalized = text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        List<String> keys = new ArrayList<>(MAX_WORD_STARTS);
+        int start = 0;
+        while (start >= 0 && start < normalized.length() && keys.size() < MAX_WORD_STARTS) {
+            keys.add(normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH)));
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    private static final class Builder {
+
+        char[] chars;
+        int[] lo;
+        int[] eq;
+        int[] hi;
+        int size;
+        // Entry ids ending at a node, by node; only the few terminal nodes have any
+        final Map<Integer, List<Integer>> ending = new HashMap<>();
+
+        Builder(int capacity) {
+            chars = new char[capacity];
+            lo = new int[capacity];
+            eq = new int[capacity];
+            hi = new int[capacity];
+        }
+
+        // Median-first insertion keeps the lo/hi links close to balanced
+        int insertBalanced(String[] keys, int from, int to, int root, Map<String, List<Integer>> terminals) {
+            if (from > to) {
+                return root;
+            }
+            int mid = (from + to) >>> 1;
+            root = insert(root, keys[mid], terminals.get(keys[mid]));
+            root = insertBalanced(keys, from, mid - 1, root, terminals);
+            return insertBalanced(keys, mid + 1, to, root, terminals);
+        }
+
+        int insert(int root, String key, List<Integer> ids) {
+            if (root == NONE) {
+                root = node(key.charAt(0));
+            }
+            int node = root;
+            int i = 0;
+            while (true) {
+                char c = key.charAt(i);
+                if (c < chars[node]) {
+                    if (lo[node] == NONE) {
+                        // Allocate first: node() may replace the arrays
+                        int child = node(c);
+                        lo[node] = child;
+                    }
+                    node = lo[node];
+                } else if (c > chars[node]) {
+                    if (hi[node] == NONE) {
+                        int child = node(c);
+                        hi[node] = child;
+                    }
+                    node = hi[node];
+                } else if (++i == key.length()) {
+                    ending.computeIfAbsent(node, ignored -> new ArrayList<>(1)).addAll(ids);
+                    return root;
+                } else {
+                    if (eq[node] == NONE) {
+                        int child = node(key.charAt(i));
+                        eq[node] = child;
+                    }
+                    node = eq[node];
+                }
+            }
+        }
+
+        int node(char c) {
+            if (size == chars.length) {
+                int capacity = size * 2;
+                chars = Arrays.copyOf(chars, capacity);
+                lo = Arrays.copyOf(lo, capacity);
+                eq = Arrays.copyOf(eq, capacity);
+                hi = Arrays.copyOf(hi, capacity);
+            }
+            chars[size] = c;
+            lo[size] = NONE;
+            eq[size] = NONE;
+            hi[size] = NONE;
+            return size++;
+        }
+
+        /**
+         * Fills {@code top} for every node under {@code node} and returns the best ids of the
+         * whole subtree (lo and hi included), which is what the parent's eq link needs.
+         */
+        int[] computeTop(int node, int k, Suggestion[] byId, List<Suggestion>[] top) {
+            if (node == NONE) {
+                return new int[0];
+            }
+            List<Integer> endingHere = ending.get(node);
+            int[] own = endingHere == null ? new int[0] : endingHere.stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[] prefixBest = merge(own, computeTop(eq[node], k, byId, top), k);
+            List<Suggestion> suggestions = new ArrayList<>(prefixBest.length);
+            for (int id : prefixBest) {
+                suggestions.add(byId[id]);
+            }
+            top[node] = List.copyOf(suggestions);
+            return merge(merge(prefixBest, computeTop(lo[node], k, byId, top), k), computeTop(hi[node], k, byId, top), k);
+        }
+
+        // Both inputs ascending; keeps the k smallest distinct ids
+        private static int[] merge(int[] a, int[] b, int k) {
+            int[] out = new int[Math.min(k, a.length + b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (n < out.length && (i < a.length || j < b.length)) {
+                int next = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+                if (n == 0 || out[n - 1] != next) {
+                    out[n++] = next;
+                }
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+    }
+}
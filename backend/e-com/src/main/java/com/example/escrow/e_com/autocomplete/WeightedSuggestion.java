@@ -0,0 +1,5 @@
+package com.example.escrow.e_com.autocomplete;
+
+// Product titles weigh their listing count, sellers the number of products they list
+public record WeightedSuggestion(Suggestion suggestion, long weight) {
+}
@@ -0,0 +1,134 @@
+package com.example.escrow.e_com.cache;
+
+import com.example.escrow.e_com.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process cache of {@link UserResponse} keyed by id and by email. Caffeine gives
+ * W-TinyLFU eviction and runs at most one loader per key, so a burst of reads for
+ * the same user costs a single query. Writers invalidate after their transaction
+ * commits, so a concurrent reader cannot re-cache the pre-commit row.
+ *
+ * <p>Bulk loads bypass Caffeine's per-key loading, which is what orders a load against
+ * an invalidation. Instead every eviction bumps {@code generation} first, and a bulk
+ * load that sees it move while it was in flight drops what it just cached.
+ */
+@Component
+public class UserResponseCache {
+
+    private final Cache<Long, UserResponse> byId;
+    private final Cache<String, UserResponse> byEmail;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserResponseCache(MeterRegistry meterRegistry,
+                             @Value("${user.cache.max-size:100000}") long maxSize,
+                             @Value("${user.cache.ttl:PT10M}") Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+    }
+
+    public UserResponse getById(Long id, Function<Long, UserResponse> loader) {
+        return byId.get(id, loader);
+    }
+
+    public UserResponse getByEmail(String email, Function<String, UserResponse> loader) {
+        return byEmail.get(email, loader);
+    }
+
+    // Hits are served first; all misses go to the loader together and only found users are cached
+    public Map<Long, UserResponse> getAllById(Collection<Long> ids, Function<Set<Long>, Map<Long, UserResponse>> loader) {
+        return getAll(byId, ids, loader);
+    }
+
+    public Map<String, UserResponse> getAllByEmail(Collection<String> emails,
+                                                   Function<Set<String>, Map<String, UserResponse>> loader) {
+        return getAll(byEmail, emails, loader);
+    }
+
+    public void invalidate(Long id, String... emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, emails);
+                }
+            });
+        } else {
+            evict(id, emails);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids, Collection<String> emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictAll(ids, emails);
+                }
+            });
+        } else {
+            evictAll(ids, emails);
+        }
+    }
+
+    private <K> Map<K, UserResponse> getAll(Cache<K, UserResponse> cache, Collection<K> keys,
+                                            Function<Set<K>, Map<K, UserResponse>> loader) {
+        Map<K, UserResponse> result = new HashMap<>(cache.getAllPresent(keys));
+        Set<K> missing = new HashSet<>(keys);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long started = generation.get();
+        Map<K, UserResponse> loaded = loader.apply(Set.copyOf(missing));
+        cache.putAll(loaded);
+        // An eviction since the read may predate the put; bumped before evicting, so this check catches it
+        if (generation.get() != started) {
+            cache.invalidateAll(loaded.keySet());
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    private void evictAll(Collection<Long> ids, Collection<String> emails) {
+        generation.incrementAndGet();
+        byId.invalidateAll(ids);
+        byEmail.invalidateAll(emails);
+    }
+
+    private void evict(Long id, String... emails) {
+        generation.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        Arrays.stream(emails).filter(Objects::nonNull).forEach(byEmail::invalidate);
+    }
+}
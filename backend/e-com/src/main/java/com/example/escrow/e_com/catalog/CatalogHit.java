@@ -0,0 +1,5 @@
+package com.example.escrow.e_com.catalog;
+
+// Stored with the index so search results need no database round trip
+public record CatalogHit(Long productId, Long sellerId, String sku, String title, String category, long price) {
+}
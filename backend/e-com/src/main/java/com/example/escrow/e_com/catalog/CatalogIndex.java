@@ -0,0 +1,368 @@
+package com.example.escrow.e_com.catalog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process search over the catalog. Title and description terms map to compressed
+ * {@link PostingList}s; category and price band are bitsets over doc ids. Seller is
+ * high-cardinality, so it gets a posting list instead of one near-empty bitset per seller.
+ *
+ * <p>Doc ids are handed out in ascending order and never reused: an updated product is
+ * indexed again under a new id and its old id is cleared from {@code live}. Once dead ids
+ * make up a quarter of the index it is compacted in place. Results come newest first.
+ *
+ * <p>A removed product is tombstoned by id (ids are never reused), so an update that
+ * reaches the index after the delete, from a late after-commit hook or a catch-up read
+ * taken before the delete committed, cannot bring it back.
+ */
+@Component
+public class CatalogIndex {
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 32;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+
+    private final long[] bandBounds;
+    private final String[] bandLabels;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> terms = new HashMap<>();
+    private final Map<Long, PostingList> sellerDocs = new HashMap<>();
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<BitSet> categoryDocs = new ArrayList<>();
+    private final BitSet[] bandDocs;
+    private final Map<Long, Integer> docsByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    // Removal time per product, oldest first
+    private final Map<Long, Instant> tombstones = new LinkedHashMap<>();
+    private Doc[] docs = new Doc[1024];
+    private int nextDoc;
+
+    public CatalogIndex(@Value("${catalog.price-bands:1000,5000,10000,50000}") long[] bandBounds) {
+        this.bandBounds = bandBounds.clone();
+        Arrays.sort(this.bandBounds);
+        this.bandLabels = new String[bandBounds.length + 1];
+        this.bandDocs = new BitSet[bandBounds.length + 1];
+        for (int band = 0; band <= this.bandBounds.length; band++) {
+            long from = band == 0 ? 0 : this.bandBounds[band - 1];
+            bandLabels[band] = band == this.bandBounds.length ? from + "+" : from + "-" + (this.bandBounds[band] - 1);
+            bandDocs[band] = new BitSet();
+        }
+    }
+
+    /** Adds the product, replacing whatever was indexed for it before. */
+    public void index(ProductDocument product) {
+        indexAll(List.of(product));
+    }
+
+    public void indexAll(Collection<ProductDocument> products) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDocument product : products) {
+                if (tombstones.containsKey(product.productId())) {
+                    continue;
+                }
+                Integer existing = docsByProduct.get(product.productId());
+                if (existing != null && docs[existing].version >= product.version()) {
+                    continue;
+                }
+                unindex(product.productId());
+                Set<String> tokens = tokenize(product.title());
+                tokens.addAll(tokenize(product.description()));
+                add(new Doc(new CatalogHit(product.productId(), product.sellerId(), product.sku(), product.title(),
+                        product.category(), product.price()), product.version(), tokens.toArray(String[]::new)));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            tombstones.putIfAbsent(productId, Instant.now());
+            unindex(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops tombstones older than {@code cutoff}; by then no read of the deleted row can still arrive. */
+    public void forgetRemovedBefore(Instant cutoff) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Instant> removedAt = tombstones.values().iterator();
+            while (removedAt.hasNext() && removedAt.next().isBefore(cutoff)) {
+                removedAt.remove();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> priceBands() {
+        return List.of(bandLabels);
+    }
+
+    public CatalogResult search(CatalogQuery query) {
+        Set<String> queryTerms = tokenize(query.text());
+        lock.readLock().lock();
+        try {
+            BitSet category = null;
+            if (query.category() != null) {
+                Integer ordinal = categoryOrdinals.get(categoryKey(query.category()));
+                if (ordinal == null) {
+                    return empty();
+                }
+                category = categoryDocs.get(ordinal);
+            }
+            BitSet band = null;
+            if (query.priceBand() != null) {
+                if (query.priceBand() < 0 || query.priceBand() >= bandDocs.length) {
+                    return empty();
+                }
+                band = bandDocs[query.priceBand()];
+            }
+
+            List<PostingList> lists = new ArrayList<>(queryTerms.size() + 1);
+            for (String term : queryTerms) {
+                PostingList postings = terms.get(term);
+                if (postings == null) {
+                    return empty();
+                }
+                lists.add(postings);
+            }
+            if (query.sellerId() != null) {
+                PostingList postings = sellerDocs.get(query.sellerId());
+                if (postings == null) {
+                    return empty();
+                }
+                lists.add(postings);
+            }
+
+            BitSet matches;
+            if (lists.isEmpty()) {
+                matches = (BitSet) live.clone();
+                if (category != null) {
+                    matches.and(category);
+                }
+                if (band != null) {
+                    matches.and(band);
+                }
+            } else {
+                matches = intersect(lists, category, band);
+            }
+            return collect(matches, Math.max(0, query.offset()), Math.max(0, query.limit()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lowercased alphanumeric runs; the same rules for documents and queries
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TERM_LENGTH && length <= MAX_TERM_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Leapfrog over the lists, rarest first, applying the bitset facets to each common doc
+    private BitSet intersect(List<PostingList> lists, BitSet category, BitSet band) {
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).cursor();
+        }
+        BitSet matches = new BitSet();
+        int candidate = cursors[0].next();
+        candidates:
+        while (candidate != PostingList.Cursor.NO_MORE) {
+            for (int i = 1; i < cursors.length; i++) {
+                int doc = cursors[i].advance(candidate);
+                if (doc > candidate) {
+                    candidate = cursors[0].advance(doc);
+                    continue candidates;
+                }
+            }
+            if (live.get(candidate) && (category == null || category.get(candidate))
+                    && (band == null || band.get(candidate))) {
+                matches.set(candidate);
+            }
+            candidate = cursors[0].next();
+        }
+        return matches;
+    }
+
+    // Caller holds the read lock
+    private CatalogResult collect(BitSet matches, int offset, int limit) {
+        int[] categoryCounts = new int[categoryNames.size()];
+        int[] bandCounts = new int[bandDocs.length];
+        int total = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            Doc stored = docs[doc];
+            categoryCounts[stored.category]++;
+            bandCounts[stored.band]++;
+            total++;
+        }
+
+        List<CatalogHit> hits = new ArrayList<>(Math.min(limit, total));
+        int skipped = 0;
+        for (int doc = matches.previousSetBit(nextDoc - 1); doc >= 0 && hits.size() < limit;
+             doc = matches.previousSetBit(doc - 1)) {
+            if (skipped++ >= offset) {
+                hits.add(docs[doc].hit);
+            }
+        }
+
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        for (int i = 0; i < categoryCounts.length; i++) {
+            if (categoryCounts[i] > 0) {
+                categories.put(categoryNames.get(i), categoryCounts[i]);
+            }
+        }
+        Map<String, Integer> priceBands = new LinkedHashMap<>();
+        for (int i = 0; i < bandCounts.length; i++) {
+            if (bandCounts[i] > 0) {
+                priceBands.put(bandLabels[i], bandCounts[i]);
+            }
+        }
+        return new CatalogResult(total, hits, categories, priceBands);
+    }
+
+    private CatalogResult empty() {
+        return new CatalogResult(0, List.of(), Map.of(), Map.of());
+    }
+
+    // Caller holds the write lock
+    private void add(Doc doc) {
+        CatalogHit hit = doc.hit;
+        doc.category = categoryOrdinals.computeIfAbsent(categoryKey(hit.category()), key -> {
+            categoryNames.add(hit.category());
+            categoryDocs.add(new BitSet());
+            return categoryNames.size() - 1;
+        });
+        doc.band = band(hit.price());
+
+        int id = nextDoc++;
+        if (id == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        docs[id] = doc;
+        for (String term : doc.terms) {
+            terms.computeIfAbsent(term, t -> new PostingList()).add(id);
+        }
+        sellerDocs.computeIfAbsent(hit.sellerId(), s -> new PostingList()).add(id);
+        categoryDocs.get(doc.category).set(id);
+        bandDocs[doc.band].set(id);
+        live.set(id);
+        docsByProduct.put(hit.productId(), id);
+    }
+
+    // Caller holds the write lock; postings keep the dead id until compaction
+    private void unindex(Long productId) {
+        Integer id = docsByProduct.remove(productId);
+        if (id == null) {
+            return;
+        }
+        Doc doc = docs[id];
+        categoryDocs.get(doc.category).clear(id);
+        bandDocs[doc.band].clear(id);
+        live.clear(id);
+        docs[id] = null;
+    }
+
+    // Caller holds the write lock: re-adds the live docs under dense ids
+    private void compactIfNeeded() {
+        int dead = nextDoc - docsByProduct.size();
+        if (dead < MIN_DEAD_FOR_COMPACTION || dead * 4 < nextDoc) {
+            return;
+        }
+        List<Doc> survivors = new ArrayList<>(docsByProduct.size());
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            survivors.add(docs[doc]);
+        }
+        terms.clear();
+        sellerDocs.clear();
+        categoryOrdinals.clear();
+        categoryNames.clear();
+        categoryDocs.clear();
+        for (BitSet bits : bandDocs) {
+            bits.clear();
+        }
+        docsByProduct.clear();
+        live.clear();
+        docs = new Doc[Math.max(1024, Integer.highestOneBit(Math.max(1, survivors.size())) << 1)];
+        nextDoc = 0;
+        survivors.forEach(this::add);
+    }
+
+    private int band(long price) {
+        int band = 0;
+        while (band < bandBounds.length && price >= bandBounds[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private static String categoryKey(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Doc {
+
+        final CatalogHit hit;
+        final long version;
+        final String[] terms;
+        int category;
+        int band;
+
+        Doc(CatalogHit hit, long version, String[] terms) {
+            this.hit = hit;
+            this.version = version;
+            this.terms = terms;
+        }
+    }
+}
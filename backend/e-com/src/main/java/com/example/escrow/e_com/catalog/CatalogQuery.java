@@ -0,0 +1,5 @@
+package com.example.escrow.e_com.catalog;
+
+// Every filter is optional; text terms are ANDed
+public record CatalogQuery(String text, String category, Long sellerId, Integer priceBand, int offset, int limit) {
+}
@@ -0,0 +1,9 @@
+package com.example.escrow.e_com.catalog;
+
+import java.util.List;
+import java.util.Map;
+
+// Facet counts cover the whole match set, not just the returned page
+public record CatalogResult(int total, List<CatalogHit> hits, Map<String, Integer> categories,
+                            Map<String, Integer> priceBands) {
+}
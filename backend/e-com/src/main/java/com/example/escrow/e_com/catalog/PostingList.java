@@ -0,0 +1,78 @@
+package com.example.escrow.e_com.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Ascending doc ids stored as varint-encoded gaps. Doc ids only ever grow (an updated
+ * product is re-indexed under a new id), so adding is an append and lists never need
+ * re-encoding outside compaction. Not thread-safe; {@link CatalogIndex} guards it.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    void add(int docId) {
+        if (docId <= last) {
+            throw new IllegalArgumentException("Doc ids must ascend: " + docId + " after " + last);
+        }
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        int gap = docId - last;
+        while ((gap & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[length++] = (byte) gap;
+        last = docId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int encodedBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Forward-only reader; {@link #NO_MORE} once exhausted. */
+    final class Cursor {
+
+        static final int NO_MORE = Integer.MAX_VALUE;
+
+        private int position;
+        private int doc = -1;
+
+        int next() {
+            if (position >= length) {
+                return doc = NO_MORE;
+            }
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return doc += gap;
+        }
+
+        // First doc >= target
+        int advance(int target) {
+            int current = doc;
+            while (current < target) {
+                current = next();
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.catalog;
+
+// What the index needs from a product; price in minor units. A lower version than the one
+// indexed is ignored, so late after-commit updates cannot roll the index back.
+public record ProductDocument(Long productId, long version, Long sellerId, String sku, String title,
+                              String description, String category, long price) {
+}
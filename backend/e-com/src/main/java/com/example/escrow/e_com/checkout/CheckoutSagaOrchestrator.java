@@ -0,0 +1,314 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.entity.CheckoutSagaStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs checkout sagas phase by phase; the steps of one phase have no dependencies on each
+ * other and run concurrently, so a phase costs its slowest step rather than the sum. The
+ * first failing step stops the saga: completed steps are compensated newest first, and a
+ * step that finishes after that is compensated as soon as it lands.
+ *
+ * <p>Every finished step is written down with its result and latency. A saga left
+ * unfinished by a crash is picked up once it has gone untouched for resume-after: a PAID
+ * saga rolls forward, anything earlier is compensated from its recorded steps.
+ */
+@Component
+public class CheckoutSagaOrchestrator {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutSagaOrchestrator.class);
+
+    private static final int RESUME_BATCH = 100;
+
+    private final SagaStore store;
+    private final SagaSteps steps;
+    private final MeterRegistry meterRegistry;
+    private final Duration phaseTimeout;
+    private final Duration resumeAfter;
+    private final ExecutorService executor;
+    private final AtomicBoolean resuming = new AtomicBoolean();
+
+    public CheckoutSagaOrchestrator(SagaStore store,
+                                    SagaSteps steps,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${checkout.phase-timeout:PT10S}") Duration phaseTimeout,
+                                    @Value("${checkout.resume-after:PT5M}") Duration resumeAfter,
+                                    @Value("${checkout.threads:32}") int threads) {
+        this.store = store;
+        this.steps = steps;
+        this.meterRegistry = meterRegistry;
+        this.phaseTimeout = phaseTimeout;
+        this.resumeAfter = resumeAfter;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "checkout-saga-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Persists the new saga and runs it to the end on the calling thread. */
+    public CheckoutSaga run(CheckoutSaga saga) {
+        SagaRun run = new SagaRun(store.save(saga), false);
+        execute(run);
+        return run.saga;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Also covers startup: sagas orphaned by a crash are stale by the time anyone looks
+    @Scheduled(fixedDelayString = "${checkout.resume-interval:PT1M}")
+    public void resumeStale() {
+        if (!resuming.compareAndSet(false, true)) {
+            return;
+        }
+        // Off the shared scheduler thread: compensations can take a while
+        executor.execute(() -> {
+            try {
+                for (CheckoutSaga saga : store.findUnfinished(Instant.now().minus(resumeAfter), RESUME_BATCH)) {
+                    resume(saga);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Resuming checkout sagas failed", e);
+            } finally {
+                resuming.set(false);
+            }
+        });
+    }
+
+    void resume(CheckoutSaga saga) {
+        SagaRun run;
+        try {
+            saga.setUpdatedAt(Instant.now());
+            run = new SagaRun(store.save(saga), true);
+        } catch (OptimisticLockingFailureException e) {
+            // Another node claimed it
+            return;
+        }
+        for (CheckoutSagaStep step : store.steps(saga.getId())) {
+            if (step.getStatus() == StepStatus.COMPLETED) {
+                run.results.put(step.getStep(), step.getResult());
+                run.completed.push(step.getStep());
+            }
+        }
+        log.info("Resuming checkout saga {} from {}", saga.getId(), saga.getStatus());
+        if (saga.getStatus() == SagaStatus.PAID) {
+            execute(run);
+        } else {
+            compensate(run, saga.getFailureReason() != null ? saga.getFailureReason() : "Interrupted before payment");
+        }
+    }
+
+    private void execute(SagaRun run) {
+        long started = System.nanoTime();
+        try {
+            if (run.saga.getStatus() == SagaStatus.STARTED) {
+                runPhase(run, 1);
+                run.saga.setFee(Long.valueOf(run.results.get(SagaStep.COMPUTE_FEES)));
+                advance(run, SagaStatus.RESERVED);
+            }
+            if (run.saga.getStatus() == SagaStatus.RESERVED) {
+                runPhase(run, 2);
+                advance(run, SagaStatus.PAID);
+            }
+            if (run.saga.getStatus() == SagaStatus.PAID) {
+                runPhase(run, 3);
+                advance(run, SagaStatus.COMPLETED);
+            }
+        } catch (RuntimeException e) {
+            compensate(run, message(e));
+        }
+        Timer.builder("checkout.saga")
+                .tag("outcome", run.saga.getStatus().name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    // Returns once every step of the phase succeeded; throws on the first failure without waiting for the rest
+    private void runPhase(SagaRun run, int phase) {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (SagaStep step : SagaStep.values()) {
+            if (step.phase() == phase && !run.results.containsKey(step)) {
+                futures.add(CompletableFuture.supplyAsync(() -> perform(run, step), executor));
+            }
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        futures.forEach(future -> future.whenComplete((result, error) -> {
+            if (error != null) {
+                done.completeExceptionally(error);
+            }
+        }));
+        // Dependents fire newest first, so this can run before the failing step's own callback
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        done.completeExceptionally(error);
+                    } else {
+                        done.complete(null);
+                    }
+                });
+        try {
+            done.get(phaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CompletionException(new TimeoutException("Phase " + phase + " timed out after " + phaseTimeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private String perform(SagaRun run, SagaStep step) {
+        long started = System.nanoTime();
+        String result;
+        try {
+            result = steps.handler(step).perform(run.saga, run.results);
+        } catch (RuntimeException e) {
+            finish(run, step, StepStatus.FAILED, null, message(e), started);
+            throw e;
+        }
+        // Recorded before it is published, so a compensation that picks it up finds its row to mark
+        finish(run, step, StepStatus.COMPLETED, result, null, started);
+        boolean late;
+        synchronized (run) {
+            late = run.compensating;
+            if (!late) {
+                run.results.put(step, result);
+                run.completed.push(step);
+            }
+        }
+        if (late) {
+            // The saga already failed elsewhere; undo this one on arrival
+            compensateStep(run, step, result);
+        }
+        return result;
+    }
+
+    private void finish(SagaRun run, SagaStep step, StepStatus status, String result, String error, long started) {
+        long nanos = System.nanoTime() - started;
+        Timer.builder("checkout.saga.step")
+                .tag("step", step.name())
+                .tag("outcome", status.name())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        store.recordStep(CheckoutSagaStep.builder()
+                .sagaId(run.saga.getId())
+                .step(step)
+                .status(status)
+                .result(result)
+                .error(truncate(error))
+                .durationMicros(TimeUnit.NANOSECONDS.toMicros(nanos))
+                .finishedAt(Instant.now())
+                .build());
+    }
+
+    private void compensate(SagaRun run, String reason) {
+        List<SagaStep> undo;
+        synchronized (run) {
+            run.compensating = true;
+            // Pushed on completion, so this is newest first
+            undo = new ArrayList<>(run.completed);
+        }
+        log.info("Compensating checkout saga {}: {}", run.saga.getId(), reason);
+        run.saga.setFailureReason(truncate(reason));
+        int reachedPhase = switch (run.saga.getStatus()) {
+            case STARTED -> 1;
+            case RESERVED -> 2;
+            default -> 3;
+        };
+        advance(run, SagaStatus.COMPENSATING);
+
+        boolean clean = true;
+        for (SagaStep step : undo) {
+            clean &= compensateStep(run, step, run.results.get(step));
+        }
+        if (run.resumed) {
+            // The crash may have hidden whether these ran; handlers undo what they can find by reference
+            for (SagaStep step : SagaStep.values()) {
+                if (step.phase() <= reachedPhase && !run.results.containsKey(step)) {
+                    clean &= compensateStep(run, step, null);
+                }
+            }
+        }
+        advance(run, clean ? SagaStatus.COMPENSATED : SagaStatus.FAILED);
+    }
+
+    private boolean compensateStep(SagaRun run, SagaStep step, String result) {
+        try {
+            steps.handler(step).compensate(run.saga, result);
+            if (result != null || run.results.containsKey(step)) {
+                store.markCompensated(run.saga.getId(), step);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Compensating {} for checkout saga {} failed", step, run.saga.getId(), e);
+            return false;
+        }
+    }
+
+    private void advance(SagaRun run, SagaStatus status) {
+        run.saga.setStatus(status);
+        run.saga.setUpdatedAt(Instant.now());
+        run.saga = store.save(run.saga);
+    }
+
+    private static String message(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static String truncate(String text) {
+        return text == null || text.length() <= 500 ? text : text.substring(0, 500);
+    }
+
+    private static final class SagaRun {
+
+        // Written only by the orchestrating thread, read by step threads
+        volatile CheckoutSaga saga;
+        final boolean resumed;
+        // Results may be null, which rules out ConcurrentHashMap
+        final Map<SagaStep, String> results = Collections.synchronizedMap(new EnumMap<>(SagaStep.class));
+        // Guarded by this
+        final Deque<SagaStep> completed = new ArrayDeque<>();
+        boolean compensating;
+
+        SagaRun(CheckoutSaga saga, boolean resumed) {
+            this.saga = saga;
+            this.resumed = resumed;
+        }
+    }
+}
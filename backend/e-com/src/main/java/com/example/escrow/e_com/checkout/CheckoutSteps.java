@@ -0,0 +1,209 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.EscrowResponse;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.escrow.EscrowEventType;
+import com.example.escrow.e_com.escrow.EscrowState;
+import com.example.escrow.e_com.exception.IllegalEscrowTransitionException;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.exception.InventoryNotFoundException;
+import com.example.escrow.e_com.service.EscrowService;
+import com.example.escrow.e_com.service.InventoryService;
+import com.example.escrow.e_com.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * What each checkout step does and how it is undone. Steps whose effect cannot be found
+ * again without their result (a reservation, an unfunded escrow) are left to expire when
+ * a resumed saga never saw that result.
+ */
+@Component
+public class CheckoutSteps implements SagaSteps {
+
+    private final UserService userService;
+    private final InventoryService inventoryService;
+    private final EscrowService escrowService;
+    private final PaymentGateway paymentGateway;
+    private final long feeBasisPoints;
+    private final long minimumFee;
+    private final Map<SagaStep, SagaStepHandler> handlers = new EnumMap<>(SagaStep.class);
+
+    public CheckoutSteps(UserService userService,
+                         InventoryService inventoryService,
+                         EscrowService escrowService,
+                         PaymentGateway paymentGateway,
+                         @Value("${checkout.fee-basis-points:250}") long feeBasisPoints,
+                         @Value("${checkout.minimum-fee:50}") long minimumFee) {
+        this.userService = userService;
+        this.inventoryService = inventoryService;
+        this.escrowService = escrowService;
+        this.paymentGateway = paymentGateway;
+        this.feeBasisPoints = feeBasisPoints;
+        this.minimumFee = minimumFee;
+
+        handlers.put(SagaStep.VALIDATE_BUYER, (saga, results) -> validateBuyer(saga));
+        handlers.put(SagaStep.VALIDATE_SELLER, (saga, results) -> validateSeller(saga));
+        handlers.put(SagaStep.RESERVE_INVENTORY, new ReserveInventory());
+        handlers.put(SagaStep.COMPUTE_FEES, (saga, results) -> String.valueOf(fee(saga.getAmount())));
+        handlers.put(SagaStep.CREATE_ESCROW, new CreateEscrow());
+        handlers.put(SagaStep.CHARGE_PAYMENT, new ChargePayment());
+        handlers.put(SagaStep.FUND_ESCROW, new FundEscrow());
+        handlers.put(SagaStep.CONFIRM_RESERVATION, new ConfirmReservation());
+    }
+
+    @Override
+    public SagaStepHandler handler(SagaStep step) {
+        return handlers.get(step);
+    }
+
+    long fee(long amount) {
+        return Math.max(minimumFee, Math.multiplyExact(amount, feeBasisPoints) / 10_000);
+    }
+
+    private String validateBuyer(CheckoutSaga saga) {
+        UserResponse buyer = userService.findById(saga.getBuyerId());
+        if (!userService.hasRole(buyer, Role.CUSTOMER)) {
+            throw new InvalidRequestException("User " + saga.getBuyerId() + " is not a customer");
+        }
+        return null;
+    }
+
+    private String validateSeller(CheckoutSaga saga) {
+        if (Objects.equals(saga.getBuyerId(), saga.getSellerId())) {
+            throw new InvalidRequestException("Buyer and seller must differ");
+        }
+        UserResponse seller = userService.findById(saga.getSellerId());
+        if (!userService.hasRole(seller, Role.SELLER)) {
+            throw new InvalidRequestException("User " + saga.getSellerId() + " is not a seller");
+        }
+        return null;
+    }
+
+    private static String reference(CheckoutSaga saga) {
+        return "checkout:" + saga.getId();
+    }
+
+    // Products without a SKU are not stock-tracked; the stock sold must be the paid seller's own
+    private class ReserveInventory implements SagaStepHandler {
+
+        @Override
+        public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+            if (saga.getSku() == null) {
+                return null;
+            }
+            if (!Objects.equals(inventoryService.findBySku(saga.getSku()).getSellerId(), saga.getSellerId())) {
+                throw new InvalidRequestException("SKU " + saga.getSku() + " belongs to another seller");
+            }
+            return inventoryService.reserve(saga.getSku(), saga.getQuantity(), saga.getBuyerId()).getId().toString();
+        }
+
+        @Override
+        public void compensate(CheckoutSaga saga, String result) {
+            if (result == null) {
+                return;
+            }
+            try {
+                inventoryService.release(UUID.fromString(result), null);
+            } catch (InventoryNotFoundException e) {
+                // Already expired or released
+            }
+        }
+    }
+
+    private class CreateEscrow implements SagaStepHandler {
+
+        @Override
+        public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+            return escrowService.createEscrow(saga.getBuyerId(), saga.getSellerId(), saga.getAmount()).getId().toString();
+        }
+
+        // Unknown escrows stay CREATED and expire with the payment window
+        @Override
+        public void compensate(CheckoutSaga saga, String result) {
+            if (result == null) {
+                return;
+            }
+            try {
+                escrowService.transition(UUID.fromString(result), EscrowEventType.EXPIRED, null, null,
+                        "Checkout " + saga.getId() + " cancelled");
+            } catch (IllegalEscrowTransitionException e) {
+                // Funded and refunded by FUND_ESCROW's compensation, or already expired
+            }
+        }
+    }
+
+    private class ChargePayment implements SagaStepHandler {
+
+        @Override
+        public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+            return paymentGateway.charge(reference(saga), saga.getBuyerId(), saga.getAmount(), saga.getFee()).join();
+        }
+
+        // Refunds go by reference, so this works even when the charge's outcome was never seen
+        @Override
+        public void compensate(CheckoutSaga saga, String result) {
+            paymentGateway.refund(reference(saga)).join();
+        }
+    }
+
+    private class FundEscrow implements SagaStepHandler {
+
+        @Override
+        public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+            UUID escrowId = UUID.fromString(results.get(SagaStep.CREATE_ESCROW));
+            try {
+                return escrowService.transition(escrowId, EscrowEventType.FUNDED, saga.getBuyerId(), Role.CUSTOMER,
+                        "Checkout " + saga.getId()).getId().toString();
+            } catch (IllegalEscrowTransitionException e) {
+                // A resumed saga may have funded it before the crash
+                EscrowResponse escrow = escrowService.findById(escrowId, null, Role.ADMIN);
+                if (escrow.getState() != EscrowState.FUNDED) {
+                    throw e;
+                }
+                return escrowId.toString();
+            }
+        }
+
+        @Override
+        public void compensate(CheckoutSaga saga, String result) {
+            if (result == null) {
+                return;
+            }
+            try {
+                escrowService.transition(UUID.fromString(result), EscrowEventType.REFUNDED, null, null,
+                        "Checkout " + saga.getId() + " cancelled");
+            } catch (IllegalEscrowTransitionException e) {
+                // Already refunded
+            }
+        }
+    }
+
+    private class ConfirmReservation implements SagaStepHandler {
+
+        @Override
+        public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+            String reservationId = results.get(SagaStep.RESERVE_INVENTORY);
+            if (reservationId == null) {
+                return null;
+            }
+            inventoryService.confirm(UUID.fromString(reservationId), saga.getBuyerId());
+            return reservationId;
+        }
+
+        // A confirmed sale cannot be un-sold; put the units back on the shelf instead
+        @Override
+        public void compensate(CheckoutSaga saga, String result) {
+            if (result != null) {
+                inventoryService.adjustStock(saga.getSku(), saga.getQuantity(), null, Role.ADMIN);
+            }
+        }
+    }
+}
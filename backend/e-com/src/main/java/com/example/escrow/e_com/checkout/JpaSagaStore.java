@@ -0,0 +1,53 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.entity.CheckoutSagaStep;
+import com.example.escrow.e_com.repository.CheckoutSagaRepository;
+import com.example.escrow.e_com.repository.CheckoutSagaStepRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class JpaSagaStore implements SagaStore {
+
+    private static final EnumSet<SagaStatus> UNFINISHED = EnumSet.of(SagaStatus.STARTED, SagaStatus.RESERVED,
+            SagaStatus.PAID, SagaStatus.COMPENSATING, SagaStatus.FAILED);
+
+    private final CheckoutSagaRepository sagaRepository;
+    private final CheckoutSagaStepRepository stepRepository;
+
+    public JpaSagaStore(CheckoutSagaRepository sagaRepository, CheckoutSagaStepRepository stepRepository) {
+        this.sagaRepository = sagaRepository;
+        this.stepRepository = stepRepository;
+    }
+
+    @Override
+    public CheckoutSaga save(CheckoutSaga saga) {
+        return sagaRepository.save(saga);
+    }
+
+    @Override
+    public void recordStep(CheckoutSagaStep step) {
+        stepRepository.save(step);
+    }
+
+    @Override
+    public void markCompensated(UUID sagaId, SagaStep step) {
+        stepRepository.updateStatus(sagaId, step, StepStatus.COMPENSATED, Instant.now());
+    }
+
+    @Override
+    public List<CheckoutSagaStep> steps(UUID sagaId) {
+        return stepRepository.findBySagaIdOrderByFinishedAt(sagaId);
+    }
+
+    @Override
+    public List<CheckoutSaga> findUnfinished(Instant updatedBefore, int limit) {
+        return sagaRepository.findByStatusInAndUpdatedAtBeforeOrderByCreatedAt(UNFINISHED, updatedBefore, Limit.of(limit));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.escrow.e_com.checkout;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Card payments. Both calls are idempotent per {@code reference}, which is what lets a
+ * resumed saga refund a charge whose outcome it never saw.
+ */
+public interface PaymentGateway {
+
+    // Completes with the provider's payment id
+    CompletableFuture<String> charge(String reference, Long buyerId, long amount, long fee);
+
+    CompletableFuture<Void> refund(String reference);
+}
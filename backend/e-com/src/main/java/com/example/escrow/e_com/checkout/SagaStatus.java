@@ -0,0 +1,19 @@
+package com.example.escrow.e_com.checkout;
+
+public enum SagaStatus {
+
+    STARTED,
+    // Phase 1 done: buyer and seller checked, stock held, fees known
+    RESERVED,
+    // Phase 2 done: escrow created and buyer charged; from here a resumed saga rolls forward
+    PAID,
+    COMPLETED,
+    COMPENSATING,
+    COMPENSATED,
+    // A compensation failed; retried when the saga is next resumed
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == COMPENSATED;
+    }
+}
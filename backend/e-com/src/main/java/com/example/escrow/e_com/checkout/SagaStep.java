@@ -0,0 +1,24 @@
+package com.example.escrow.e_com.checkout;
+
+// Grouped by phase; steps within a phase run concurrently
+public enum SagaStep {
+
+    VALIDATE_BUYER(1),
+    VALIDATE_SELLER(1),
+    RESERVE_INVENTORY(1),
+    COMPUTE_FEES(1),
+    CREATE_ESCROW(2),
+    CHARGE_PAYMENT(2),
+    FUND_ESCROW(3),
+    CONFIRM_RESERVATION(3);
+
+    private final int phase;
+
+    SagaStep(int phase) {
+        this.phase = phase;
+    }
+
+    public int phase() {
+        return phase;
+    }
+}
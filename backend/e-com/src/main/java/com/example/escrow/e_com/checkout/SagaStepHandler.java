@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.entity.CheckoutSaga;
+
+import java.util.Map;
+
+public interface SagaStepHandler {
+
+    /**
+     * Runs the step and returns what its compensation (or a later step) needs, or null.
+     * {@code results} holds the results of every earlier phase.
+     */
+    String perform(CheckoutSaga saga, Map<SagaStep, String> results);
+
+    /**
+     * Undoes the step. {@code result} is null when a resumed saga cannot tell whether the
+     * step ran at all; handlers undo what they can identify and leave the rest to expiry.
+     */
+    default void compensate(CheckoutSaga saga, String result) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.checkout;
+
+@FunctionalInterface
+public interface SagaSteps {
+
+    SagaStepHandler handler(SagaStep step);
+}
@@ -0,0 +1,23 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.entity.CheckoutSagaStep;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** Saga persistence, kept behind an interface so the orchestrator can run without a database. */
+public interface SagaStore {
+
+    // Returns the saved copy; fails with OptimisticLockingFailureException if another node got there first
+    CheckoutSaga save(CheckoutSaga saga);
+
+    void recordStep(CheckoutSagaStep step);
+
+    void markCompensated(UUID sagaId, SagaStep step);
+
+    List<CheckoutSagaStep> steps(UUID sagaId);
+
+    List<CheckoutSaga> findUnfinished(Instant updatedBefore, int limit);
+}
@@ -0,0 +1,77 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.ledger.EntryType;
+import com.example.escrow.e_com.repository.JournalEntryRepository;
+import com.example.escrow.e_com.repository.JournalEntryRepository.WalletPosting;
+import com.example.escrow.e_com.service.LedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a card processor until a real one is wired in. After a fixed latency a
+ * charge settles {@code amount} into the buyer's wallet as a DEPOSIT journal entry under
+ * the charge reference; the fee stays with the processor. A refund withdraws the settled
+ * amount again under {@code "refund:" + reference}.
+ *
+ * <p>The journal is the record of both, so a gateway on another node, or after a restart,
+ * finds a charge it never saw and does not charge or refund it twice. Only charges still
+ * waiting out the latency live in memory.
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final String PAYMENT_ID_PREFIX = "sim-";
+
+    private final LedgerService ledgerService;
+    private final JournalEntryRepository journalEntryRepository;
+    private final long latencyMillis;
+    private final Map<String, CompletableFuture<Long>> pending = new ConcurrentHashMap<>();
+
+    public SimulatedPaymentGateway(LedgerService ledgerService,
+                                   JournalEntryRepository journalEntryRepository,
+                                   @Value("${checkout.payment.latency:PT0.05S}") Duration latency) {
+        this.ledgerService = ledgerService;
+        this.journalEntryRepository = journalEntryRepository;
+        this.latencyMillis = latency.toMillis();
+    }
+
+    @Override
+    public CompletableFuture<String> charge(String reference, Long buyerId, long amount, long fee) {
+        CompletableFuture<Long> settled = pending.computeIfAbsent(reference, ref -> CompletableFuture.supplyAsync(
+                () -> deposit(ref).map(WalletPosting::getEntryId)
+                        .orElseGet(() -> ledgerService.deposit(buyerId, amount, ref).join()),
+                CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS)));
+        settled.whenComplete((entryId, failure) -> pending.remove(reference, settled));
+        return settled.thenApply(entryId -> PAYMENT_ID_PREFIX + entryId);
+    }
+
+    @Override
+    public CompletableFuture<Void> refund(String reference) {
+        CompletableFuture<Long> charge = pending.get(reference);
+        CompletableFuture<Long> settled = charge == null
+                ? CompletableFuture.completedFuture(null)
+                : charge.exceptionally(failure -> null);
+        return settled.thenCompose(ignored -> {
+            String refundReference = "refund:" + reference;
+            if (journalEntryRepository.existsByReferenceAndType(refundReference, EntryType.WITHDRAWAL)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // Never charged, or the charge failed: nothing to give back
+            return deposit(reference)
+                    .map(posting -> ledgerService.withdraw(posting.getUserId(), posting.getAmount(), refundReference)
+                            .<Void>thenApply(entryId -> null))
+                    .orElseGet(() -> CompletableFuture.completedFuture(null));
+        });
+    }
+
+    private Optional<WalletPosting> deposit(String reference) {
+        return journalEntryRepository.findWalletPostings(reference, EntryType.DEPOSIT).stream().findFirst();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.escrow.e_com.checkout;
+
+public enum StepStatus {
+
+    COMPLETED,
+    FAILED,
+    COMPENSATED
+}
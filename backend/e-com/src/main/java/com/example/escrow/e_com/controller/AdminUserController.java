@@ -0,0 +1,93 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.audit.AuditLog;
+import com.example.escrow.e_com.audit.AuditRecord;
+import com.example.escrow.e_com.dto.BulkRoleUpdateRequest;
+import com.example.escrow.e_com.dto.BulkRoleUpdateResponse;
+import com.example.escrow.e_com.dto.UserImportRequest;
+import com.example.escrow.e_com.dto.UserImportStatus;
+import com.example.escrow.e_com.service.UserExportService;
+import com.example.escrow.e_com.service.UserImportService;
+import com.example.escrow.e_com.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("api/admin/users")
+public class AdminUserController {
+
+    private final UserService userService;
+
+    private final UserImportService userImportService;
+
+    private final UserExportService userExportService;
+
+    private final AuditLog auditLog;
+
+    private final Duration exportTimeout;
+
+    public AdminUserController(UserService userService,
+                               UserImportService userImportService,
+                               UserExportService userExportService,
+                               AuditLog auditLog,
+                               @Value("${user.export.timeout:PT2H}") Duration exportTimeout) {
+        this.userService = userService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.auditLog = auditLog;
+        this.exportTimeout = exportTimeout;
+    }
+
+    @PutMapping("/role")
+    public ResponseEntity<BulkRoleUpdateResponse> updateRoles(@Valid @RequestBody BulkRoleUpdateRequest request) {
+        return ResponseEntity.ok().body(
+                userService.updateUserRoles(request.getIds(), request.getFromRole(), request.getRole()));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<UserImportStatus> startImport(@Valid @RequestBody UserImportRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userImportService.startImport(request));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<UserImportStatus> importStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok().body(userImportService.getStatus(jobId));
+    }
+
+    // Streams on an async task with its own timeout; a full-table dump outlasts the default async timeout
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(@RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                                     HttpServletResponse response) {
+        String contentType = format == UserExportService.Format.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE;
+        String filename = "users." + format.name().toLowerCase();
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            userExportService.export(format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    @GetMapping("/{id}/audit")
+    public ResponseEntity<List<AuditRecord>> audit(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok().body(auditLog.query(id, from, to, Math.min(Math.max(limit, 1), 1000)));
+    }
+}
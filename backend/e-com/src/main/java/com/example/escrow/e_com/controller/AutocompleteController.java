@@ -0,0 +1,28 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.autocomplete.AutocompleteIndex;
+import com.example.escrow.e_com.autocomplete.Suggestion;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/catalog/autocomplete")
+public class AutocompleteController {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public AutocompleteController(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Suggestion>> complete(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(autocompleteIndex.complete(q, limit));
+    }
+}
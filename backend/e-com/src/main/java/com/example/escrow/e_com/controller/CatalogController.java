@@ -0,0 +1,57 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.dto.CatalogSearchResponse;
+import com.example.escrow.e_com.dto.ProductRequest;
+import com.example.escrow.e_com.dto.ProductResponse;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/catalog")
+public class CatalogController {
+
+    private final ProductService productService;
+
+    public CatalogController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CatalogSearchResponse> search(@RequestParam(required = false) String q,
+                                                        @RequestParam(required = false) String category,
+                                                        @RequestParam(required = false) Long sellerId,
+                                                        @RequestParam(required = false) Integer priceBand,
+                                                        @RequestParam(defaultValue = "0") int offset,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok().body(productService.search(q, category, sellerId, priceBand, offset, limit));
+    }
+
+    @GetMapping("/products/{id}")
+    public ResponseEntity<ProductResponse> get(@PathVariable Long id) {
+        return ResponseEntity.ok().body(productService.findById(id));
+    }
+
+    @PostMapping("/products")
+    public ResponseEntity<ProductResponse> create(@AuthenticationPrincipal JwtPrincipal principal,
+                                                  @Valid @RequestBody ProductRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(productService.createProduct(request, principal.getId(), principal.getRole()));
+    }
+
+    @PutMapping("/products/{id}")
+    public ResponseEntity<ProductResponse> update(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable Long id,
+                                                  @Valid @RequestBody ProductRequest request) {
+        return ResponseEntity.ok().body(productService.updateProduct(id, request, principal.getId(), principal.getRole()));
+    }
+
+    @DeleteMapping("/products/{id}")
+    public ResponseEntity<Void> delete(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable Long id) {
+        productService.deleteProduct(id, principal.getId(), principal.getRole());
+        return ResponseEntity.noContent().build();
+    }
+}
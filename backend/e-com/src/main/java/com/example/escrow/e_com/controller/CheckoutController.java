@@ -0,0 +1,43 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.dto.CheckoutRequest;
+import com.example.escrow.e_com.dto.CheckoutResponse;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.service.CheckoutService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/checkout")
+public class CheckoutController {
+
+    private final CheckoutService checkoutService;
+
+    public CheckoutController(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    // 201 once completed, 409 if it was rolled back, 202 if it is still settling
+    @PostMapping
+    public ResponseEntity<CheckoutResponse> checkout(@AuthenticationPrincipal JwtPrincipal principal,
+                                                     @Valid @RequestBody CheckoutRequest request) {
+        CheckoutResponse response = checkoutService.checkout(principal.getId(), request.getProductId(),
+                request.getQuantity());
+        HttpStatus status = switch (response.getStatus()) {
+            case COMPLETED -> HttpStatus.CREATED;
+            case COMPENSATED, FAILED -> HttpStatus.CONFLICT;
+            default -> HttpStatus.ACCEPTED;
+        };
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CheckoutResponse> get(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id) {
+        return ResponseEntity.ok().body(checkoutService.findById(id, principal.getId(), principal.getRole()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.dto.EscrowActionRequest;
+import com.example.escrow.e_com.dto.EscrowCreateRequest;
+import com.example.escrow.e_com.dto.EscrowResponse;
+import com.example.escrow.e_com.escrow.EscrowEventType;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.service.EscrowService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/escrow")
+public class EscrowController {
+
+    private final EscrowService escrowService;
+
+    public EscrowController(EscrowService escrowService) {
+        this.escrowService = escrowService;
+    }
+
+    @PostMapping
+    public ResponseEntity<EscrowResponse> create(@AuthenticationPrincipal JwtPrincipal principal,
+                                                 @Valid @RequestBody EscrowCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(escrowService.createEscrow(principal.getId(), request.getSellerId(), request.getAmount()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EscrowResponse> get(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id) {
+        return ResponseEntity.ok().body(escrowService.findById(id, principal.getId(), principal.getRole()));
+    }
+
+    @PostMapping("/{id}/fund")
+    public ResponseEntity<EscrowResponse> fund(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id,
+                                               @Valid @RequestBody(required = false) EscrowActionRequest request) {
+        return transition(principal, id, EscrowEventType.FUNDED, request);
+    }
+
+    @PostMapping("/{id}/ship")
+    public ResponseEntity<EscrowResponse> ship(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id,
+                                               @Valid @RequestBody(required = false) EscrowActionRequest request) {
+        return transition(principal, id, EscrowEventType.SHIPPED, request);
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<EscrowResponse> release(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id,
+                                                  @Valid @RequestBody(required = false) EscrowActionRequest request) {
+        return transition(principal, id, EscrowEventType.RELEASED, request);
+    }
+
+    @PostMapping("/{id}/refund")
+    public ResponseEntity<EscrowResponse> refund(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id,
+                                                 @Valid @RequestBody(required = false) EscrowActionRequest request) {
+        return transition(principal, id, EscrowEventType.REFUNDED, request);
+    }
+
+    @PostMapping("/{id}/dispute")
+    public ResponseEntity<EscrowResponse> dispute(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id,
+                                                  @Valid @RequestBody(required = false) EscrowActionRequest request) {
+        return transition(principal, id, EscrowEventType.DISPUTED, request);
+    }
+
+    private ResponseEntity<EscrowResponse> transition(JwtPrincipal principal, UUID id, EscrowEventType type,
+                                                      EscrowActionRequest request) {
+        String note = request != null ? request.getNote() : null;
+        return ResponseEntity.ok().body(escrowService.transition(id, type, principal.getId(), principal.getRole(), note));
+    }
+}
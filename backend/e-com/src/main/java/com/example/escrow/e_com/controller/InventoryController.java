@@ -0,0 +1,76 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.dto.InventoryItemRequest;
+import com.example.escrow.e_com.dto.InventoryResponse;
+import com.example.escrow.e_com.dto.ReservationRequest;
+import com.example.escrow.e_com.dto.ReservationResponse;
+import com.example.escrow.e_com.dto.StockAdjustmentRequest;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.service.InventoryService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/inventory")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @PostMapping
+    public ResponseEntity<InventoryResponse> create(@AuthenticationPrincipal JwtPrincipal principal,
+                                                    @Valid @RequestBody InventoryItemRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(inventoryService.createItem(request.getSku(), request.getQuantity(),
+                        principal.getId(), principal.getRole()));
+    }
+
+    @GetMapping("/{sku}")
+    public ResponseEntity<InventoryResponse> get(@PathVariable String sku) {
+        return ResponseEntity.ok().body(inventoryService.findBySku(sku));
+    }
+
+    @PatchMapping("/{sku}/stock")
+    public ResponseEntity<InventoryResponse> adjustStock(@AuthenticationPrincipal JwtPrincipal principal,
+                                                         @PathVariable String sku,
+                                                         @Valid @RequestBody StockAdjustmentRequest request) {
+        return ResponseEntity.ok()
+                .body(inventoryService.adjustStock(sku, request.getDelta(), principal.getId(), principal.getRole()));
+    }
+
+    @PutMapping("/{sku}/hot")
+    public ResponseEntity<InventoryResponse> setHot(@AuthenticationPrincipal JwtPrincipal principal,
+                                                    @PathVariable String sku,
+                                                    @RequestParam(defaultValue = "true") boolean enabled) {
+        return ResponseEntity.ok()
+                .body(inventoryService.setHot(sku, enabled, principal.getId(), principal.getRole()));
+    }
+
+    @PostMapping("/{sku}/reservations")
+    public ResponseEntity<ReservationResponse> reserve(@AuthenticationPrincipal JwtPrincipal principal,
+                                                       @PathVariable String sku,
+                                                       @Valid @RequestBody ReservationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(inventoryService.reserve(sku, request.getQuantity(), principal.getId()));
+    }
+
+    @PostMapping("/reservations/{id}/confirm")
+    public ResponseEntity<ReservationResponse> confirm(@AuthenticationPrincipal JwtPrincipal principal,
+                                                       @PathVariable UUID id) {
+        return ResponseEntity.ok().body(inventoryService.confirm(id, principal.getId()));
+    }
+
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<Void> release(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable UUID id) {
+        inventoryService.release(id, principal.getId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,17 +1,35 @@
 package com.example.escrow.e_com.controller;
 
+import com.example.escrow.e_com.Role;
 import com.example.escrow.e_com.dto.AuthRequest;
+import com.example.escrow.e_com.dto.AuthResponse;
+import com.example.escrow.e_com.dto.BulkRegistrationResponse;
+import com.example.escrow.e_com.dto.RefreshTokenRequest;
+import com.example.escrow.e_com.dto.UserBatchRequest;
+import com.example.escrow.e_com.dto.UserBatchResponse;
+import com.example.escrow.e_com.dto.UserPage;
 import com.example.escrow.e_com.dto.UpdateRequestDTO;
 import com.example.escrow.e_com.dto.UserRegisterRequest;
 import com.example.escrow.e_com.dto.UserResponse;
 import com.example.escrow.e_com.entity.User;
 import com.example.escrow.e_com.exception.AlreadyExistsException;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.security.JwtService;
+import com.example.escrow.e_com.service.BulkUserService;
 import com.example.escrow.e_com.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,47 +38,123 @@ public class UserController {
 
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final BulkUserService bulkUserService;
+
+    private final JwtService jwtService;
+
+    public UserController(UserService userService, BulkUserService bulkUserService, JwtService jwtService) {
         this.userService = userService;
+        this.bulkUserService = bulkUserService;
+        this.jwtService = jwtService;
     }
 
     // User Management
-    @GetMapping("/id/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+    @GetMapping
+    public ResponseEntity<UserPage> listUsers(@RequestParam(required = false) Long after,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) Role role) {
+        return ResponseEntity.ok().body(userService.listUsers(after, limit, role));
+    }
 
-        return ResponseEntity.ok().body(userService.findById(id));
+    // Other users get the public view of the account
+    @GetMapping("/id/{id}")
+    public ResponseEntity<UserResponse> getUserById(@AuthenticationPrincipal JwtPrincipal principal,
+                                                    @PathVariable Long id) {
+        UserResponse user = userService.findById(id);
+        return ResponseEntity.ok().body(isSelfOrAdmin(principal, id) ? user : user.publicView());
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<UserResponse> getUserByEmail(@PathVariable String email) {
+    public ResponseEntity<UserResponse> getUserByEmail(@AuthenticationPrincipal JwtPrincipal principal,
+                                                       @PathVariable String email) {
+        if (principal.getRole() != Role.ADMIN && !email.equalsIgnoreCase(principal.getEmail())) {
+            throw new AccessDeniedException("Not allowed to read another user");
+        }
         return ResponseEntity.ok().body(userService.findByEmail(email));
     }
 
+    // Resolves many users in one round trip; unknown ids/emails are listed instead of failing the request.
+    // Non-admins may look up by id only and get the public view of everyone but themselves.
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchResponse> getUsers(@AuthenticationPrincipal JwtPrincipal principal,
+                                                      @RequestBody UserBatchRequest request) {
+        if (principal.getRole() == Role.ADMIN) {
+            return ResponseEntity.ok().body(userService.findBatch(request.getIds(), request.getEmails()));
+        }
+        if (request.getEmails() != null && !request.getEmails().isEmpty()) {
+            throw new AccessDeniedException("Only admins may look users up by email");
+        }
+        UserBatchResponse batch = userService.findBatch(request.getIds(), List.of());
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        batch.getUsers().forEach((id, user) -> users.put(id, principal.getId().equals(id) ? user : user.publicView()));
+        batch.setUsers(users);
+        return ResponseEntity.ok().body(batch);
+    }
+
     @PostMapping("/create")
     public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRegisterRequest dto) throws AlreadyExistsException {
         UserResponse userResponse = userService.registerUser(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(userResponse);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkRegistrationResponse> createUsers(@RequestBody List<UserRegisterRequest> dtos) {
+        return ResponseEntity.ok().body(bulkUserService.registerUsers(dtos));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkRegistrationResponse> createUsersNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(bulkUserService.registerUsersNdjson(request.getInputStream()));
+    }
+
     @PostMapping("/auth")
-    public ResponseEntity<UserResponse> authentication(@Valid @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> authentication(@Valid @RequestBody AuthRequest authRequest) {
         UserResponse userResponse = userService.authenticateUser(authRequest.getEmail(), authRequest.getPassword());
-        return ResponseEntity.status(HttpStatus.OK).body(userResponse);
+        return ResponseEntity.status(HttpStatus.OK).body(issueTokens(userResponse));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        JwtPrincipal principal = jwtService.parseRefreshToken(request.getRefreshToken());
+        // Re-read the user so a role change or deletion takes effect at the next refresh
+        UserResponse userResponse = userService.findById(principal.getId());
+        return ResponseEntity.status(HttpStatus.OK).body(issueTokens(userResponse));
     }
 
     @PutMapping("/update/{id}")
-    public ResponseEntity<UserResponse> deleteUser(@Valid @PathVariable Long id,
+    public ResponseEntity<UserResponse> deleteUser(@AuthenticationPrincipal JwtPrincipal principal,
+                                                   @Valid @PathVariable Long id,
                                                    @RequestBody UpdateRequestDTO updateRequestDTO) {
-
+        requireSelfOrAdmin(principal, id);
         UserResponse updateUserResponse = userService.updateUserProfile(id, updateRequestDTO);
         return ResponseEntity.status(HttpStatus.OK).body(updateUserResponse);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable Long id) {
+        requireSelfOrAdmin(principal, id);
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 
+    // Users may only change their own account; admins may act on any
+    private static void requireSelfOrAdmin(JwtPrincipal principal, Long id) {
+        if (!isSelfOrAdmin(principal, id)) {
+            throw new AccessDeniedException("Not allowed to act on user " + id);
+        }
+    }
+
+    private static boolean isSelfOrAdmin(JwtPrincipal principal, Long id) {
+        return principal.getRole() == Role.ADMIN || principal.getId().equals(id);
+    }
 
+    private AuthResponse issueTokens(UserResponse userResponse) {
+        return AuthResponse.builder()
+                .accessToken(jwtService.issueAccessToken(userResponse))
+                .refreshToken(jwtService.issueRefreshToken(userResponse))
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getAccessTokenTtl().toSeconds())
+                .user(userResponse)
+                .build();
+    }
 }
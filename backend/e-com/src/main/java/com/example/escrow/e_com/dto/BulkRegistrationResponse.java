@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRegistrationResponse {
+    private int total;
+    private int created;
+    private int failed;
+    // Rows past user.bulk.max-rows; they are counted but not processed or listed
+    private int truncated;
+    private List<BulkRegistrationResult> results;
+}
@@ -0,0 +1,19 @@
+package com.example.escrow.e_com.dto;
+
+import com.example.escrow.e_com.Role;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkRoleUpdateRequest {
+
+    // Either an explicit id list or a role filter (e.g. every CUSTOMER), not both
+    private List<Long> ids;
+
+    private Role fromRole;
+
+    @NotNull(message = "Role is required")
+    private Role role;
+}
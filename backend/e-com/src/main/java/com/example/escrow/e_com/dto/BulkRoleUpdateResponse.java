@@ -0,0 +1,23 @@
+package com.example.escrow.e_com.dto;
+
+import com.example.escrow.e_com.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRoleUpdateResponse {
+    private Role role;
+    private int updated;
+    private List<Long> updatedIds;
+    private List<Long> alreadyAssignedIds;
+    private List<Long> missingIds;
+    // fromRole updates stop at user.bulk-role.max-ids; true means users with fromRole remain and the request should be repeated
+    private boolean more;
+}
@@ -0,0 +1,22 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CatalogSearchResponse {
+
+    private int total;
+    // Search hits carry no description; fetch the product for that
+    private List<ProductResponse> items;
+    private Map<String, Integer> categories;
+    private Map<String, Integer> priceBands;
+}
@@ -0,0 +1,30 @@
+package com.example.escrow.e_com.dto;
+
+import com.example.escrow.e_com.checkout.SagaStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckoutResponse {
+
+    private UUID id;
+    private SagaStatus status;
+    private Long productId;
+    private int quantity;
+    private long amount;
+    private Long fee;
+    private String failureReason;
+    private Instant createdAt;
+    private Instant updatedAt;
+    // Finished steps in completion order, with their latency
+    private List<CheckoutStepResponse> steps;
+}
@@ -0,0 +1,20 @@
+package com.example.escrow.e_com.dto;
+
+import com.example.escrow.e_com.checkout.SagaStep;
+import com.example.escrow.e_com.checkout.StepStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckoutStepResponse {
+
+    private SagaStep step;
+    private StepStatus status;
+    private long durationMicros;
+    private String error;
+}
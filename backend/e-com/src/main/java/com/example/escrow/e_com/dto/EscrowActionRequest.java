@@ -0,0 +1,17 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EscrowActionRequest {
+
+    @Size(max = 500)
+    private String note;
+}
@@ -0,0 +1,23 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EscrowCreateRequest {
+
+    @NotNull
+    private Long sellerId;
+
+    // Minor units
+    @NotNull
+    @Positive
+    private Long amount;
+}
@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.dto;
+
+import com.example.escrow.e_com.escrow.EscrowState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EscrowResponse {
+    private UUID id;
+    private Long buyerId;
+    private Long sellerId;
+    private long amount;
+    private EscrowState state;
+    private int version;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
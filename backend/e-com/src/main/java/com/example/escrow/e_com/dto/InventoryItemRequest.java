@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryItemRequest {
+
+    @NotBlank
+    @Size(max = 64)
+    private String sku;
+
+    @NotNull
+    @PositiveOrZero
+    private Long quantity;
+}
@@ -0,0 +1,18 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryResponse {
+
+    private String sku;
+    private Long sellerId;
+    private long available;
+    private boolean hot;
+}
@@ -0,0 +1,36 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductRequest {
+
+    @Size(max = 64)
+    private String sku;
+
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+
+    @Size(max = 4000)
+    private String description;
+
+    @NotBlank
+    @Size(max = 64)
+    private String category;
+
+    // Minor units
+    @NotNull
+    @PositiveOrZero
+    private Long price;
+}
@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductResponse {
+
+    private Long id;
+    private Long sellerId;
+    private String sku;
+    private String title;
+    private String description;
+    private String category;
+    private long price;
+}
@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationRequest {
+
+    @NotNull
+    @Positive
+    @Max(1000)
+    private Integer quantity;
+}
@@ -0,0 +1,18 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockAdjustmentRequest {
+
+    // Positive to restock, negative to write off
+    @NotNull
+    private Long delta;
+}
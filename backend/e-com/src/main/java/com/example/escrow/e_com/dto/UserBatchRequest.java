@@ -0,0 +1,12 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserBatchRequest {
+    private List<Long> ids = new ArrayList<>();
+    private List<String> emails = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBatchResponse {
+    private Map<Long, UserResponse> users;
+    private List<Long> missingIds;
+    private List<String> missingEmails;
+}
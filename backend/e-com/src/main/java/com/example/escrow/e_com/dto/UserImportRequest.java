@@ -0,0 +1,27 @@
+package com.example.escrow.e_com.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class UserImportRequest {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    // Reusing the id of an unfinished job resumes it from its last checkpoint
+    private String jobId;
+
+    // Relative to user.import.base-dir
+    @NotBlank(message = "Path is required")
+    private String path;
+
+    @NotNull(message = "Format is required")
+    private Format format;
+
+    // Plain-text passwords are rejected unless this is set; BCrypt hashes are always taken as-is
+    private boolean hashPlainPasswords;
+}
@@ -0,0 +1,32 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserImportStatus {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String jobId;
+    private String path;
+    private State state;
+    private long linesCommitted;
+    private long rowsImported;
+    private long rowsDuplicate;
+    private long rowsRejected;
+    private Double rowsPerSecond;
+    private Instant updatedAt;
+    private String error;
+}
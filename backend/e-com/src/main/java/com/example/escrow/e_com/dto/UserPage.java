@@ -0,0 +1,18 @@
+package com.example.escrow.e_com.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserPage {
+    private List<UserResponse> items;
+    // Pass as ?after= to fetch the next page; null on the last page
+    private Long nextAfter;
+}
@@ -1,9 +1,16 @@
 package com.example.escrow.e_com.dto;
 
 import com.example.escrow.e_com.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
+// The public view leaves email and role out instead of sending them as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserResponse {
 
     private Long id;
@@ -11,4 +18,8 @@ public class UserResponse {
     private String email;
     private Role role;
 
+    // What any signed-in user may see of another: enough to show a counterparty by name
+    public UserResponse publicView() {
+        return new UserResponse(id, name, null, null);
+    }
 }
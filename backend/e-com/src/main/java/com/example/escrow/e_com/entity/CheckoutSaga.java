@@ -0,0 +1,61 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.checkout.SagaStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "checkout_sagas", indexes = @Index(name = "idx_checkout_sagas_status_updated_at", columnList = "status, updated_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutSaga {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private Long buyerId;
+
+    @Column(nullable = false)
+    private Long sellerId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(length = 64)
+    private String sku;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    // Minor units; fee is null until COMPUTE_FEES has run
+    @Column(nullable = false)
+    private long amount;
+
+    private Long fee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SagaStatus status;
+
+    @Column(length = 500)
+    private String failureReason;
+
+    // Only the orchestrating thread writes the saga row; a concurrent resume loses here
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.checkout.SagaStep;
+import com.example.escrow.e_com.checkout.StepStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "checkout_saga_steps",
+        uniqueConstraints = @UniqueConstraint(name = "uk_checkout_saga_steps_saga_step", columnNames = {"saga_id", "step"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutSagaStep {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "checkout_saga_steps_seq")
+    @SequenceGenerator(name = "checkout_saga_steps_seq", sequenceName = "checkout_saga_steps_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID sagaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SagaStep step;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StepStatus status;
+
+    // What compensation needs: reservation id, escrow id, payment id or fee
+    @Column(length = 64)
+    private String result;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(nullable = false)
+    private long durationMicros;
+
+    @Column(nullable = false)
+    private Instant finishedAt;
+}
@@ -0,0 +1,60 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.escrow.EscrowEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Append-only; the unique (escrow_id, seq) key rejects a second writer appending the same version
+@Entity
+@Table(name = "escrow_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_escrow_events_escrow_seq", columnNames = {"escrow_id", "seq"}),
+        indexes = @Index(name = "idx_escrow_events_pending", columnList = "pending, created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EscrowEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "escrow_events_seq")
+    @SequenceGenerator(name = "escrow_events_seq", sequenceName = "escrow_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID escrowId;
+
+    @Column(nullable = false)
+    private int seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EscrowEventType type;
+
+    // Null for system-initiated transitions
+    private Long actorId;
+
+    // Set on CREATED only
+    private Long buyerId;
+
+    private Long sellerId;
+
+    private Long amount;
+
+    @Column(length = 500)
+    private String note;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Claims the seq while the event's ledger posting is in flight; replay skips it until confirmed
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean pending;
+}
@@ -0,0 +1,46 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.escrow.EscrowState;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Aggregate state as of event `seq`; loading replays only the events after it
+@Entity
+@Table(name = "escrow_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EscrowSnapshot {
+
+    @Id
+    private UUID escrowId;
+
+    @Column(nullable = false)
+    private int seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EscrowState state;
+
+    @Column(nullable = false)
+    private Long buyerId;
+
+    @Column(nullable = false)
+    private Long sellerId;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
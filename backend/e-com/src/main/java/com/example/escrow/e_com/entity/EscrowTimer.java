@@ -0,0 +1,38 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.scheduler.EscrowTimerKind;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "escrow_timers",
+        uniqueConstraints = @UniqueConstraint(name = "uk_escrow_timers_escrow_kind", columnNames = {"escrow_id", "kind"}),
+        indexes = @Index(name = "idx_escrow_timers_due_at", columnList = "due_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EscrowTimer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "escrow_timers_seq")
+    @SequenceGenerator(name = "escrow_timers_seq", sequenceName = "escrow_timers_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID escrowId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EscrowTimerKind kind;
+
+    // Pushed forward by a lease while a node is firing the timer
+    @Column(nullable = false)
+    private Instant dueAt;
+}
@@ -0,0 +1,38 @@
+package com.example.escrow.e_com.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One row per Idempotency-Key; responseStatus stays null while the first request is running
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // SHA-256 (hex) of caller, method, path and the client's key
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+
+    // SHA-256 (hex) of the request body and query string
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer responseStatus;
+
+    @Column(length = 100)
+    private String contentType;
+
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
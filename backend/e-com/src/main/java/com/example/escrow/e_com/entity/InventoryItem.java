@@ -0,0 +1,50 @@
+package com.example.escrow.e_com.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "inventory_items", indexes = @Index(name = "idx_inventory_items_seller_id", columnList = "seller_id"))
+@Check(constraints = "quantity >= 0")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryItem {
+
+    @Id
+    @Column(length = 64)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long sellerId;
+
+    // Units not sold and not held by a cold-path reservation; for a hot SKU this includes units held in memory
+    @Column(nullable = false)
+    private long quantity;
+
+    // Served from in-memory sharded counters (flash sale)
+    @Column(nullable = false)
+    private boolean hot;
+
+    // Node whose counter serves the hot SKU, until its lease runs out
+    @Column(length = 64)
+    private String hotOwner;
+
+    private Instant hotLeaseUntil;
+
+    // Bumped on every lease hand-over, so sales from a counter that lost its lease are refused
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long hotEpoch;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
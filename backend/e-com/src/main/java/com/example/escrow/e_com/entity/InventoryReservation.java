@@ -0,0 +1,49 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.inventory.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// A cold reservation's units are already off inventory_items.quantity; a hot one's are held by the counter of hotEpoch
+@Entity
+@Table(name = "inventory_reservations", indexes = {
+        @Index(name = "idx_inventory_reservations_sku", columnList = "sku"),
+        @Index(name = "idx_inventory_reservations_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReservation {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 64)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long buyerId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Lease epoch of the counter the units came from; null for cold reservations
+    private Long hotEpoch;
+
+    // Cold reservations are settled by deleting the row, hot ones by marking it for the lease holder's flush
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'HELD'")
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+}
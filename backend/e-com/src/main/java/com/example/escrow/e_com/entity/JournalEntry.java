@@ -0,0 +1,34 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.ledger.EntryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "journal_entries", indexes = @Index(name = "idx_journal_entries_reference", columnList = "reference"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entries_seq")
+    @SequenceGenerator(name = "journal_entries_seq", sequenceName = "journal_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntryType type;
+
+    @Column(length = 64)
+    private String reference;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,44 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.ledger.AccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "ledger_accounts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_accounts_user_type", columnNames = {"user_id", "type"}))
+@Check(constraints = "balance >= 0 or type = 'EXTERNAL'")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerAccount {
+
+    public static final long SYSTEM_USER_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_accounts_seq")
+    @SequenceGenerator(name = "ledger_accounts_seq", sequenceName = "ledger_accounts_seq", allocationSize = 50)
+    private Long id;
+
+    // SYSTEM_USER_ID for system accounts, so the unique key also covers them
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AccountType type;
+
+    // Minor units; maintained with relative updates by the ledger batch writer
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,34 @@
+package com.example.escrow.e_com.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "ledger_postings", indexes = {
+        @Index(name = "idx_ledger_postings_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_ledger_postings_entry_id", columnList = "entry_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerPosting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_postings_seq")
+    @SequenceGenerator(name = "ledger_postings_seq", sequenceName = "ledger_postings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long entryId;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    // Signed minor units: negative debits, positive credits; postings of an entry sum to zero
+    @Column(nullable = false)
+    private long amount;
+}
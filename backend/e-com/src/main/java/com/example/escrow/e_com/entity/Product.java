@@ -0,0 +1,56 @@
+package com.example.escrow.e_com.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+// updated_at drives the catalog index catch-up across nodes
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_seller_id", columnList = "seller_id"),
+        @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Product {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sellerId;
+
+    // Inventory SKU this product sells from, if stock is tracked
+    @Column(length = 64)
+    private String sku;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(length = 4000)
+    private String description;
+
+    @Column(nullable = false, length = 64)
+    private String category;
+
+    // Minor units
+    @Column(nullable = false)
+    private long price;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A deleted product leaves no row, so each delete is recorded here for other nodes' catalog indexes to pick up
+@Entity
+@Table(name = "product_tombstones", indexes = @Index(name = "idx_product_tombstones_deleted_at", columnList = "deleted_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductTombstone {
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
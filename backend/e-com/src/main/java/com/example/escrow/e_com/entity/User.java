@@ -8,17 +8,33 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "users")
+// (role, id) drives keyset paging by role; name and email ride along so the page is an index-only scan
+// deleted_at is the last key column so the live-row filter is answered from the index as well
+// Purge candidates sit in the purged_at IS NULL prefix, so the purger never walks rows it already purged
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_id", columnList = "role, id, name, email, deleted_at"),
+        @Index(name = "idx_users_purge_candidates", columnList = "purged_at, deleted_at")
+})
+// Soft-deleted users are invisible to every entity query
+@SQLRestriction("deleted_at is null")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate
 public class User {
     
+    // Ids are handed out in blocks of 50 per sequence call (pooled-lo), which keeps inserts batchable
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -37,6 +53,20 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    // Existing rows start at 0 when the column is added
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Set by deleteUser; the row is anonymized later by UserPurger, which then sets purgedAt
+    private Instant deletedAt;
+
+    private Instant purgedAt;
+
+    // Set while a purger works through the user's dependent rows; a lapsed claim is picked up again
+    private Instant purgeClaimedUntil;
+
 
 
 
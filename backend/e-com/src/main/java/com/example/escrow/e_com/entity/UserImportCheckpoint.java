@@ -0,0 +1,44 @@
+package com.example.escrow.e_com.entity;
+
+import com.example.escrow.e_com.dto.UserImportRequest;
+import com.example.escrow.e_com.dto.UserImportStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Written by the import job over plain JDBC, in the same transaction as each COPY batch
+@Entity
+@Table(name = "user_import_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportCheckpoint {
+
+    @Id
+    private String jobId;
+
+    @Column(nullable = false)
+    private String sourcePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserImportRequest.Format format;
+
+    private long linesCommitted;
+    private long rowsImported;
+    private long rowsDuplicate;
+    private long rowsRejected;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserImportStatus.State state;
+
+    private String error;
+
+    private Instant updatedAt;
+}
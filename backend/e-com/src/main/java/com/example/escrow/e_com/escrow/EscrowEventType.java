@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.escrow;
+
+public enum EscrowEventType {
+    CREATED(EscrowState.CREATED),
+    FUNDED(EscrowState.FUNDED),
+    SHIPPED(EscrowState.SHIPPED),
+    DISPUTED(EscrowState.DISPUTED),
+    RELEASED(EscrowState.RELEASED),
+    REFUNDED(EscrowState.REFUNDED),
+    EXPIRED(EscrowState.EXPIRED);
+
+    private final EscrowState target;
+
+    EscrowEventType(EscrowState target) {
+        this.target = target;
+    }
+
+    public EscrowState target() {
+        return target;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.escrow.e_com.escrow;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum EscrowState {
+    CREATED,
+    FUNDED,
+    SHIPPED,
+    DISPUTED,
+    RELEASED,
+    REFUNDED,
+    // Never funded within the payment window
+    EXPIRED;
+
+    private Set<EscrowState> next;
+
+    static {
+        CREATED.next = EnumSet.of(FUNDED, EXPIRED);
+        FUNDED.next = EnumSet.of(SHIPPED, REFUNDED, DISPUTED);
+        SHIPPED.next = EnumSet.of(RELEASED, REFUNDED, DISPUTED);
+        // A dispute is settled one way or the other
+        DISPUTED.next = EnumSet.of(RELEASED, REFUNDED);
+        RELEASED.next = EnumSet.noneOf(EscrowState.class);
+        REFUNDED.next = EnumSet.noneOf(EscrowState.class);
+        EXPIRED.next = EnumSet.noneOf(EscrowState.class);
+    }
+
+    public boolean canTransitionTo(EscrowState target) {
+        return next.contains(target);
+    }
+
+    public boolean isTerminal() {
+        return next.isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.escrow.e_com.escrow;
+
+import com.example.escrow.e_com.entity.EscrowEvent;
+import com.example.escrow.e_com.entity.EscrowSnapshot;
+import com.example.escrow.e_com.exception.IllegalEscrowTransitionException;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory escrow aggregate, rebuilt from the latest snapshot plus the events after it.
+ * {@link #next} validates a transition without touching the database; {@link #apply}
+ * folds an event in once it is stored.
+ */
+@Getter
+public class EscrowTransaction {
+
+    private final UUID id;
+    private long buyerId;
+    private long sellerId;
+    private long amount;
+    private EscrowState state;
+    private int version;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    private EscrowTransaction(UUID id) {
+        this.id = id;
+    }
+
+    public static EscrowEvent creationEvent(UUID id, long buyerId, long sellerId, long amount, Instant now) {
+        return EscrowEvent.builder()
+                .escrowId(id)
+                .seq(1)
+                .type(EscrowEventType.CREATED)
+                .actorId(buyerId)
+                .buyerId(buyerId)
+                .sellerId(sellerId)
+                .amount(amount)
+                .createdAt(now)
+                .build();
+    }
+
+    public static EscrowTransaction replay(UUID id, EscrowSnapshot snapshot, List<EscrowEvent> events) {
+        EscrowTransaction tx = new EscrowTransaction(id);
+        if (snapshot != null) {
+            tx.buyerId = snapshot.getBuyerId();
+            tx.sellerId = snapshot.getSellerId();
+            tx.amount = snapshot.getAmount();
+            tx.state = snapshot.getState();
+            tx.version = snapshot.getSeq();
+            tx.createdAt = snapshot.getCreatedAt();
+            tx.updatedAt = snapshot.getUpdatedAt();
+        }
+        events.forEach(tx::apply);
+        return tx;
+    }
+
+    public EscrowEvent next(EscrowEventType type, Long actorId, String note, Instant now) {
+        if (type == EscrowEventType.CREATED || !state.canTransitionTo(type.target())) {
+            throw new IllegalEscrowTransitionException("Cannot move escrow " + id + " from " + state + " to " + type.target());
+        }
+        return EscrowEvent.builder()
+                .escrowId(id)
+                .seq(version + 1)
+                .type(type)
+                .actorId(actorId)
+                .note(note)
+                .createdAt(now)
+                .build();
+    }
+
+    public void apply(EscrowEvent event) {
+        if (event.getSeq() != version + 1) {
+            throw new IllegalStateException("Escrow " + id + " expected event " + (version + 1) + " but got " + event.getSeq());
+        }
+        if (event.getType() == EscrowEventType.CREATED) {
+            if (state != null) {
+                throw new IllegalStateException("Escrow " + id + " created twice");
+            }
+            buyerId = event.getBuyerId();
+            sellerId = event.getSellerId();
+            amount = event.getAmount();
+            createdAt = event.getCreatedAt();
+        } else if (state == null || !state.canTransitionTo(event.getType().target())) {
+            throw new IllegalStateException("Escrow " + id + " has an illegal " + event.getType() + " event in " + state);
+        }
+        state = event.getType().target();
+        version = event.getSeq();
+        updatedAt = event.getCreatedAt();
+    }
+
+    public EscrowTransaction copy() {
+        EscrowTransaction tx = new EscrowTransaction(id);
+        tx.buyerId = buyerId;
+        tx.sellerId = sellerId;
+        tx.amount = amount;
+        tx.state = state;
+        tx.version = version;
+        tx.createdAt = createdAt;
+        tx.updatedAt = updatedAt;
+        return tx;
+    }
+
+    public EscrowSnapshot toSnapshot() {
+        return EscrowSnapshot.builder()
+                .escrowId(id)
+                .seq(version)
+                .state(state)
+                .buyerId(buyerId)
+                .sellerId(sellerId)
+                .amount(amount)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class BatchLimitExceededException extends RuntimeException {
+    public BatchLimitExceededException(String message) {
+        super(message);
+    }
+}
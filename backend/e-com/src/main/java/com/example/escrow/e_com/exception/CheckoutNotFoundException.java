@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class CheckoutNotFoundException extends RuntimeException {
+    public CheckoutNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.exception;
+
+import java.sql.SQLException;
+
+public final class DataIntegrityErrors {
+
+    // PostgreSQL SQLSTATE for unique_violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private DataIntegrityErrors() {
+    }
+
+    public static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
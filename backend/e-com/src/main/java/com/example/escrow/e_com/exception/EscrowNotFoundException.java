@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class EscrowNotFoundException extends RuntimeException {
+    public EscrowNotFoundException(String message) {
+        super(message);
+    }
+}
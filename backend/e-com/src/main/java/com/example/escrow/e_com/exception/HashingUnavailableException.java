@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class HashingUnavailableException extends RuntimeException {
+    public HashingUnavailableException(String message) {
+        super(message);
+    }
+}
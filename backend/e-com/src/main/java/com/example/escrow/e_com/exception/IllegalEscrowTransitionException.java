@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class IllegalEscrowTransitionException extends RuntimeException {
+    public IllegalEscrowTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class InventoryNotFoundException extends RuntimeException {
+    public InventoryNotFoundException(String message) {
+        super(message);
+    }
+}
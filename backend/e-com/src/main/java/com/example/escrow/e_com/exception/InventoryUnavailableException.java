@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class InventoryUnavailableException extends RuntimeException {
+    public InventoryUnavailableException(String message) {
+        super(message);
+    }
+}
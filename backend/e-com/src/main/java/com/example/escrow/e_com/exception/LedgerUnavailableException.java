@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class LedgerUnavailableException extends RuntimeException {
+    public LedgerUnavailableException(String message) {
+        super(message);
+    }
+}
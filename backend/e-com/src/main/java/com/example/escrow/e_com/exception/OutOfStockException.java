@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class OutOfStockException extends RuntimeException {
+    public OutOfStockException(String message) {
+        super(message);
+    }
+}
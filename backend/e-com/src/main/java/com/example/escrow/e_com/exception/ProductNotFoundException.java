@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+}
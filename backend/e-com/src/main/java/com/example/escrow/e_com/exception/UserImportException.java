@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.exception;
+
+public class UserImportException extends RuntimeException {
+    public UserImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.escrow.e_com.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // Runs right after the security chain, so keys are scoped to the authenticated caller
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            ObjectMapper objectMapper,
+            @Value("${idempotency.max-keys:100000}") long maxKeys,
+            @Value("${idempotency.retention:PT24H}") Duration retention,
+            @Value("${idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+            @Value("${idempotency.max-body-bytes:1048576}") int maxBodyBytes,
+            @Value("${idempotency.stale-after:PT2M}") Duration staleAfter) {
+        // Login and refresh responses carry tokens; retrying them is harmless anyway
+        Set<String> excludedPaths = Set.of("/api/user/auth", "/api/user/refresh");
+        // A few heartbeats per stale-after window, so one slow write does not cost the claim
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, objectMapper, maxKeys, retention, waitTimeout, maxBodyBytes,
+                        staleAfter.dividedBy(4), excludedPaths));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.escrow.e_com.idempotency;
+
+import com.example.escrow.e_com.dto.ErrorResponse;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes mutating requests that carry an {@code Idempotency-Key} header safe to retry.
+ * The first request for a key runs; later ones with the same key and body get its
+ * stored response replayed, and a different body under the same key is a 422.
+ *
+ * <p>Keys are scoped to the caller, method and path. In-flight and completed keys sit in
+ * a bounded in-memory map, so a duplicate arriving while the first is still running
+ * waits on it instead of running again. The durable {@link IdempotencyStore} carries
+ * keys across nodes and restarts. Responses of 5xx or of a failed request are not
+ * stored, so the client can retry them. While a request runs, its durable claim is
+ * refreshed every heartbeat interval, so another node only takes over a claim whose
+ * node has stopped, never a request that is merely slow. If storing the response fails,
+ * the claim keeps being refreshed and the store retried until it takes the response.
+ *
+ * <p>Excluded paths are passed through untouched: their responses carry credentials
+ * and must never be persisted.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Execution> executions;
+    private final Duration waitTimeout;
+    private final int maxBodyBytes;
+    private final Duration heartbeatInterval;
+    private final Set<String> excludedPaths;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "idempotency-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                             long maxKeys, Duration ttl, Duration waitTimeout, int maxBodyBytes,
+                             Duration heartbeatInterval, Set<String> excludedPaths) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeout = waitTimeout;
+        this.maxBodyBytes = maxBodyBytes;
+        this.heartbeatInterval = heartbeatInterval;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !MUTATING.contains(request.getMethod())
+                || excludedPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY", HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "IDEMPOTENCY_BODY_TOO_LARGE",
+                    HEADER + " is supported for bodies up to " + maxBodyBytes + " bytes");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "IDEMPOTENCY_BODY_TOO_LARGE",
+                    HEADER + " is supported for bodies up to " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        String keyHash = sha256(scope(request) + '\n' + request.getMethod() + '\n' + request.getRequestURI() + '\n' + key);
+        String fingerprint = fingerprint(request, body);
+        HttpServletRequest cached = new CachedBodyRequest(request, body);
+
+        // A second pass only happens when the request we waited on failed without a stored response
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Execution mine = new Execution(fingerprint);
+            Execution existing = executions.asMap().putIfAbsent(keyHash, mine);
+            if (existing != null) {
+                if (!existing.fingerprint.equals(fingerprint)) {
+                    rejectMismatch(response);
+                    return;
+                }
+                StoredResponse stored;
+                try {
+                    stored = existing.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    rejectInProgress(response);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectInProgress(response);
+                    return;
+                } catch (ExecutionException e) {
+                    stored = null;
+                }
+                if (stored != null) {
+                    replay(stored, response);
+                    return;
+                }
+                continue;
+            }
+
+            if (!store.tryBegin(keyHash, fingerprint)) {
+                Optional<StoredResponse> stored = store.find(keyHash);
+                if (stored.isEmpty()) {
+                    // Released between our insert and read; go round again
+                    executions.invalidate(keyHash);
+                    mine.result.complete(null);
+                    continue;
+                }
+                StoredResponse other = stored.get();
+                if (!other.fingerprint().equals(fingerprint)) {
+                    executions.invalidate(keyHash);
+                    mine.result.complete(null);
+                    rejectMismatch(response);
+                    return;
+                }
+                if (!other.isComplete()) {
+                    executions.invalidate(keyHash);
+                    mine.result.complete(null);
+                    rejectInProgress(response);
+                    return;
+                }
+                mine.result.complete(other);
+                replay(other, response);
+                return;
+            }
+
+            execute(cached, response, chain, keyHash, mine);
+            return;
+        }
+        rejectInProgress(response);
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String keyHash, Execution mine) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        // Published to waiters only once the store holds it
+        StoredResponse stored = null;
+        boolean completingLater = false;
+        long interval = heartbeatInterval.toMillis();
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> heartbeat(keyHash), interval, interval,
+                TimeUnit.MILLISECONDS);
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                StoredResponse executed = new StoredResponse(mine.fingerprint, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getContentAsByteArray());
+                if (tryComplete(keyHash, executed)) {
+                    stored = executed;
+                } else {
+                    // The request already took effect: keep the claim alive rather than free the key for a rerun
+                    completeLater(keyHash, executed, heartbeat);
+                    completingLater = true;
+                }
+            }
+        } finally {
+            if (!completingLater) {
+                heartbeat.cancel(false);
+            }
+            if (stored == null) {
+                executions.invalidate(keyHash);
+                if (!completingLater) {
+                    store.abandon(keyHash);
+                }
+            }
+            mine.result.complete(stored);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private boolean tryComplete(String keyHash, StoredResponse response) {
+        try {
+            store.complete(keyHash, response);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Storing idempotent response failed; retrying", e);
+            return false;
+        }
+    }
+
+    // Duplicates get a 409 from the still-pending claim until the response is stored
+    private void completeLater(String keyHash, StoredResponse response, ScheduledFuture<?> heartbeat) {
+        heartbeats.schedule(() -> {
+            if (tryComplete(keyHash, response)) {
+                heartbeat.cancel(false);
+            } else {
+                completeLater(keyHash, response, heartbeat);
+            }
+        }, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void heartbeat(String keyHash) {
+        try {
+            store.heartbeat(keyHash);
+        } catch (RuntimeException e) {
+            logger.warn("Refreshing idempotency claim failed", e);
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void rejectMismatch(HttpServletResponse response) throws IOException {
+        reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                HEADER + " was already used with a different request");
+    }
+
+    private void rejectInProgress(HttpServletResponse response) throws IOException {
+        reject(response, HttpStatus.CONFLICT, "REQUEST_IN_PROGRESS",
+                "A request with this " + HEADER + " is still being processed");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .statusCode(status.value())
+                .error(error)
+                .message(message)
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static String scope(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        return "anonymous";
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest digest = sha256();
+        if (request.getQueryString() != null) {
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) '\n');
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(String value) {
+        return HexFormat.of().formatHex(sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Execution {
+        final String fingerprint;
+        // Completes with the stored response, or null when nothing was stored
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Execution(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    // The body is read up front to fingerprint it, so downstream gets it from memory
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
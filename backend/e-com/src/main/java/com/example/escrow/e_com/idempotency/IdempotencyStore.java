@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Durable side of {@link IdempotencyFilter}: shares keys across nodes and restarts.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for this request; false when another request already owns it. A
+     * claim left stale by a dead node is taken over, but only by the same request.
+     */
+    boolean tryBegin(String keyHash, String fingerprint);
+
+    /** Marks a claim as still running, so it does not go stale under a slow request. */
+    void heartbeat(String keyHash);
+
+    Optional<StoredResponse> find(String keyHash);
+
+    void complete(String keyHash, StoredResponse response);
+
+    /** Releases a claim whose request failed, so the client can retry with the same key. */
+    void abandon(String keyHash);
+}
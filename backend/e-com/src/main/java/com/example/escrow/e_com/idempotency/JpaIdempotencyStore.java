@@ -0,0 +1,75 @@
+package com.example.escrow.e_com.idempotency;
+
+import com.example.escrow.e_com.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration staleAfter;
+    private final Duration retention;
+    private final int purgeChunkSize;
+
+    public JpaIdempotencyStore(IdempotencyRecordRepository repository,
+                               @Value("${idempotency.stale-after:PT2M}") Duration staleAfter,
+                               @Value("${idempotency.retention:PT24H}") Duration retention,
+                               @Value("${idempotency.purge-chunk-size:1000}") int purgeChunkSize) {
+        this.repository = repository;
+        this.staleAfter = staleAfter;
+        this.retention = retention;
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    @Override
+    public boolean tryBegin(String keyHash, String fingerprint) {
+        Instant now = Instant.now();
+        return repository.insertIfAbsent(keyHash, fingerprint, now) == 1
+                || repository.takeOverStale(keyHash, fingerprint, now, now.minus(staleAfter)) == 1;
+    }
+
+    @Override
+    public void heartbeat(String keyHash) {
+        repository.touchPending(keyHash, Instant.now());
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String keyHash) {
+        return repository.findById(keyHash)
+                .map(r -> new StoredResponse(r.getFingerprint(), r.getResponseStatus(), r.getContentType(), r.getResponseBody()));
+    }
+
+    @Override
+    public void complete(String keyHash, StoredResponse response) {
+        repository.complete(keyHash, response.status(), response.contentType(), response.body());
+    }
+
+    @Override
+    public void abandon(String keyHash) {
+        repository.deletePending(keyHash);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT10M}", initialDelayString = "${idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        int purged = 0;
+        int chunk;
+        do {
+            chunk = repository.deleteExpired(cutoff, purgeChunkSize);
+            purged += chunk;
+        } while (chunk == purgeChunkSize);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
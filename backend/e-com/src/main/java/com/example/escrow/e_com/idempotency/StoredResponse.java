@@ -0,0 +1,12 @@
+package com.example.escrow.e_com.idempotency;
+
+/**
+ * Outcome of the first request for a key. {@code status} is null while that request
+ * is still running.
+ */
+public record StoredResponse(String fingerprint, Integer status, String contentType, byte[] body) {
+
+    public boolean isComplete() {
+        return status != null;
+    }
+}
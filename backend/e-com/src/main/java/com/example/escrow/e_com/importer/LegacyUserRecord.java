@@ -0,0 +1,13 @@
+package com.example.escrow.e_com.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LegacyUserRecord {
+    private String email;
+    private String name;
+    private String password;
+    private String role;
+}
@@ -0,0 +1,376 @@
+package com.example.escrow.e_com.importer;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserImportRequest.Format;
+import com.example.escrow.e_com.dto.UserImportStatus;
+import com.example.escrow.e_com.dto.UserImportStatus.State;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
+import com.example.escrow.e_com.validation.UserValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a legacy user file into {@code users} through a two-stage pipeline:
+ * a reader thread parses, validates and hashes rows into fixed-size batches, and
+ * the job thread loads each batch with {@code COPY FROM STDIN} into a temp staging
+ * table, moves it into {@code users} and records a checkpoint in the same
+ * transaction. The queue between the stages is bounded, so memory stays flat no
+ * matter how large the file is, and a restarted job skips every committed line.
+ */
+public class UserImportJob implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportJob.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^(\\{bcrypt})?\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+    private static final int QUEUE_CAPACITY = 4;
+
+    private static final String CREATE_STAGE_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS user_import_stage (
+                email text, name text, password text, role text
+            ) ON COMMIT DELETE ROWS""";
+    private static final String COPY_SQL =
+            "COPY user_import_stage (email, name, password, role) FROM STDIN WITH (FORMAT csv)";
+    // Staging first lets ids come from the entity sequence and lets duplicates be skipped instead of failing the batch.
+    // users_seq is pooled-lo with INCREMENT 50: each nextval reserves lo..lo+49, so one call per 50 staged rows
+    private static final String MERGE_SQL = """
+            WITH staged AS (
+                SELECT email, name, password, role, row_number() OVER () - 1 AS n FROM user_import_stage
+            ), blocks AS (
+                SELECT nextval('users_seq') AS lo, row_number() OVER () - 1 AS b
+                FROM generate_series(1, (SELECT ((count(*) + 49) / 50)::int FROM user_import_stage))
+            )
+            INSERT INTO users (id, email, name, password, role)
+            SELECT blocks.lo + staged.n % 50, staged.email, staged.name, staged.password, staged.role
+            FROM staged JOIN blocks ON blocks.b = staged.n / 50
+            ON CONFLICT (email) DO NOTHING""";
+    private static final String CHECKPOINT_SQL = """
+            INSERT INTO user_import_checkpoints
+                (job_id, source_path, format, lines_committed, rows_imported, rows_duplicate, rows_rejected, state, error, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (job_id) DO UPDATE SET
+                lines_committed = EXCLUDED.lines_committed,
+                rows_imported = EXCLUDED.rows_imported,
+                rows_duplicate = EXCLUDED.rows_duplicate,
+                rows_rejected = EXCLUDED.rows_rejected,
+                state = EXCLUDED.state,
+                error = EXCLUDED.error,
+                updated_at = now()""";
+
+    private final String jobId;
+    private final Path source;
+    private final Format format;
+    private final boolean hashPlainPasswords;
+    private final int batchSize;
+    private final DataSource dataSource;
+    private final UserValidator userValidator;
+    private final PasswordHashingExecutor passwordHashing;
+    private final ObjectReader recordReader;
+    private final ExecutorService readerExecutor;
+
+    private final long resumeFromLine;
+    private final long rowsImportedAtStart;
+
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+    private volatile long linesCommitted;
+    private volatile long rowsImported;
+    private volatile long rowsDuplicate;
+    private volatile long rowsRejected;
+    private volatile Instant updatedAt = Instant.now();
+    private volatile long startNanos;
+
+    public UserImportJob(String jobId, Path source, Format format, boolean hashPlainPasswords, int batchSize,
+                         DataSource dataSource, UserValidator userValidator, PasswordHashingExecutor passwordHashing,
+                         ObjectReader recordReader, ExecutorService readerExecutor,
+                         long resumeFromLine, long rowsImported, long rowsDuplicate, long rowsRejected) {
+        this.jobId = jobId;
+        this.source = source;
+        this.format = format;
+        this.hashPlainPasswords = hashPlainPasswords;
+        this.batchSize = batchSize;
+        this.dataSource = dataSource;
+        this.userValidator = userValidator;
+        this.passwordHashing = passwordHashing;
+        this.recordReader = recordReader;
+        this.readerExecutor = readerExecutor;
+        this.resumeFromLine = resumeFromLine;
+        this.linesCommitted = resumeFromLine;
+        this.rowsImportedAtStart = rowsImported;
+        this.rowsImported = rowsImported;
+        this.rowsDuplicate = rowsDuplicate;
+        this.rowsRejected = rowsRejected;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public UserImportStatus status() {
+        double elapsedSeconds = startNanos == 0 ? 0 : (System.nanoTime() - startNanos) / 1e9;
+        return UserImportStatus.builder()
+                .jobId(jobId)
+                .path(source.toString())
+                .state(state)
+                .linesCommitted(linesCommitted)
+                .rowsImported(rowsImported)
+                .rowsDuplicate(rowsDuplicate)
+                .rowsRejected(rowsRejected)
+                .rowsPerSecond(elapsedSeconds > 0 ? (rowsImported - rowsImportedAtStart) / elapsedSeconds : null)
+                .updatedAt(updatedAt)
+                .error(error)
+                .build();
+    }
+
+    @Override
+    public void run() {
+        startNanos = System.nanoTime();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Future<?> reader = readerExecutor.submit(() -> read(queue));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGE_SQL);
+            }
+            connection.commit();
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            for (Batch batch = queue.take(); batch != Batch.END; batch = queue.take()) {
+                write(connection, copyManager, batch);
+            }
+            reader.get();
+
+            state = State.COMPLETED;
+            saveCheckpoint(connection, linesCommitted, rowsImported, rowsDuplicate, rowsRejected);
+            connection.commit();
+            log.info("Import {} completed: {}", jobId, status());
+        } catch (Exception e) {
+            reader.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail(e);
+        }
+    }
+
+    private void write(Connection connection, CopyManager copyManager, Batch batch) throws Exception {
+        int inserted = 0;
+        if (!batch.rows().isEmpty()) {
+            StringBuilder csv = new StringBuilder(batch.rows().size() * 128);
+            for (StagedUser row : batch.rows()) {
+                CsvLineParser.appendQuoted(csv, row.email());
+                csv.append(',');
+                CsvLineParser.appendQuoted(csv, row.name());
+                csv.append(',');
+                CsvLineParser.appendQuoted(csv, row.password());
+                csv.append(',');
+                CsvLineParser.appendQuoted(csv, row.role().name());
+                csv.append('\n');
+            }
+            copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+            try (Statement statement = connection.createStatement()) {
+                inserted = statement.executeUpdate(MERGE_SQL);
+            }
+        }
+
+        long imported = rowsImported + inserted;
+        long duplicate = rowsDuplicate + batch.rows().size() - inserted;
+        long rejected = rowsRejected + batch.rejected();
+        saveCheckpoint(connection, batch.lastLine(), imported, duplicate, rejected);
+        connection.commit();
+
+        linesCommitted = batch.lastLine();
+        rowsImported = imported;
+        rowsDuplicate = duplicate;
+        rowsRejected = rejected;
+        updatedAt = Instant.now();
+        if (log.isDebugEnabled()) {
+            log.debug("Import {} checkpoint at line {}: {} rows/s", jobId, linesCommitted, status().getRowsPerSecond());
+        }
+    }
+
+    private void read(BlockingQueue<Batch> queue) {
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            List<String> header = format == Format.CSV ? readHeader(reader) : null;
+            long lineNumber = header != null ? 1 : 0;
+            List<StagedUser> rows = new ArrayList<>(batchSize);
+            List<Integer> plainPasswords = new ArrayList<>();
+            int rejected = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeFromLine || line.isBlank()) {
+                    continue;
+                }
+                LegacyUserRecord record = parse(line, header);
+                StagedUser row = record != null ? stage(record) : null;
+                if (row == null) {
+                    rejected++;
+                } else {
+                    if (row.needsHashing()) {
+                        plainPasswords.add(rows.size());
+                    }
+                    rows.add(row);
+                }
+                if (rows.size() + rejected >= batchSize) {
+                    queue.put(new Batch(hash(rows, plainPasswords), rejected, lineNumber));
+                    rows = new ArrayList<>(batchSize);
+                    plainPasswords.clear();
+                    rejected = 0;
+                }
+            }
+            if (!rows.isEmpty() || rejected > 0) {
+                queue.put(new Batch(hash(rows, plainPasswords), rejected, lineNumber));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed reading " + source + ": " + e.getMessage(), e);
+        } finally {
+            // If the writer has died it cancels this task, so put() is interrupted instead of blocking
+            try {
+                queue.put(Batch.END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<String> readHeader(BufferedReader reader) throws Exception {
+        String header = reader.readLine();
+        if (header == null) {
+            return List.of();
+        }
+        return CsvLineParser.parse(header).stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+    }
+
+    private LegacyUserRecord parse(String line, List<String> header) {
+        if (format == Format.NDJSON) {
+            try {
+                return recordReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+        List<String> fields = CsvLineParser.parse(line);
+        LegacyUserRecord record = new LegacyUserRecord();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            String value = fields.get(i);
+            switch (header.get(i)) {
+                case "email" -> record.setEmail(value);
+                case "name" -> record.setName(value);
+                case "password" -> record.setPassword(value);
+                case "role" -> record.setRole(value);
+                default -> { }
+            }
+        }
+        return record;
+    }
+
+    // Null when the record is rejected
+    StagedUser stage(LegacyUserRecord record) {
+        String email = record.getEmail() != null ? record.getEmail().trim() : null;
+        String name = record.getName() != null ? record.getName().trim() : null;
+        String password = record.getPassword();
+        if (email == null || !userValidator.validateEmail(email) || name == null || name.isEmpty() || password == null) {
+            return null;
+        }
+
+        Role role = Role.CUSTOMER;
+        if (record.getRole() != null && !record.getRole().isBlank()) {
+            try {
+                role = Role.valueOf(record.getRole().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        if (BCRYPT_HASH.matcher(password).matches()) {
+            String stored = password.startsWith(BCRYPT_PREFIX) ? password : BCRYPT_PREFIX + password;
+            return new StagedUser(email, name, stored, role, false);
+        }
+        if (hashPlainPasswords && userValidator.validatePassword(password)) {
+            return new StagedUser(email, name, password, role, true);
+        }
+        return null;
+    }
+
+    private List<StagedUser> hash(List<StagedUser> rows, List<Integer> plainPasswords) {
+        if (plainPasswords.isEmpty()) {
+            return rows;
+        }
+        List<String> hashes = passwordHashing.encodeAll(plainPasswords.stream().map(i -> rows.get(i).password()).toList());
+        for (int i = 0; i < plainPasswords.size(); i++) {
+            int index = plainPasswords.get(i);
+            StagedUser row = rows.get(index);
+            rows.set(index, new StagedUser(row.email(), row.name(), hashes.get(i), row.role(), false));
+        }
+        return rows;
+    }
+
+    private void saveCheckpoint(Connection connection, long lines, long imported, long duplicate, long rejected)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CHECKPOINT_SQL)) {
+            statement.setString(1, jobId);
+            statement.setString(2, source.toString());
+            statement.setString(3, format.name());
+            statement.setLong(4, lines);
+            statement.setLong(5, imported);
+            statement.setLong(6, duplicate);
+            statement.setLong(7, rejected);
+            statement.setString(8, state.name());
+            statement.setString(9, error);
+            statement.executeUpdate();
+        }
+    }
+
+    private void fail(Exception e) {
+        Throwable cause = e.getCause() != null && !(e instanceof SQLException) ? e.getCause() : e;
+        error = cause.getMessage();
+        state = State.FAILED;
+        updatedAt = Instant.now();
+        log.error("Import {} failed at line {}", jobId, linesCommitted, e);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            saveCheckpoint(connection, linesCommitted, rowsImported, rowsDuplicate, rowsRejected);
+        } catch (SQLException checkpointError) {
+            log.warn("Could not record failure of import {}", jobId, checkpointError);
+        }
+    }
+
+    record StagedUser(String email, String name, String password, Role role, boolean needsHashing) {
+    }
+
+    private record Batch(List<StagedUser> rows, int rejected, long lastLine) {
+        static final Batch END = new Batch(List.of(), 0, -1);
+    }
+}
@@ -0,0 +1,701 @@
+package com.example.escrow.e_com.inventory;
+
+import com.example.escrow.e_com.entity.InventoryReservation;
+import com.example.escrow.e_com.exception.InventoryNotFoundException;
+import com.example.escrow.e_com.exception.InventoryUnavailableException;
+import com.example.escrow.e_com.exception.OutOfStockException;
+import com.example.escrow.e_com.repository.InventoryItemRepository;
+import com.example.escrow.e_com.repository.InventoryItemRepository.HotStock;
+import com.example.escrow.e_com.repository.InventoryReservationRepository;
+import com.example.escrow.e_com.repository.InventoryReservationRepository.SettledHold;
+import com.example.escrow.e_com.scheduler.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock reservations for checkout. Flash-sale ("hot") SKUs are served from an in-memory
+ * {@link ShardedCounter}: a reservation is a CAS on one of several padded shards. Every
+ * other SKU takes the plain route, a conditional UPDATE plus a reservation row in one
+ * transaction. Reservations expire through striped timing wheels and their units go back
+ * to wherever they were taken from.
+ *
+ * <p>A hot SKU is served by one node only: the holder of the lease on its row, renewed
+ * every housekeeping interval. Other nodes answer 503 until the lease lapses, and the
+ * holder stops serving from its counter half a lease after its last renewal started, well
+ * before anyone else may take over. Each hand-over bumps the row's epoch and the new
+ * holder loads its counter from the row, which therefore holds counter + held units; the
+ * previous holder's reservations return to stock that way.
+ *
+ * <p>Every reservation has a row, so any node can settle it. A hot hold's row carries the
+ * epoch of its counter; confirming or releasing it only marks the row. Each housekeeping
+ * interval the holder folds the marked rows of its epoch in: released units go back to
+ * the counter, and confirmed sales come off the SKU row in one UPDATE fenced by the epoch.
+ * A hand-over folds the previous epochs' confirmed sales into the row and voids their open
+ * holds, whose units the row still counts. Going cold turns the open holds into cold
+ * reservations.
+ */
+@Component
+public class InventoryEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryEngine.class);
+
+    // A cold reserve that finds the row hot waits this long for the switch to finish
+    private static final int SWITCH_WAIT_ATTEMPTS = 100;
+    private static final long SWITCH_WAIT_NANOS = 1_000_000;
+    private static final int SWEEP_BATCH_SIZE = 1000;
+    // How long a SKU found under another node's lease is refused without asking the database again
+    private static final long SERVED_ELSEWHERE_NANOS = 1_000_000_000;
+
+    private final InventoryItemRepository itemRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reservationTtl;
+    private final long tickMillis;
+    private final int counterShards;
+    private final String nodeId;
+    private final Duration hotLease;
+
+    private final Map<String, HotSku> hotSkus = new ConcurrentHashMap<>();
+    // SKU -> System.nanoTime() until which it is known to be served by another node
+    private final Map<String, Long> servedElsewhere = new ConcurrentHashMap<>();
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final TimerStripe[] stripes;
+    private final Counter rejected;
+    private final Counter expired;
+
+    private Thread driver;
+    private volatile boolean running;
+
+    public InventoryEngine(InventoryItemRepository itemRepository,
+                           InventoryReservationRepository reservationRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.reservation-ttl:PT10M}") Duration reservationTtl,
+                           @Value("${inventory.tick:PT1S}") Duration tick,
+                           @Value("${inventory.counter-shards:0}") int counterShards,
+                           @Value("${inventory.timer-stripes:16}") int timerStripes,
+                           @Value("${inventory.node-id:}") String nodeId,
+                           @Value("${inventory.hot-lease:PT10S}") Duration hotLease) {
+        this.itemRepository = itemRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTtl = reservationTtl;
+        this.tickMillis = tick.toMillis();
+        this.counterShards = counterShards > 0 ? counterShards : Runtime.getRuntime().availableProcessors() * 2;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.hotLease = hotLease;
+        this.stripes = new TimerStripe[timerStripes];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < timerStripes; i++) {
+            stripes[i] = new TimerStripe(new HierarchicalTimingWheel<>(tickMillis, now));
+        }
+
+        Gauge.builder("inventory.reservations.active", reservations, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("inventory.hot.skus", hotSkus, Map::size)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("inventory.reservations.rejected")
+                .register(meterRegistry);
+        this.expired = Counter.builder("inventory.reservations.expired")
+                .register(meterRegistry);
+    }
+
+    public Reservation reserve(String sku, int quantity, Long buyerId) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(reservationTtl);
+        for (int attempt = 0; ; attempt++) {
+            checkNotServedElsewhere(sku);
+            HotSku hot = hotSkus.get(sku);
+            if (hot != null && !hot.retired && hot.leased()) {
+                if (!hot.counter.tryAcquire(quantity)) {
+                    throw outOfStock(sku);
+                }
+                Reservation reservation = new Reservation(UUID.randomUUID(), sku, quantity, buyerId, expiresAt, hot);
+                try {
+                    transactionTemplate.executeWithoutResult(
+                            status -> reservationRepository.save(row(reservation, hot.epoch)));
+                } catch (RuntimeException e) {
+                    hot.counter.release(quantity);
+                    throw e;
+                }
+                return track(reservation);
+            }
+
+            Reservation reservation = new Reservation(UUID.randomUUID(), sku, quantity, buyerId, expiresAt, null);
+            Boolean taken = transactionTemplate.execute(status -> {
+                if (itemRepository.decrementIfAvailable(sku, quantity, now) == 0) {
+                    return false;
+                }
+                reservationRepository.save(row(reservation, null));
+                return true;
+            });
+            if (Boolean.TRUE.equals(taken)) {
+                return track(reservation);
+            }
+
+            boolean rowIsHot = itemRepository.findHotBySku(sku)
+                    .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+            if (!rowIsHot || attempt == SWITCH_WAIT_ATTEMPTS) {
+                throw outOfStock(sku);
+            }
+            // Hot but not served here: take the lease if it is free; null means the row just went cold
+            if (claim(sku) == null) {
+                LockSupport.parkNanos(SWITCH_WAIT_NANOS);
+            }
+        }
+    }
+
+    public Reservation confirm(UUID id, Long buyerId) {
+        return settle(id, buyerId, ReservationStatus.CONFIRMED);
+    }
+
+    public void release(UUID id, Long buyerId) {
+        settle(id, buyerId, ReservationStatus.RELEASED);
+    }
+
+    public long available(String sku) {
+        HotSku hot = hotSkus.get(sku);
+        if (hot != null && !hot.retired) {
+            return hot.counter.sum();
+        }
+        return itemRepository.findQuantityBySku(sku)
+                .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+    }
+
+    public boolean isHot(String sku) {
+        HotSku hot = hotSkus.get(sku);
+        return hot != null && !hot.retired;
+    }
+
+    /**
+     * Seller restock or write-off. A hot SKU moves its counter and its row together, so the
+     * row keeps covering counter + held.
+     */
+    public void adjustStock(String sku, long delta) {
+        HotSku hot = hotSkus.get(sku);
+        if (hot == null || hot.retired || !hot.leased()) {
+            hot = itemRepository.findHotBySku(sku)
+                    .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku)) ? claim(sku) : null;
+        }
+        if (hot != null) {
+            if (delta < 0 && !hot.counter.tryAcquire(-delta)) {
+                throw outOfStock(sku);
+            }
+            transactionTemplate.executeWithoutResult(status -> itemRepository.increment(sku, delta, Instant.now()));
+            if (delta > 0) {
+                hot.counter.release(delta);
+            }
+        } else if (delta < 0) {
+            Integer updated = transactionTemplate.execute(
+                    status -> itemRepository.decrementIfAvailable(sku, -delta, Instant.now()));
+            if (updated == null || updated == 0) {
+                itemRepository.findQuantityBySku(sku)
+                        .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+                throw outOfStock(sku);
+            }
+        } else if (delta > 0) {
+            returnToRow(sku, delta, null);
+        }
+    }
+
+    // Switches are rare seller actions; serializing them (and lease claims) keeps the handover simple
+    public synchronized void setHot(String sku, boolean hot) {
+        HotSku current = hotSkus.get(sku);
+        if (hot) {
+            if (current != null && !current.retired && current.leased()) {
+                return;
+            }
+            if (current != null && current.retired) {
+                // Units released into the old counter after it was drained go back to the row first
+                sweepRetired(sku, current);
+                if (hotSkus.get(sku) == current) {
+                    throw new InventoryUnavailableException("SKU " + sku + " is still switching, retry shortly");
+                }
+            }
+            long started = System.nanoTime();
+            Instant now = Instant.now();
+            HotStock stock = transactionTemplate.execute(status -> {
+                if (itemRepository.markHot(sku, nodeId, now, now.plus(hotLease)) == 0) {
+                    itemRepository.findHotBySku(sku)
+                            .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+                    return null;
+                }
+                return takeOver(sku, now);
+            });
+            if (stock == null) {
+                log.info("SKU {} is already hot on another node", sku);
+                return;
+            }
+            hotSkus.put(sku, new HotSku(new ShardedCounter(counterShards, stock.getQuantity()), stock.getEpoch(),
+                    leaseDeadline(started)));
+            log.info("SKU {} is hot with {} units", sku, stock.getQuantity());
+            return;
+        }
+
+        // Only the lease holder knows how many units are left
+        if (!itemRepository.findHotBySku(sku)
+                .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku))) {
+            return;
+        }
+        HotSku owned = claim(sku);
+        if (owned == null) {
+            return;
+        }
+        // New reserves now wait for the row to turn cold; units held by hot reservations stay off it
+        owned.retired = true;
+        long remaining = owned.counter.drain();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Open holds first: once they are cold, no more holds of this epoch can be released
+                reservationRepository.coolHeld(sku, owned.epoch);
+                long released = reservationRepository.sumHot(sku, owned.epoch, ReservationStatus.RELEASED);
+                if (itemRepository.markCold(sku, owned.epoch, remaining + released, Instant.now()) == 0) {
+                    throw new InventoryUnavailableException("Lost the lease on SKU " + sku + ", retry shortly");
+                }
+                // Confirmed sales left the counter already; the drained count excludes them
+                reservationRepository.deleteHot(sku, owned.epoch);
+            });
+        } catch (RuntimeException e) {
+            owned.counter.release(remaining);
+            owned.retired = false;
+            throw e;
+        }
+        log.info("SKU {} is cold with {} units", sku, remaining);
+    }
+
+    /**
+     * Returns this node's counter for a hot SKU, taking the lease (and loading a fresh
+     * counter from the row) when it is free. Null when the row is not hot; throws when
+     * another node holds the lease.
+     */
+    private HotSku claim(String sku) {
+        checkNotServedElsewhere(sku);
+        synchronized (this) {
+            return claimLocked(sku);
+        }
+    }
+
+    private HotSku claimLocked(String sku) {
+        HotSku current = hotSkus.get(sku);
+        if (current != null && current.retired) {
+            sweepRetired(sku, current);
+            current = hotSkus.get(sku);
+        }
+        if (current != null && !current.retired && current.leased()) {
+            return current;
+        }
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        HotStock stock = transactionTemplate.execute(status -> {
+            if (itemRepository.acquireHotLease(sku, nodeId, now, now.plus(hotLease)) == 0) {
+                return null;
+            }
+            return takeOver(sku, now);
+        });
+        if (stock == null) {
+            boolean rowIsHot = itemRepository.findHotBySku(sku)
+                    .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+            if (rowIsHot) {
+                servedElsewhere.put(sku, System.nanoTime() + SERVED_ELSEWHERE_NANOS);
+                throw servedElsewhere(sku);
+            }
+            return null;
+        }
+        servedElsewhere.remove(sku);
+        HotSku claimed = new HotSku(new ShardedCounter(counterShards, stock.getQuantity()), stock.getEpoch(),
+                leaseDeadline(started));
+        hotSkus.put(sku, claimed);
+        log.info("Took the lease on hot SKU {} with {} units", sku, stock.getQuantity());
+        return claimed;
+    }
+
+    private void checkNotServedElsewhere(String sku) {
+        Long until = servedElsewhere.get(sku);
+        if (until != null && System.nanoTime() - until < 0) {
+            throw servedElsewhere(sku);
+        }
+    }
+
+    private static InventoryUnavailableException servedElsewhere(String sku) {
+        return new InventoryUnavailableException("SKU " + sku + " is served by another node, retry shortly");
+    }
+
+    /**
+     * Caller has just bumped the epoch in this transaction, which holds the row lock. Open
+     * holds of earlier epochs go first, so none of them can be confirmed while their
+     * confirmed sales are summed and taken off the row.
+     */
+    private HotStock takeOver(String sku, Instant now) {
+        long epoch = itemRepository.findHotStockBySku(sku).orElseThrow().getEpoch();
+        reservationRepository.deleteUnsoldBefore(sku, epoch);
+        long sold = reservationRepository.sumConfirmedBefore(sku, epoch);
+        if (sold > 0) {
+            itemRepository.increment(sku, -sold, now);
+            reservationRepository.deleteHotBefore(sku, epoch);
+        }
+        return itemRepository.findHotStockBySku(sku).orElseThrow();
+    }
+
+    // Half a lease from when the claim or renewal started: covers clock skew and a slow round trip
+    private long leaseDeadline(long startedNanos) {
+        return startedNanos + hotLease.toNanos() / 2;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.housekeeping-interval:PT1S}")
+    public void housekeep() {
+        for (Map.Entry<String, HotSku> entry : hotSkus.entrySet()) {
+            HotSku hot = entry.getValue();
+            if (hot.retired) {
+                sweepRetired(entry.getKey(), hot);
+            } else if (renewLease(entry.getKey(), hot)) {
+                flushSettled(entry.getKey(), hot);
+            }
+        }
+    }
+
+    private boolean renewLease(String sku, HotSku hot) {
+        long started = System.nanoTime();
+        try {
+            Integer renewed = transactionTemplate.execute(
+                    status -> itemRepository.renewHotLease(sku, hot.epoch, Instant.now().plus(hotLease)));
+            if (renewed != null && renewed > 0) {
+                hot.leaseDeadline = leaseDeadline(started);
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // The counter stops serving by itself once its deadline passes
+            log.warn("Renewing the lease on hot SKU {} failed", sku, e);
+            return false;
+        }
+        if (hotSkus.remove(sku, hot)) {
+            log.warn("Lost the lease on hot SKU {}", sku);
+        }
+        return false;
+    }
+
+    /**
+     * Folds the holds settled under this counter's epoch in: all confirmed sales come off
+     * the SKU row as one UPDATE, released units go back to the counter. Refused once the
+     * epoch moved on; the next holder folds the rows in when it takes over.
+     */
+    private void flushSettled(String sku, HotSku hot) {
+        Long released;
+        try {
+            released = transactionTemplate.execute(status -> {
+                List<SettledHold> settled = reservationRepository.findSettledHot(sku, hot.epoch);
+                if (settled.isEmpty()) {
+                    return 0L;
+                }
+                long sold = 0;
+                long returned = 0;
+                for (SettledHold hold : settled) {
+                    if (hold.getStatus() == ReservationStatus.CONFIRMED) {
+                        sold += hold.getQuantity();
+                    } else {
+                        returned += hold.getQuantity();
+                    }
+                }
+                if (itemRepository.applyHotSales(sku, hot.epoch, sold, Instant.now()) == 0) {
+                    return null;
+                }
+                reservationRepository.deleteAllByIdInBatch(settled.stream().map(SettledHold::getId).toList());
+                return returned;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Flushing settled reservations of hot SKU {} failed", sku, e);
+            return;
+        }
+        if (released != null && released > 0) {
+            hot.counter.release(released);
+        }
+    }
+
+    // Reservations whose node went away are past due in the table but in no wheel; deleting the row decides who restocks
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval:PT1M}", initialDelayString = "${inventory.sweep-interval:PT1M}")
+    public void sweepExpired() {
+        List<InventoryReservation> overdue = reservationRepository.findExpired(Instant.now(), Limit.of(SWEEP_BATCH_SIZE));
+        for (InventoryReservation row : overdue) {
+            if (reservations.containsKey(row.getId())) {
+                continue;
+            }
+            try {
+                returnToRow(row.getSku(), row.getQuantity(), row.getId());
+                expired.increment();
+            } catch (RuntimeException e) {
+                log.warn("Expiring reservation {} failed", row.getId(), e);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Hot SKUs are claimed on first use; their open holds are voided by the claim
+        List<InventoryReservation> held = reservationRepository.findAll().stream()
+                .filter(row -> row.getHotEpoch() == null)
+                .toList();
+        for (InventoryReservation row : held) {
+            track(reservation(row, null));
+        }
+        log.info("Loaded {} held reservations", held.size());
+
+        running = true;
+        driver = new Thread(this::tickLoop, "inventory-reservation-wheel");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+        hotSkus.forEach((sku, hot) -> {
+            if (hot.retired) {
+                sweepRetired(sku, hot);
+            } else {
+                hot.leaseDeadline = System.nanoTime();
+            }
+        });
+        // Hand hot SKUs over now instead of when their leases lapse; held units go back to stock
+        try {
+            transactionTemplate.executeWithoutResult(status -> itemRepository.releaseHotLeases(nodeId));
+        } catch (RuntimeException e) {
+            log.warn("Releasing hot SKU leases failed; they lapse on their own", e);
+        }
+    }
+
+    private Reservation track(Reservation reservation) {
+        reservations.put(reservation.id(), reservation);
+        TimerStripe stripe = stripeOf(reservation.id());
+        stripe.lock.lock();
+        try {
+            // Confirm or release may already have taken it
+            if (reservations.get(reservation.id()) == reservation) {
+                reservation.timeout = stripe.wheel.schedule(reservation, reservation.expiresAt().toEpochMilli());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return reservation;
+    }
+
+    /**
+     * Settles a reservation made on any node through its row: a cold one by deleting the
+     * row, a hot one by marking it for the lease holder. A local timer racing this is
+     * harmless, since expiry goes through the row as well.
+     */
+    private Reservation settle(UUID id, Long buyerId, ReservationStatus outcome) {
+        Reservation local = reservations.get(id);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            InventoryReservation row = reservationRepository.findById(id)
+                    .filter(r -> r.getStatus() == ReservationStatus.HELD)
+                    .filter(r -> buyerId == null || buyerId.equals(r.getBuyerId()))
+                    .orElseThrow(() -> new InventoryNotFoundException("No active reservation " + id));
+            Reservation reservation = reservation(row, local != null ? local.source : null);
+            boolean settled;
+            if (row.getHotEpoch() == null && outcome == ReservationStatus.RELEASED) {
+                settled = returnToRow(row.getSku(), row.getQuantity(), id);
+            } else if (row.getHotEpoch() == null) {
+                Integer deleted = transactionTemplate.execute(status -> reservationRepository.deleteReservation(id));
+                settled = deleted != null && deleted > 0;
+            } else {
+                Integer marked = transactionTemplate.execute(
+                        status -> reservationRepository.settleHot(id, row.getHotEpoch(), outcome));
+                // Not marked: settled meanwhile, voided by a hand-over, or gone cold and looked up again
+                settled = marked != null && marked > 0;
+            }
+            if (settled) {
+                untrack(id);
+                return reservation;
+            }
+            if (row.getHotEpoch() == null) {
+                break;
+            }
+        }
+        throw new InventoryNotFoundException("No active reservation " + id);
+    }
+
+    // Cancels this node's timer for the reservation, if it has one
+    private Reservation untrack(UUID id) {
+        Reservation reservation = reservations.remove(id);
+        if (reservation == null) {
+            return null;
+        }
+        TimerStripe stripe = stripeOf(id);
+        stripe.lock.lock();
+        try {
+            if (reservation.timeout != null) {
+                stripe.wheel.cancel(reservation.timeout);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return reservation;
+    }
+
+    private void expire(Reservation reservation) {
+        HotSku source = reservation.source;
+        if (source == null) {
+            returnToRow(reservation.sku(), reservation.quantity(), reservation.id());
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(
+                status -> reservationRepository.deleteHeld(reservation.id(), source.epoch));
+        // Otherwise settled elsewhere, voided by a hand-over, or cold now and left to the sweep
+        if (deleted != null && deleted > 0 && !source.retired) {
+            source.counter.release(reservation.quantity());
+        }
+    }
+
+    private static InventoryReservation row(Reservation reservation, Long hotEpoch) {
+        return InventoryReservation.builder()
+                .id(reservation.id())
+                .sku(reservation.sku())
+                .buyerId(reservation.buyerId())
+                .quantity(reservation.quantity())
+                .expiresAt(reservation.expiresAt())
+                .hotEpoch(hotEpoch)
+                .status(ReservationStatus.HELD)
+                .build();
+    }
+
+    private static Reservation reservation(InventoryReservation row, HotSku source) {
+        return new Reservation(row.getId(), row.getSku(), row.getQuantity(), row.getBuyerId(), row.getExpiresAt(),
+                row.getHotEpoch() != null ? source : null);
+    }
+
+    /**
+     * Puts units back on the row, settling the cold reservation row if there is one. If the
+     * row is hot the live counter gets them as well, since it was loaded without them.
+     */
+    private boolean returnToRow(String sku, long quantity, UUID reservationId) {
+        Boolean rowIsHot = transactionTemplate.execute(status -> {
+            if (reservationId != null && reservationRepository.deleteReservation(reservationId) == 0) {
+                return null;
+            }
+            if (itemRepository.increment(sku, quantity, Instant.now()) == 0) {
+                throw new InventoryNotFoundException("No inventory for SKU " + sku);
+            }
+            return itemRepository.findHotBySku(sku).orElse(false);
+        });
+        if (Boolean.TRUE.equals(rowIsHot)) {
+            for (int attempt = 0; attempt <= SWITCH_WAIT_ATTEMPTS; attempt++) {
+                HotSku hot = hotSkus.get(sku);
+                if (hot != null) {
+                    // A retired counter is swept back onto the row by the next flush
+                    hot.counter.release(quantity);
+                    return true;
+                }
+                LockSupport.parkNanos(SWITCH_WAIT_NANOS);
+            }
+            log.warn("No counter for hot SKU {}; {} returned units stay on the row only", sku, quantity);
+        }
+        return rowIsHot != null;
+    }
+
+    // Units released into a retired counter after it was drained
+    private void sweepRetired(String sku, HotSku hot) {
+        long leftover = hot.counter.drain();
+        if (leftover > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> itemRepository.increment(sku, leftover, Instant.now()));
+            } catch (RuntimeException e) {
+                hot.counter.release(leftover);
+                log.warn("Returning {} units to SKU {} failed", leftover, sku, e);
+                return;
+            }
+        }
+        hotSkus.remove(sku, hot);
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (TimerStripe stripe : stripes) {
+                List<Reservation> due;
+                stripe.lock.lock();
+                try {
+                    due = stripe.wheel.advance(now);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                for (Reservation reservation : due) {
+                    if (!reservations.remove(reservation.id(), reservation)) {
+                        continue;
+                    }
+                    try {
+                        expire(reservation);
+                        expired.increment();
+                    } catch (RuntimeException e) {
+                        log.warn("Expiring reservation {} failed", reservation.id(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private TimerStripe stripeOf(UUID id) {
+        return stripes[Math.floorMod(id.hashCode(), stripes.length)];
+    }
+
+    private OutOfStockException outOfStock(String sku) {
+        rejected.increment();
+        return new OutOfStockException("Not enough stock for SKU " + sku);
+    }
+
+    static final class HotSku {
+
+        final ShardedCounter counter;
+        // Lease hand-over the counter was loaded in; its sales are refused once the row moves on
+        final long epoch;
+        // System.nanoTime() after which the lease may no longer be ours
+        volatile long leaseDeadline;
+        // Set when the SKU goes back to the database; the row no longer counts this counter
+        volatile boolean retired;
+
+        HotSku(ShardedCounter counter, long epoch, long leaseDeadline) {
+            this.counter = counter;
+            this.epoch = epoch;
+            this.leaseDeadline = leaseDeadline;
+        }
+
+        boolean leased() {
+            return System.nanoTime() - leaseDeadline < 0;
+        }
+    }
+
+    private record TimerStripe(ReentrantLock lock, HierarchicalTimingWheel<Reservation> wheel) {
+
+        TimerStripe(HierarchicalTimingWheel<Reservation> wheel) {
+            this(new ReentrantLock(), wheel);
+        }
+    }
+}
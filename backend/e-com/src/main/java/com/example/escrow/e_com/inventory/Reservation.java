@@ -0,0 +1,54 @@
+package com.example.escrow.e_com.inventory;
+
+import com.example.escrow.e_com.scheduler.HierarchicalTimingWheel.Timeout;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public final class Reservation {
+
+    private final UUID id;
+    private final String sku;
+    private final int quantity;
+    private final Long buyerId;
+    private final Instant expiresAt;
+    // Counter the units came from; null when they were taken off inventory_items
+    final InventoryEngine.HotSku source;
+
+    // Guarded by the owning timer stripe's lock
+    Timeout<Reservation> timeout;
+
+    Reservation(UUID id, String sku, int quantity, Long buyerId, Instant expiresAt,
+                InventoryEngine.HotSku source) {
+        this.id = id;
+        this.sku = sku;
+        this.quantity = quantity;
+        this.buyerId = buyerId;
+        this.expiresAt = expiresAt;
+        this.source = source;
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public String sku() {
+        return sku;
+    }
+
+    public int quantity() {
+        return quantity;
+    }
+
+    public Long buyerId() {
+        return buyerId;
+    }
+
+    public Instant expiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isHot() {
+        return source != null;
+    }
+}
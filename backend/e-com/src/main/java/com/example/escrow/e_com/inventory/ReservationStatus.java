@@ -0,0 +1,8 @@
+package com.example.escrow.e_com.inventory;
+
+public enum ReservationStatus {
+    HELD,
+    // Hot reservations only: settled on some node, waiting for the lease holder's next flush
+    CONFIRMED,
+    RELEASED
+}
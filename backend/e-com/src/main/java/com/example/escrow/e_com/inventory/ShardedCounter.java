@@ -0,0 +1,79 @@
+package com.example.escrow.e_com.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock count split across padded shards so concurrent buyers CAS different cache lines
+ * instead of one hot word. A shard is never decremented below zero, so the total can
+ * never go negative: there is no oversell, at the cost of an occasional false
+ * "out of stock" when the last units sit in shards another thread is draining.
+ */
+public final class ShardedCounter {
+
+    // 16 longs = 128 bytes between shards, enough to keep them on separate cache lines
+    private static final int STRIDE = 16;
+
+    private final AtomicLongArray cells;
+    private final int shards;
+
+    public ShardedCounter(int shards, long initial) {
+        this.shards = Integer.highestOneBit(Math.max(1, shards - 1)) << 1;
+        this.cells = new AtomicLongArray(this.shards * STRIDE);
+        long base = initial / this.shards;
+        long remainder = initial % this.shards;
+        for (int i = 0; i < this.shards; i++) {
+            cells.set(i * STRIDE, base + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code amount} units, gathering from several shards if needed. Either all
+     * units are taken or none.
+     */
+    public boolean tryAcquire(long amount) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        long taken = 0;
+        for (int i = 0; i < shards && taken < amount; i++) {
+            int index = ((start + i) & (shards - 1)) * STRIDE;
+            long current = cells.get(index);
+            while (current > 0) {
+                long take = Math.min(current, amount - taken);
+                if (cells.compareAndSet(index, current, current - take)) {
+                    taken += take;
+                    break;
+                }
+                current = cells.get(index);
+            }
+        }
+        if (taken < amount) {
+            release(taken);
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long amount) {
+        if (amount > 0) {
+            cells.addAndGet(ThreadLocalRandom.current().nextInt(shards) * STRIDE, amount);
+        }
+    }
+
+    // Zeroes every shard and returns what was taken; used when a SKU goes back to the database
+    public long drain() {
+        long drained = 0;
+        for (int i = 0; i < shards; i++) {
+            drained += cells.getAndSet(i * STRIDE, 0);
+        }
+        return drained;
+    }
+
+    // Moment-in-time estimate while writers are active
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < shards; i++) {
+            sum += cells.get(i * STRIDE);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.escrow.e_com.ledger;
+
+public enum AccountType {
+    // Spendable funds of a buyer or seller
+    WALLET,
+    // Buyer funds held until an escrow is released or refunded
+    ESCROW,
+    // System counterparty for money entering or leaving the platform; may go negative
+    EXTERNAL
+}
@@ -0,0 +1,11 @@
+package com.example.escrow.e_com.ledger;
+
+public enum EntryType {
+    DEPOSIT,
+    HOLD,
+    RELEASE,
+    REFUND,
+    WITHDRAWAL,
+    // Compensates a release whose escrow transition could not be stored
+    REVERSAL
+}
@@ -0,0 +1,128 @@
+package com.example.escrow.e_com.ledger;
+
+import com.example.escrow.e_com.entity.JournalEntry;
+import com.example.escrow.e_com.entity.LedgerAccount;
+import com.example.escrow.e_com.entity.LedgerPosting;
+import com.example.escrow.e_com.exception.DataIntegrityErrors;
+import com.example.escrow.e_com.exception.InsufficientFundsException;
+import com.example.escrow.e_com.repository.JournalEntryRepository;
+import com.example.escrow.e_com.repository.LedgerAccountRepository;
+import com.example.escrow.e_com.repository.LedgerPostingRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Component
+public class JpaLedgerStore implements LedgerStore {
+
+    private static final String UPDATE_BALANCE_SQL = """
+            UPDATE ledger_accounts SET balance = balance + ?
+            WHERE id = ? AND (balance + ? >= 0 OR type = 'EXTERNAL')""";
+
+    private final LedgerAccountRepository accountRepository;
+    private final JournalEntryRepository entryRepository;
+    private final LedgerPostingRepository postingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public JpaLedgerStore(LedgerAccountRepository accountRepository,
+                          JournalEntryRepository entryRepository,
+                          LedgerPostingRepository postingRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.entryRepository = entryRepository;
+        this.postingRepository = postingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Concurrent first touches race on the unique (user_id, type) key; the loser re-reads the winner's row
+    @Override
+    public LedgerAccount findOrCreateAccount(Long userId, AccountType type) {
+        Optional<LedgerAccount> existing = accountRepository.findByUserIdAndType(userId, type);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return newTransaction.execute(status -> accountRepository.saveAndFlush(LedgerAccount.builder()
+                    .userId(userId)
+                    .type(type)
+                    .balance(0)
+                    .createdAt(Instant.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            if (!DataIntegrityErrors.isUniqueViolation(e)) {
+                throw e;
+            }
+            return accountRepository.findByUserIdAndType(userId, type).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public Optional<LedgerAccount> findAccount(long accountId) {
+        return accountRepository.findById(accountId);
+    }
+
+    @Override
+    public List<Long> commit(List<LedgerEntry> entries) {
+        return transactionTemplate.execute(status -> {
+            List<JournalEntry> journal = new ArrayList<>(entries.size());
+            for (LedgerEntry entry : entries) {
+                journal.add(JournalEntry.builder()
+                        .type(entry.type())
+                        .reference(entry.reference())
+                        .createdAt(entry.createdAt())
+                        .build());
+            }
+            entryRepository.saveAll(journal);
+
+            List<LedgerPosting> postings = new ArrayList<>();
+            // Sorted so concurrent writers on other nodes update account rows in the same order
+            Map<Long, Long> deltas = new TreeMap<>();
+            List<Long> ids = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Long entryId = journal.get(i).getId();
+                ids.add(entryId);
+                for (Leg leg : entries.get(i).legs()) {
+                    postings.add(LedgerPosting.builder()
+                            .entryId(entryId)
+                            .accountId(leg.accountId())
+                            .amount(leg.amount())
+                            .build());
+                    deltas.merge(leg.accountId(), leg.amount(), Long::sum);
+                }
+            }
+            postingRepository.saveAll(postings);
+
+            // One relative UPDATE per touched account and batch instead of one per posting
+            List<Object[]> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((accountId, delta) -> {
+                if (delta != 0) {
+                    updates.add(new Object[]{delta, accountId, delta});
+                }
+            });
+            // The floor is checked here, against what every node has committed
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, updates);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw new InsufficientFundsException("Insufficient funds in account " + updates.get(i)[1]);
+                }
+            }
+            return ids;
+        });
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.escrow.e_com.ledger;
+
+import com.example.escrow.e_com.entity.LedgerAccount;
+import com.example.escrow.e_com.exception.InsufficientFundsException;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.exception.LedgerUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Double-entry posting engine. Balances live in memory; an entry only locks the stripes
+ * of the accounts it debits (in sorted order), checks and reserves the funds, and hands
+ * the entry to a single writer thread that commits whole batches in one transaction.
+ *
+ * <p>Debits are taken from the available balance immediately, credits become available
+ * only once their batch has committed, and a failed batch returns its debits. An account
+ * therefore never goes below zero, whatever happens to the batches in flight. System
+ * (EXTERNAL) accounts may go negative and are updated without locking, so deposits and
+ * payouts do not funnel through one hot lock.
+ *
+ * <p>Other nodes post against the same accounts, so the in-memory balance is only this
+ * node's view: the store re-checks every debit against the committed balance, and an
+ * account is reloaded whenever the two disagree (a local shortfall, or a debit the store
+ * refused). A failed batch is retried one entry at a time so a single refused entry does
+ * not take the rest of the batch down with it.
+ */
+@Component
+public class LedgerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final LedgerStore store;
+    private final StripedLocks locks;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<AccountKey, Long> accountIds = new ConcurrentHashMap<>();
+
+    private final Timer commitTimer;
+    private final DistributionSummary batchSizes;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public LedgerEngine(LedgerStore store,
+                        MeterRegistry meterRegistry,
+                        @Value("${ledger.lock-stripes:1024}") int lockStripes,
+                        @Value("${ledger.batch-size:500}") int batchSize,
+                        @Value("${ledger.queue-capacity:20000}") int queueCapacity) {
+        this.store = store;
+        this.locks = new StripedLocks(lockStripes);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        this.commitTimer = Timer.builder("ledger.commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("ledger.commit.batch")
+                .register(meterRegistry);
+        Gauge.builder("ledger.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Stops accepting entries and lets the writer drain what is already queued
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long accountId(long userId, AccountType type) {
+        return accountIds.computeIfAbsent(new AccountKey(userId, type), key -> {
+            LedgerAccount account = store.findOrCreateAccount(key.userId(), key.type());
+            accounts.computeIfAbsent(account.getId(), id -> new Account(account));
+            return account.getId();
+        });
+    }
+
+    public long systemAccountId(AccountType type) {
+        return accountId(LedgerAccount.SYSTEM_USER_ID, type);
+    }
+
+    // Committed balance minus debits still in flight
+    public long availableBalance(long accountId) {
+        return account(accountId).available();
+    }
+
+    /**
+     * Validates and reserves a balanced entry, then queues it for the next batch.
+     * The future completes with the journal entry id once the batch has committed.
+     */
+    public CompletableFuture<Long> post(EntryType type, String reference, List<Leg> legs) {
+        if (!running) {
+            throw new LedgerUnavailableException("Ledger is not accepting entries");
+        }
+        Map<Long, Long> net = netAmounts(legs);
+
+        List<Account> debited = new ArrayList<>();
+        List<Account> overdraftDebited = new ArrayList<>();
+        for (Map.Entry<Long, Long> amount : net.entrySet()) {
+            if (amount.getValue() < 0) {
+                Account account = account(amount.getKey());
+                (account.overdraft ? overdraftDebited : debited).add(account);
+            }
+        }
+
+        reserve(debited, net);
+        for (Account account : overdraftDebited) {
+            account.reserved.addAndGet(-net.get(account.id));
+        }
+
+        Pending pending = new Pending(new LedgerEntry(type, reference, Instant.now(), List.copyOf(legs)),
+                net, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            returnDebits(net);
+            throw new LedgerUnavailableException("Ledger is busy, retry shortly");
+        }
+        // Lost a race with stop(): the writer may already have drained for the last time
+        if (!running && queue.remove(pending)) {
+            returnDebits(net);
+            throw new LedgerUnavailableException("Ledger is not accepting entries");
+        }
+        return pending.future;
+    }
+
+    private void reserve(List<Account> debited, Map<Long, Long> net) {
+        if (debited.isEmpty()) {
+            return;
+        }
+        long[] keys = new long[debited.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = debited.get(i).id;
+        }
+        int[] held = locks.lock(keys);
+        try {
+            for (Account account : debited) {
+                // Credits posted on other nodes only show up in the store
+                if (account.available() + net.get(account.id) < 0 && refresh(account) + net.get(account.id) < 0) {
+                    throw new InsufficientFundsException("Insufficient funds in account " + account.id);
+                }
+            }
+            for (Account account : debited) {
+                account.reserved.addAndGet(-net.get(account.id));
+            }
+        } finally {
+            locks.unlock(held);
+        }
+    }
+
+    private Map<Long, Long> netAmounts(List<Leg> legs) {
+        if (legs == null || legs.size() < 2) {
+            throw new InvalidRequestException("A journal entry needs at least two legs");
+        }
+        Map<Long, Long> net = new LinkedHashMap<>();
+        long sum = 0;
+        for (Leg leg : legs) {
+            if (leg.amount() == 0) {
+                throw new InvalidRequestException("Posting amounts must be non-zero");
+            }
+            sum = Math.addExact(sum, leg.amount());
+            net.merge(leg.accountId(), leg.amount(), Math::addExact);
+        }
+        if (sum != 0) {
+            throw new InvalidRequestException("Journal entry is not balanced");
+        }
+        return net;
+    }
+
+    private Account account(long accountId) {
+        return accounts.computeIfAbsent(accountId, id -> new Account(store.findAccount(id)
+                .orElseThrow(() -> new InvalidRequestException("Unknown ledger account " + id))));
+    }
+
+    /**
+     * Reloads the committed balance from the store, unless one of this node's commits on
+     * the account is still between the store and {@link #settle}: the store would already
+     * show it and settling would then count it twice. Either way returns what is available.
+     */
+    private long refresh(Account account) {
+        synchronized (account) {
+            if (account.unsettled == 0) {
+                account.committed.set(store.findAccount(account.id)
+                        .orElseThrow(() -> new InvalidRequestException("Unknown ledger account " + account.id))
+                        .getBalance());
+            }
+        }
+        return account.available();
+    }
+
+    private void returnDebits(Map<Long, Long> net) {
+        net.forEach((accountId, amount) -> {
+            if (amount < 0) {
+                accounts.get(accountId).reserved.addAndGet(amount);
+            }
+        });
+    }
+
+    private void beginCommit(Map<Long, Long> net) {
+        for (Long accountId : net.keySet()) {
+            Account account = account(accountId);
+            synchronized (account) {
+                account.unsettled++;
+            }
+        }
+    }
+
+    private void abortCommit(Map<Long, Long> net) {
+        for (Long accountId : net.keySet()) {
+            Account account = accounts.get(accountId);
+            synchronized (account) {
+                account.unsettled--;
+            }
+        }
+    }
+
+    // Debits leave the reservation only after they hit the committed balance, so nothing is briefly counted as free
+    private void settle(Map<Long, Long> net) {
+        net.forEach((accountId, amount) -> {
+            Account account = accounts.get(accountId);
+            synchronized (account) {
+                account.committed.addAndGet(amount);
+                account.unsettled--;
+            }
+            if (amount < 0) {
+                account.reserved.addAndGet(amount);
+            }
+        });
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            commit(batch);
+            batch.clear();
+        }
+        // Anything left after an interrupt is failed rather than silently dropped
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(pending -> fail(pending, new LedgerUnavailableException("Ledger stopped")));
+    }
+
+    private void commit(List<Pending> batch) {
+        List<LedgerEntry> entries = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entries.add(pending.entry);
+        }
+        batch.forEach(pending -> beginCommit(pending.net));
+        List<Long> ids;
+        try {
+            ids = commitTimer.recordCallable(() -> store.commit(entries));
+        } catch (Exception e) {
+            batch.forEach(pending -> abortCommit(pending.net));
+            log.warn("Ledger batch of {} entries failed", batch.size(), e);
+            if (batch.size() > 1) {
+                // Usually one refused debit; the rest of the batch should not fail with it
+                batch.forEach(pending -> commit(List.of(pending)));
+            } else {
+                fail(batch.get(0), e);
+            }
+            return;
+        }
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            settle(pending.net);
+            pending.future.complete(ids.get(i));
+        }
+    }
+
+    private void fail(Pending pending, Throwable cause) {
+        returnDebits(pending.net);
+        if (cause instanceof InsufficientFundsException) {
+            // Spent on another node since we last looked
+            pending.net.keySet().forEach(accountId -> refreshQuietly(accounts.get(accountId)));
+        }
+        pending.future.completeExceptionally(cause);
+    }
+
+    private void refreshQuietly(Account account) {
+        try {
+            refresh(account);
+        } catch (RuntimeException e) {
+            log.warn("Reloading ledger account {} failed", account.id, e);
+        }
+    }
+
+    private record AccountKey(long userId, AccountType type) {
+    }
+
+    private record Pending(LedgerEntry entry, Map<Long, Long> net, CompletableFuture<Long> future) {
+    }
+
+    private static final class Account {
+        final long id;
+        final boolean overdraft;
+        // This node's view of the stored balance; written under the account's monitor
+        final AtomicLong committed;
+        // Debits reserved but not yet committed
+        final AtomicLong reserved = new AtomicLong();
+        // Commits of this node touching the account that have not been settled yet; guarded by this
+        int unsettled;
+
+        Account(LedgerAccount account) {
+            this.id = account.getId();
+            this.overdraft = account.getType() == AccountType.EXTERNAL;
+            this.committed = new AtomicLong(account.getBalance());
+        }
+
+        long available() {
+            return committed.get() - reserved.get();
+        }
+    }
+}
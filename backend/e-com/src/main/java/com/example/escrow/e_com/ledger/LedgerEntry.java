@@ -0,0 +1,7 @@
+package com.example.escrow.e_com.ledger;
+
+import java.time.Instant;
+import java.util.List;
+
+public record LedgerEntry(EntryType type, String reference, Instant createdAt, List<Leg> legs) {
+}
@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.ledger;
+
+import com.example.escrow.e_com.entity.LedgerAccount;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence behind {@link LedgerEngine}. Kept as an interface so the engine's locking
+ * and batching can be exercised without a database.
+ */
+public interface LedgerStore {
+
+    LedgerAccount findOrCreateAccount(Long userId, AccountType type);
+
+    Optional<LedgerAccount> findAccount(long accountId);
+
+    /**
+     * Writes the entries, their postings and the net balance change per account in one
+     * transaction and returns the generated entry ids in order. Throws
+     * {@link com.example.escrow.e_com.exception.InsufficientFundsException} and writes
+     * nothing if any non-EXTERNAL account would go below zero.
+     */
+    List<Long> commit(List<LedgerEntry> entries);
+}
@@ -0,0 +1,8 @@
+package com.example.escrow.e_com.ledger;
+
+/**
+ * One side of a journal entry: a signed amount in minor units (negative debits
+ * the account, positive credits it).
+ */
+public record Leg(long accountId, long amount) {
+}
@@ -0,0 +1,55 @@
+package com.example.escrow.e_com.ledger;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks keyed by account id. Callers that need several accounts lock
+ * their stripes in ascending index order, so two entries touching the same accounts
+ * can never deadlock.
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /** Locks the stripes of all keys and returns them, sorted and distinct, for {@link #unlock}. */
+    int[] lock(long[] keys) {
+        int[] stripes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            stripes[i] = stripe(keys[i]);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        int[] held = Arrays.copyOf(stripes, distinct);
+        for (int stripe : held) {
+            locks[stripe].lock();
+        }
+        return held;
+    }
+
+    void unlock(int[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            locks[held[i]].unlock();
+        }
+    }
+}
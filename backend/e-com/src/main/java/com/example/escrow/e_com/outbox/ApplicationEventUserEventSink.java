@@ -0,0 +1,22 @@
+package com.example.escrow.e_com.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// In-process delivery: other modules consume events with @EventListener(UserEvent.class)
+@Component
+public class ApplicationEventUserEventSink implements UserEventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ApplicationEventUserEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void deliver(List<UserEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
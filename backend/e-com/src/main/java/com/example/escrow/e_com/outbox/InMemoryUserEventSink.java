@@ -0,0 +1,23 @@
+package com.example.escrow.e_com.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects delivered events; register it as a bean in tests to assert on relay output
+public class InMemoryUserEventSink implements UserEventSink {
+
+    private final List<UserEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void deliver(List<UserEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<UserEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.escrow.e_com.outbox;
+
+import com.example.escrow.e_com.repository.UserOutboxRepository;
+import com.example.escrow.e_com.service.UserPurgeStep;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Delivered events are already gone; events still pending are delivered, but without the old name and email
+@Component
+@Order(2)
+public class OutboxPurgeStep implements UserPurgeStep {
+
+    private final UserOutboxRepository outboxRepository;
+
+    public OutboxPurgeStep(UserOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public int purge(List<Long> userIds, int limit) {
+        return outboxRepository.anonymizePayloads(userIds, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.escrow.e_com.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserEvent {
+    private Long id;
+    private Long userId;
+    private UserEventType type;
+    // UserResponse as JSON
+    private String payload;
+    private Instant createdAt;
+}
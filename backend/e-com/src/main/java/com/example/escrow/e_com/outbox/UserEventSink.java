@@ -0,0 +1,12 @@
+package com.example.escrow.e_com.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed user events. Events arrive in id order and are
+ * delivered at least once: a sink that throws makes the relay retry the batch.
+ */
+public interface UserEventSink {
+
+    void deliver(List<UserEvent> events);
+}
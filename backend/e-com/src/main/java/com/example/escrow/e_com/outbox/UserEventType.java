@@ -0,0 +1,8 @@
+package com.example.escrow.e_com.outbox;
+
+public enum UserEventType {
+    USER_REGISTERED,
+    PROFILE_UPDATED,
+    ROLE_CHANGED,
+    USER_DELETED
+}
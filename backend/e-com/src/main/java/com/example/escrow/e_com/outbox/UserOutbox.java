@@ -0,0 +1,80 @@
+package com.example.escrow.e_com.outbox;
+
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.entity.UserOutboxEvent;
+import com.example.escrow.e_com.repository.UserOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+// Must be called inside the transaction that makes the change, so the event commits or rolls back with it
+@Component
+public class UserOutbox {
+
+    // One statement for the whole set; ids still come from the unpooled sequence, in array order
+    private static final String INSERT_ALL_SQL = """
+            INSERT INTO user_outbox (id, user_id, event_type, payload, created_at)
+            SELECT nextval('user_outbox_seq'), e.user_id, ?, e.payload, ?
+            FROM unnest(?::bigint[], ?::text[]) AS e(user_id, payload)""";
+
+    private final UserOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter payloadWriter;
+
+    public UserOutbox(UserOutboxRepository outboxRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.payloadWriter = objectMapper.writerFor(UserResponse.class);
+    }
+
+    public void record(UserEventType type, UserResponse user) {
+        outboxRepository.save(toEvent(type, user, Instant.now()));
+    }
+
+    public void recordAll(UserEventType type, Collection<UserResponse> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Long[] userIds = new Long[users.size()];
+        String[] payloads = new String[users.size()];
+        int i = 0;
+        for (UserResponse user : users) {
+            userIds[i] = user.getId();
+            payloads[i++] = serialize(user);
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ALL_SQL);
+            statement.setString(1, type.name());
+            statement.setObject(2, now);
+            statement.setArray(3, connection.createArrayOf("bigint", userIds));
+            statement.setArray(4, connection.createArrayOf("text", payloads));
+            return statement;
+        });
+    }
+
+    private UserOutboxEvent toEvent(UserEventType type, UserResponse user, Instant now) {
+        return UserOutboxEvent.builder()
+                .userId(user.getId())
+                .eventType(type)
+                .payload(serialize(user))
+                .createdAt(now)
+                .build();
+    }
+
+    private String serialize(UserResponse user) {
+        try {
+            return payloadWriter.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user event", e);
+        }
+    }
+}
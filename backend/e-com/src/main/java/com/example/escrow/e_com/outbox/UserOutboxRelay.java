@@ -0,0 +1,140 @@
+package com.example.escrow.e_com.outbox;
+
+import com.example.escrow.e_com.entity.UserOutboxEvent;
+import com.example.escrow.e_com.repository.UserOutboxRepository;
+import com.example.escrow.e_com.repository.UserOutboxRepository.FirstEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code user_outbox} in batches. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, handed to every {@link UserEventSink} and deleted in
+ * the same transaction, so relays on several nodes can run side by side. Per-user
+ * order holds because a user's events are only delivered up to the first of that
+ * user's events held outside the batch.
+ */
+@Component
+public class UserOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    private final UserOutboxRepository outboxRepository;
+    private final ObjectProvider<UserEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter delivered;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public UserOutboxRelay(UserOutboxRepository outboxRepository,
+                           ObjectProvider<UserEventSink> sinks,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${user.outbox.batch-size:500}") int batchSize,
+                           @Value("${user.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.delivered = Counter.builder("user.outbox.delivered").register(meterRegistry);
+        this.batchTimer = Timer.builder("user.outbox.relay.batch").register(meterRegistry);
+        Gauge.builder("user.outbox.lag", lagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest undelivered user event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${user.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer count = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+                if (count == null || count < batchSize) {
+                    break;
+                }
+            }
+            lagMillis.set(outboxRepository.findOldestCreatedAt()
+                    .map(oldest -> Duration.between(oldest, Instant.now()).toMillis())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            log.warn("User outbox relay failed, will retry", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<UserOutboxEvent> batch = outboxRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        List<Long> batchIds = new ArrayList<>(batch.size());
+        for (UserOutboxEvent event : batch) {
+            userIds.add(event.getUserId());
+            batchIds.add(event.getId());
+        }
+        Map<Long, Long> firstOutside = new HashMap<>();
+        for (FirstEvent first : outboxRepository.findFirstEventsOutside(userIds, batchIds)) {
+            firstOutside.put(first.getUserId(), first.getFirstId());
+        }
+
+        List<UserOutboxEvent> deliverable = deliverable(batch, firstOutside);
+        if (deliverable.isEmpty()) {
+            return batch.size();
+        }
+        List<UserEvent> events = deliverable.stream().map(UserOutboxRelay::toEvent).toList();
+        sinks.orderedStream().forEach(sink -> sink.deliver(events));
+        outboxRepository.deleteAllByIdInBatch(deliverable.stream().map(UserOutboxEvent::getId).toList());
+        delivered.increment(events.size());
+        return batch.size();
+    }
+
+    /**
+     * Keeps the events of each user that precede that user's first event outside the
+     * batch. Anything after such a gap waits until the earlier event has been relayed.
+     */
+    static List<UserOutboxEvent> deliverable(List<UserOutboxEvent> batch, Map<Long, Long> firstOutsideByUser) {
+        List<UserOutboxEvent> result = new ArrayList<>(batch.size());
+        for (UserOutboxEvent event : batch) {
+            Long firstOutside = firstOutsideByUser.get(event.getUserId());
+            if (firstOutside == null || event.getId() < firstOutside) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    private static UserEvent toEvent(UserOutboxEvent event) {
+        return UserEvent.builder()
+                .id(event.getId())
+                .userId(event.getUserId())
+                .type(event.getEventType())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.checkout.SagaStatus;
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CheckoutSagaRepository extends JpaRepository<CheckoutSaga, UUID> {
+
+    // Unfinished sagas nobody has touched recently: their orchestrator is gone
+    List<CheckoutSaga> findByStatusInAndUpdatedAtBeforeOrderByCreatedAt(Collection<SagaStatus> statuses,
+                                                                         Instant updatedBefore, Limit limit);
+}
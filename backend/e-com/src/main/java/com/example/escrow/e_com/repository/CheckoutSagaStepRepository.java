@@ -0,0 +1,27 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.checkout.SagaStep;
+import com.example.escrow.e_com.checkout.StepStatus;
+import com.example.escrow.e_com.entity.CheckoutSagaStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CheckoutSagaStepRepository extends JpaRepository<CheckoutSagaStep, Long> {
+
+    List<CheckoutSagaStep> findBySagaIdOrderByFinishedAt(UUID sagaId);
+
+    @Transactional
+    @Modifying
+    @Query("update CheckoutSagaStep s set s.status = :status, s.finishedAt = :now where s.sagaId = :sagaId and s.step = :step")
+    int updateStatus(@Param("sagaId") UUID sagaId, @Param("step") SagaStep step, @Param("status") StepStatus status,
+                     @Param("now") Instant now);
+}
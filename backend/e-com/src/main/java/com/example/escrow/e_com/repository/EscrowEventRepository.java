@@ -0,0 +1,36 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.EscrowEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EscrowEventRepository extends JpaRepository<EscrowEvent, Long> {
+
+    // Served by the unique (escrow_id, seq) index; claims still waiting on the ledger are not part of the history
+    @Transactional(readOnly = true)
+    List<EscrowEvent> findByEscrowIdAndSeqGreaterThanAndPendingFalseOrderBySeq(UUID escrowId, int seq);
+
+    // 0 when the claim was swept as stale before its posting came back
+    @Modifying
+    @Query("update EscrowEvent e set e.pending = false where e.id = :id and e.pending = true")
+    int confirm(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EscrowEvent e where e.id = :id and e.pending = true")
+    int deletePending(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select e from EscrowEvent e where e.pending = true and e.createdAt < :before order by e.createdAt")
+    List<EscrowEvent> findStalePending(@Param("before") Instant before, Limit limit);
+}
@@ -0,0 +1,11 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.EscrowSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface EscrowSnapshotRepository extends JpaRepository<EscrowSnapshot, UUID> {
+}
@@ -0,0 +1,56 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.EscrowTimer;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface EscrowTimerRepository extends JpaRepository<EscrowTimer, Long> {
+
+    interface ClaimedTimer {
+        UUID getEscrowId();
+        String getKind();
+    }
+
+    @Modifying
+    @Query("delete from EscrowTimer t where t.escrowId = :escrowId")
+    int deleteByEscrowId(@Param("escrowId") UUID escrowId);
+
+    // Startup rebuild: one forward pass over every pending timer
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select t from EscrowTimer t")
+    Stream<EscrowTimer> streamAll();
+
+    // Catch-up for timers whose node died or whose lease ran out
+    @Query("select t from EscrowTimer t where t.dueAt <= :now order by t.dueAt")
+    List<EscrowTimer> findOverdue(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Claims due timers of the given escrows by pushing them out by a lease. Each node
+     * holds every timer it knows about in its wheel, so several nodes fire the same
+     * deadline: the per-escrow advisory lock and SKIP LOCKED let exactly one claim it
+     * without anyone blocking, and the lease keeps it claimed after this transaction.
+     */
+    @Query(value = "UPDATE escrow_timers SET due_at = :leaseUntil WHERE id IN ("
+            + "SELECT id FROM escrow_timers WHERE escrow_id IN (:escrowIds) AND due_at <= :now "
+            + "AND pg_try_advisory_xact_lock(hashtextextended(escrow_id::text, 0)) "
+            + "FOR UPDATE SKIP LOCKED) RETURNING escrow_id AS escrowId, kind", nativeQuery = true)
+    List<ClaimedTimer> claimDue(@Param("escrowIds") Collection<UUID> escrowIds,
+                                @Param("now") Instant now,
+                                @Param("leaseUntil") Instant leaseUntil);
+}
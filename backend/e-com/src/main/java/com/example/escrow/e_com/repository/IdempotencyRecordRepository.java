@@ -0,0 +1,54 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // The primary key decides which request (on any node) runs first
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (key_hash, fingerprint, created_at) VALUES (:keyHash, :fingerprint, :now) "
+            + "ON CONFLICT (key_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("keyHash") String keyHash, @Param("fingerprint") String fingerprint, @Param("now") Instant now);
+
+    // Takes over a key whose first request never finished (its node died mid-request); a different body stays a mismatch
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.createdAt = :now where r.keyHash = :keyHash "
+            + "and r.fingerprint = :fingerprint and r.responseStatus is null and r.createdAt < :staleBefore")
+    int takeOverStale(@Param("keyHash") String keyHash, @Param("fingerprint") String fingerprint,
+                      @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    // Heartbeat of a running request; created_at doubles as the staleness clock
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.createdAt = :now where r.keyHash = :keyHash and r.responseStatus is null")
+    int touchPending(@Param("keyHash") String keyHash, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = :status, r.contentType = :contentType, r.responseBody = :body "
+            + "where r.keyHash = :keyHash")
+    int complete(@Param("keyHash") String keyHash, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.keyHash = :keyHash and r.responseStatus is null")
+    int deletePending(@Param("keyHash") String keyHash);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE key_hash IN "
+            + "(SELECT key_hash FROM idempotency_keys WHERE created_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,78 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.InventoryItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, String> {
+
+    // Cold path: the row lock is held only for this statement; hot rows are owned by a counter
+    @Modifying
+    @Query("update InventoryItem i set i.quantity = i.quantity - :quantity, i.updatedAt = :now "
+            + "where i.sku = :sku and i.hot = false and i.quantity >= :quantity")
+    int decrementIfAvailable(@Param("sku") String sku, @Param("quantity") long quantity, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update InventoryItem i set i.quantity = i.quantity + :quantity, i.updatedAt = :now where i.sku = :sku")
+    int increment(@Param("sku") String sku, @Param("quantity") long quantity, @Param("now") Instant now);
+
+    // Also takes the lease; a row already hot under another node's live lease is left alone
+    @Modifying
+    @Query("update InventoryItem i set i.hot = true, i.hotOwner = :node, i.hotLeaseUntil = :until, "
+            + "i.hotEpoch = i.hotEpoch + 1, i.updatedAt = :now where i.sku = :sku "
+            + "and (i.hot = false or i.hotOwner is null or i.hotOwner = :node or i.hotLeaseUntil < :now)")
+    int markHot(@Param("sku") String sku, @Param("node") String node, @Param("now") Instant now,
+                @Param("until") Instant until);
+
+    @Modifying
+    @Query("update InventoryItem i set i.hot = false, i.quantity = :quantity, i.hotOwner = null, i.hotLeaseUntil = null, "
+            + "i.updatedAt = :now where i.sku = :sku and i.hot = true and i.hotEpoch = :epoch")
+    int markCold(@Param("sku") String sku, @Param("epoch") long epoch, @Param("quantity") long quantity,
+                 @Param("now") Instant now);
+
+    // A new epoch fences off the counter of the previous holder, even when that was this node
+    @Modifying
+    @Query("update InventoryItem i set i.hotOwner = :node, i.hotLeaseUntil = :until, i.hotEpoch = i.hotEpoch + 1 "
+            + "where i.sku = :sku and i.hot = true and (i.hotOwner is null or i.hotOwner = :node or i.hotLeaseUntil < :now)")
+    int acquireHotLease(@Param("sku") String sku, @Param("node") String node, @Param("now") Instant now,
+                        @Param("until") Instant until);
+
+    @Modifying
+    @Query("update InventoryItem i set i.hotLeaseUntil = :until where i.sku = :sku and i.hot = true and i.hotEpoch = :epoch")
+    int renewHotLease(@Param("sku") String sku, @Param("epoch") long epoch, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update InventoryItem i set i.hotOwner = null, i.hotLeaseUntil = null where i.hot = true and i.hotOwner = :node")
+    int releaseHotLeases(@Param("node") String node);
+
+    // The lease holder's batched flush of confirmed hot sales; a counter whose epoch moved on cannot flush
+    @Modifying
+    @Query("update InventoryItem i set i.quantity = i.quantity - :quantity, i.updatedAt = :now "
+            + "where i.sku = :sku and i.hot = true and i.hotEpoch = :epoch")
+    int applyHotSales(@Param("sku") String sku, @Param("epoch") long epoch, @Param("quantity") long quantity,
+                      @Param("now") Instant now);
+
+    @Query("select i.quantity from InventoryItem i where i.sku = :sku")
+    Optional<Long> findQuantityBySku(@Param("sku") String sku);
+
+    @Query("select i.sellerId from InventoryItem i where i.sku = :sku")
+    Optional<Long> findSellerIdBySku(@Param("sku") String sku);
+
+    @Query("select i.hot from InventoryItem i where i.sku = :sku")
+    Optional<Boolean> findHotBySku(@Param("sku") String sku);
+
+    @Query("select i.quantity as quantity, i.hotEpoch as epoch from InventoryItem i where i.sku = :sku")
+    Optional<HotStock> findHotStockBySku(@Param("sku") String sku);
+
+    interface HotStock {
+        long getQuantity();
+        long getEpoch();
+    }
+}
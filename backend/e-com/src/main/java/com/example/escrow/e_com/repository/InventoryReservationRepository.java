@@ -0,0 +1,76 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.InventoryReservation;
+import com.example.escrow.e_com.inventory.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, UUID> {
+
+    // Whoever deletes the row owns the reservation's outcome (confirm, release or expiry)
+    @Modifying
+    @Query("delete from InventoryReservation r where r.id = :id and r.hotEpoch is null")
+    int deleteReservation(@Param("id") UUID id);
+
+    @Query("select r from InventoryReservation r where r.expiresAt < :now and r.hotEpoch is null order by r.expiresAt")
+    List<InventoryReservation> findExpired(@Param("now") Instant now, Limit limit);
+
+    // Hot holds are settled on any node by marking the row; the lease holder folds it in at its next flush
+    @Modifying
+    @Query("update InventoryReservation r set r.status = :status where r.id = :id and r.hotEpoch = :epoch "
+            + "and r.status = com.example.escrow.e_com.inventory.ReservationStatus.HELD")
+    int settleHot(@Param("id") UUID id, @Param("epoch") long epoch, @Param("status") ReservationStatus status);
+
+    // The holder's own expiry of a hold still open under its epoch
+    @Modifying
+    @Query("delete from InventoryReservation r where r.id = :id and r.hotEpoch = :epoch "
+            + "and r.status = com.example.escrow.e_com.inventory.ReservationStatus.HELD")
+    int deleteHeld(@Param("id") UUID id, @Param("epoch") long epoch);
+
+    interface SettledHold {
+        UUID getId();
+        ReservationStatus getStatus();
+        int getQuantity();
+    }
+
+    @Query("select r.id as id, r.status as status, r.quantity as quantity from InventoryReservation r "
+            + "where r.sku = :sku and r.hotEpoch = :epoch and r.status <> com.example.escrow.e_com.inventory.ReservationStatus.HELD")
+    List<SettledHold> findSettledHot(@Param("sku") String sku, @Param("epoch") long epoch);
+
+    @Query("select coalesce(sum(r.quantity), 0) from InventoryReservation r "
+            + "where r.sku = :sku and r.hotEpoch = :epoch and r.status = :status")
+    long sumHot(@Param("sku") String sku, @Param("epoch") long epoch, @Param("status") ReservationStatus status);
+
+    @Query("select coalesce(sum(r.quantity), 0) from InventoryReservation r where r.sku = :sku and r.hotEpoch < :epoch "
+            + "and r.status = com.example.escrow.e_com.inventory.ReservationStatus.CONFIRMED")
+    long sumConfirmedBefore(@Param("sku") String sku, @Param("epoch") long epoch);
+
+    // Hand-over: open and released holds of earlier counters are void, the row still counts their units
+    @Modifying
+    @Query("delete from InventoryReservation r where r.sku = :sku and r.hotEpoch < :epoch "
+            + "and r.status <> com.example.escrow.e_com.inventory.ReservationStatus.CONFIRMED")
+    int deleteUnsoldBefore(@Param("sku") String sku, @Param("epoch") long epoch);
+
+    @Modifying
+    @Query("delete from InventoryReservation r where r.sku = :sku and r.hotEpoch < :epoch")
+    int deleteHotBefore(@Param("sku") String sku, @Param("epoch") long epoch);
+
+    // Going cold: the counter's open holds become cold reservations, their units already off the row
+    @Modifying
+    @Query("update InventoryReservation r set r.hotEpoch = null where r.sku = :sku and r.hotEpoch = :epoch "
+            + "and r.status = com.example.escrow.e_com.inventory.ReservationStatus.HELD")
+    int coolHeld(@Param("sku") String sku, @Param("epoch") long epoch);
+
+    @Modifying
+    @Query("delete from InventoryReservation r where r.sku = :sku and r.hotEpoch = :epoch")
+    int deleteHot(@Param("sku") String sku, @Param("epoch") long epoch);
+}
@@ -0,0 +1,29 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.JournalEntry;
+import com.example.escrow.e_com.ledger.EntryType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+
+    // The user's WALLET leg of an entry: who it was for and how much (signed) moved
+    interface WalletPosting {
+        Long getEntryId();
+        Long getUserId();
+        long getAmount();
+    }
+
+    @Query("select e.id as entryId, a.userId as userId, p.amount as amount "
+            + "from JournalEntry e, LedgerPosting p, LedgerAccount a "
+            + "where e.reference = :reference and e.type = :type and p.entryId = e.id and a.id = p.accountId "
+            + "and a.type = com.example.escrow.e_com.ledger.AccountType.WALLET order by e.id")
+    List<WalletPosting> findWalletPostings(@Param("reference") String reference, @Param("type") EntryType type);
+
+    boolean existsByReferenceAndType(String reference, EntryType type);
+}
@@ -0,0 +1,14 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.LedgerAccount;
+import com.example.escrow.e_com.ledger.AccountType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerAccountRepository extends JpaRepository<LedgerAccount, Long> {
+
+    Optional<LedgerAccount> findByUserIdAndType(Long userId, AccountType type);
+}
@@ -0,0 +1,13 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long> {
+
+    List<LedgerPosting> findByEntryId(Long entryId);
+}
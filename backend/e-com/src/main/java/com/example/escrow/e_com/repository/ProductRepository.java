@@ -0,0 +1,58 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Startup index build: one forward pass, in id order so newer products get higher doc ids
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    // Catch-up with writes committed on other nodes; the index skips versions it already has
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select p from Product p where p.updatedAt >= :since order by p.id")
+    Stream<Product> streamUpdatedSince(@Param("since") Instant since);
+
+    interface TitleCount {
+        String getTitle();
+        long getListings();
+    }
+
+    interface SellerCount {
+        Long getSellerId();
+        String getName();
+        long getListings();
+    }
+
+    @Query("select p.id from Product p where p.sellerId in :sellerIds")
+    List<Long> findIdsBySellerIdIn(@Param("sellerIds") Collection<Long> sellerIds, Limit limit);
+
+    // Autocomplete sources
+    @Query("select p.title as title, count(p) as listings from Product p group by p.title")
+    List<TitleCount> countByTitle();
+
+    @Query("select u.id as sellerId, u.name as name, count(p) as listings from User u "
+            + "left join Product p on p.sellerId = u.id "
+            + "where u.role = com.example.escrow.e_com.Role.SELLER group by u.id, u.name")
+    List<SellerCount> countBySeller();
+}
@@ -0,0 +1,24 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.ProductTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    @Query("select t.productId from ProductTombstone t where t.deletedAt >= :since")
+    List<Long> findProductIdsDeletedSince(@Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductTombstone t where t.deletedAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,45 @@
+package com.example.escrow.e_com.repository;
+
+import com.example.escrow.e_com.entity.UserOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    interface FirstEvent {
+        Long getUserId();
+        Long getFirstId();
+    }
+
+    // Concurrent relays each claim a disjoint batch
+    @Query(value = "SELECT * FROM user_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UserOutboxEvent> lockBatch(@Param("limit") int limit);
+
+    // Oldest pending event per user that is not in the caller's batch (held by another relay or not yet claimed)
+    @Query(value = "SELECT user_id AS userId, min(id) AS firstId FROM user_outbox "
+            + "WHERE user_id IN (:userIds) AND id NOT IN (:batchIds) GROUP BY user_id", nativeQuery = true)
+    List<FirstEvent> findFirstEventsOutside(@Param("userIds") Collection<Long> userIds,
+                                            @Param("batchIds") Collection<Long> batchIds);
+
+    // Pending events keep their type but carry the same placeholders as the anonymized user row;
+    // events already rewritten are skipped, so repeated batches move on to the rest
+    @Modifying
+    @Query(value = "UPDATE user_outbox SET payload = json_build_object('id', user_id, 'name', 'Deleted user', "
+            + "'email', 'deleted-' || user_id || '@invalid', 'role', payload::json ->> 'role')::text "
+            + "WHERE id IN (SELECT id FROM user_outbox WHERE user_id IN (:userIds) "
+            + "AND payload::json ->> 'email' IS DISTINCT FROM 'deleted-' || user_id || '@invalid' "
+            + "LIMIT :limit)", nativeQuery = true)
+    int anonymizePayloads(@Param("userIds") Collection<Long> userIds, @Param("limit") int limit);
+
+    @Query("select min(e.createdAt) from UserOutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+}
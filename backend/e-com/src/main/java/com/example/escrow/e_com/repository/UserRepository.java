@@ -1,10 +1,24 @@
 package com.example.escrow.e_com.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserResponse;
 import com.example.escrow.e_com.entity.User;
 
 @Repository
@@ -13,7 +27,97 @@ public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
-    
-      
+    // Read paths project straight into the DTO: no managed entity, no dirty-check snapshot, no password hash
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u where u.email = :email")
+    Optional<UserResponse> findResponseByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u where u.id in :ids")
+    List<UserResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u where u.email in :emails")
+    List<UserResponse> findResponsesByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Keyset pages: seek past the last seen id, so every page costs the same regardless of depth
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u "
+            + "where u.id > :after order by u.id")
+    List<UserResponse> findPageAfter(@Param("after") long after, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u "
+            + "where u.role = :role and u.id > :after order by u.id")
+    List<UserResponse> findPageByRoleAfter(@Param("role") Role role, @Param("after") long after, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.deletedAt = :now, u.version = u.version + 1 where u.id = :id and u.deletedAt is null")
+    int softDelete(@Param("id") Long id, @Param("now") Instant now);
+
+    // Native: @SQLRestriction hides deleted rows from JPQL. The row locks only last until the
+    // caller's transaction stamps the claim; the claim keeps other nodes off the rows after that.
+    @Query(value = "SELECT id FROM users WHERE deleted_at < :cutoff AND purged_at IS NULL "
+            + "AND (purge_claimed_until IS NULL OR purge_claimed_until < :now) "
+            + "ORDER BY deleted_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPurgeCandidates(@Param("cutoff") Instant cutoff, @Param("now") Instant now,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE users SET purge_claimed_until = :until WHERE id IN (:ids)", nativeQuery = true)
+    int claimForPurge(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    // A node whose claim lapsed mid-purge may get here after another node already did
+    @Modifying
+    @Query(value = "UPDATE users SET email = 'deleted-' || id || '@invalid', name = 'Deleted user', "
+            + "password = '!', purged_at = now() WHERE id IN (:ids) AND purged_at IS NULL", nativeQuery = true)
+    int anonymize(@Param("ids") Collection<Long> ids);
+
+    interface UpdatedUser {
+        Long getId();
+        String getName();
+        String getEmail();
+        String getRole();
+    }
+
+    // Set-based role changes. No @Modifying: UPDATE ... RETURNING yields rows, so it runs as a query
+    // and must be called from a read-write transaction.
+    @Query(value = "UPDATE users SET role = :newRole, version = version + 1 "
+            + "WHERE id IN (:ids) AND role <> :newRole AND deleted_at IS NULL RETURNING id, name, email, role", nativeQuery = true)
+    List<UpdatedUser> updateRoleByIds(@Param("ids") Collection<Long> ids, @Param("newRole") String newRole);
+
+    // At most :limit users per call, lowest ids first; callers repeat until fewer than :limit come back
+    @Query(value = "UPDATE users SET role = :newRole, version = version + 1 WHERE id IN ("
+            + "SELECT id FROM users WHERE role = :fromRole AND deleted_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE"
+            + ") RETURNING id, name, email, role", nativeQuery = true)
+    List<UpdatedUser> updateRoleByRole(@Param("fromRole") String fromRole, @Param("newRole") String newRole,
+                                       @Param("limit") int limit);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new com.example.escrow.e_com.dto.UserResponse(u.id, u.name, u.email, u.role) from User u order by u.id")
+    Stream<UserResponse> streamAllResponses();
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Compare-and-set on the old hash so a concurrent password change is never overwritten
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePassword(@Param("id") Long id,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
 
 }
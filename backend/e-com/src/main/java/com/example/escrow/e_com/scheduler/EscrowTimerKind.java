@@ -0,0 +1,20 @@
+package com.example.escrow.e_com.scheduler;
+
+import com.example.escrow.e_com.escrow.EscrowEventType;
+
+public enum EscrowTimerKind {
+    // Unfunded escrow expires
+    PAYMENT_EXPIRY(EscrowEventType.EXPIRED),
+    // Shipped escrow releases to the seller unless disputed first
+    AUTO_RELEASE(EscrowEventType.RELEASED);
+
+    private final EscrowEventType fires;
+
+    EscrowTimerKind(EscrowEventType fires) {
+        this.fires = fires;
+    }
+
+    public EscrowEventType fires() {
+        return fires;
+    }
+}
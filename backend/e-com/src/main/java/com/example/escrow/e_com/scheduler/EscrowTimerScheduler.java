@@ -0,0 +1,264 @@
+package com.example.escrow.e_com.scheduler;
+
+import com.example.escrow.e_com.entity.EscrowTimer;
+import com.example.escrow.e_com.escrow.EscrowState;
+import com.example.escrow.e_com.escrow.EscrowTransaction;
+import com.example.escrow.e_com.exception.EscrowNotFoundException;
+import com.example.escrow.e_com.exception.IllegalEscrowTransitionException;
+import com.example.escrow.e_com.repository.EscrowTimerRepository;
+import com.example.escrow.e_com.repository.EscrowTimerRepository.ClaimedTimer;
+import com.example.escrow.e_com.scheduler.HierarchicalTimingWheel.Timeout;
+import com.example.escrow.e_com.service.EscrowService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Escrow deadlines (payment expiry, auto-release) held in a {@link HierarchicalTimingWheel}
+ * instead of polling escrow_timers. The table stays the source of truth: rows are written
+ * in the same transaction as the escrow event that creates or clears them, the wheel is
+ * rebuilt from it in one pass at startup, and a slow sweep picks up timers whose owning
+ * node died. Expired timers are claimed in batches under per-escrow advisory locks, so
+ * when several nodes hold the same deadline only one fires it.
+ */
+@Component
+public class EscrowTimerScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EscrowTimerScheduler.class);
+
+    private final EscrowTimerRepository timerRepository;
+    private final ObjectProvider<EscrowService> escrowService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long tickMillis;
+    private final Duration paymentWindow;
+    private final Duration releaseAfter;
+    private final Duration lease;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HierarchicalTimingWheel<TimerKey> wheel;
+    private final Map<TimerKey, Timeout<TimerKey>> scheduled = new HashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter fired;
+
+    private Thread driver;
+    private volatile boolean running;
+
+    public EscrowTimerScheduler(EscrowTimerRepository timerRepository,
+                                ObjectProvider<EscrowService> escrowService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${escrow.timers.tick:PT1S}") Duration tick,
+                                @Value("${escrow.timers.payment-window:PT24H}") Duration paymentWindow,
+                                @Value("${escrow.timers.release-after:P7D}") Duration releaseAfter,
+                                @Value("${escrow.timers.lease:PT5M}") Duration lease,
+                                @Value("${escrow.timers.batch-size:200}") int batchSize) {
+        this.timerRepository = timerRepository;
+        this.escrowService = escrowService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tickMillis = tick.toMillis();
+        this.paymentWindow = paymentWindow;
+        this.releaseAfter = releaseAfter;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, System.currentTimeMillis());
+
+        Gauge.builder("escrow.timers.pending", pending, AtomicInteger::get)
+                .register(meterRegistry);
+        this.fired = Counter.builder("escrow.timers.fired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the escrow's timer rows to match its new state. Runs inside the escrow
+     * event transaction; the in-memory wheel follows only after commit.
+     */
+    public void onTransition(EscrowTransaction tx) {
+        EscrowTimerKind kind = tx.getState() == EscrowState.CREATED ? EscrowTimerKind.PAYMENT_EXPIRY
+                : tx.getState() == EscrowState.SHIPPED ? EscrowTimerKind.AUTO_RELEASE
+                : null;
+        if (tx.getVersion() > 1) {
+            timerRepository.deleteByEscrowId(tx.getId());
+        }
+        Instant dueAt = null;
+        if (kind != null) {
+            dueAt = kind == EscrowTimerKind.PAYMENT_EXPIRY
+                    ? tx.getCreatedAt().plus(paymentWindow)
+                    : tx.getUpdatedAt().plus(releaseAfter);
+            timerRepository.save(EscrowTimer.builder().escrowId(tx.getId()).kind(kind).dueAt(dueAt).build());
+        }
+
+        UUID escrowId = tx.getId();
+        Instant due = dueAt;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lock.lock();
+                try {
+                    for (EscrowTimerKind existing : EscrowTimerKind.values()) {
+                        unschedule(new TimerKey(escrowId, existing));
+                    }
+                    if (kind != null) {
+                        schedule(new TimerKey(escrowId, kind), due);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<EscrowTimer> timers = timerRepository.streamAll()) {
+                List<EscrowTimer> chunk = new ArrayList<>(1000);
+                for (EscrowTimer timer : (Iterable<EscrowTimer>) timers::iterator) {
+                    chunk.add(timer);
+                    if (chunk.size() == 1000) {
+                        count += scheduleAll(chunk);
+                        chunk.clear();
+                    }
+                }
+                count += scheduleAll(chunk);
+            }
+            return count;
+        });
+        log.info("Loaded {} escrow timers", loaded);
+
+        running = true;
+        driver = new Thread(this::tickLoop, "escrow-timer-wheel");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+    }
+
+    // Timers whose node went away (or whose firing failed) are overdue in the table but in no wheel
+    @Scheduled(fixedDelayString = "${escrow.timers.sweep-interval:PT5M}", initialDelayString = "${escrow.timers.sweep-interval:PT5M}")
+    public void sweepOverdue() {
+        List<EscrowTimer> overdue = timerRepository.findOverdue(Instant.now(), Limit.of(batchSize * 10));
+        if (!overdue.isEmpty()) {
+            scheduleAll(overdue);
+        }
+    }
+
+    private int scheduleAll(List<EscrowTimer> timers) {
+        lock.lock();
+        try {
+            for (EscrowTimer timer : timers) {
+                schedule(new TimerKey(timer.getEscrowId(), timer.getKind()), timer.getDueAt());
+            }
+            return timers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock
+    private void schedule(TimerKey key, Instant dueAt) {
+        unschedule(key);
+        scheduled.put(key, wheel.schedule(key, dueAt.toEpochMilli()));
+        pending.set(wheel.size());
+    }
+
+    // Caller holds lock
+    private void unschedule(TimerKey key) {
+        Timeout<TimerKey> timeout = scheduled.remove(key);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+            pending.set(wheel.size());
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<TimerKey> expired;
+            lock.lock();
+            try {
+                expired = wheel.advance(System.currentTimeMillis());
+                expired.forEach(scheduled::remove);
+                pending.set(wheel.size());
+            } finally {
+                lock.unlock();
+            }
+            for (int from = 0; from < expired.size(); from += batchSize) {
+                try {
+                    fireBatch(expired.subList(from, Math.min(from + batchSize, expired.size())));
+                } catch (RuntimeException e) {
+                    // Unclaimed timers stay due in the table and come back with the sweep
+                    log.warn("Firing escrow timer batch failed", e);
+                }
+            }
+        }
+    }
+
+    private void fireBatch(List<TimerKey> batch) {
+        Set<UUID> escrowIds = new LinkedHashSet<>();
+        batch.forEach(key -> escrowIds.add(key.escrowId()));
+        Instant now = Instant.now();
+        List<ClaimedTimer> claimed = transactionTemplate.execute(
+                status -> timerRepository.claimDue(escrowIds, now, now.plus(lease)));
+        if (claimed == null) {
+            return;
+        }
+        for (ClaimedTimer timer : claimed) {
+            EscrowTimerKind kind = EscrowTimerKind.valueOf(timer.getKind());
+            try {
+                escrowService.getObject().transition(timer.getEscrowId(), kind.fires(), null, null,
+                        "Automatic " + kind.name().toLowerCase().replace('_', ' '));
+                fired.increment();
+            } catch (IllegalEscrowTransitionException | EscrowNotFoundException e) {
+                // The escrow moved on without clearing the timer; drop it
+                transactionTemplate.executeWithoutResult(status -> timerRepository.deleteByEscrowId(timer.getEscrowId()));
+            } catch (RuntimeException e) {
+                log.warn("Escrow timer {} for {} failed; retrying after the lease", kind, timer.getEscrowId(), e);
+            }
+        }
+    }
+
+    private record TimerKey(UUID escrowId, EscrowTimerKind kind) {
+    }
+}
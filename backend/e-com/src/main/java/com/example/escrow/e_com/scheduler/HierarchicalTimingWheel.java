@@ -0,0 +1,184 @@
+package com.example.escrow.e_com.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed hierarchical timing wheel (Varghese &amp; Lauck). Four levels of 256 slots
+ * cover 2^32 ticks; a deadline lands in the lowest level whose current rotation
+ * contains it and cascades one level down each time its slot comes up. Scheduling
+ * and cancelling are O(1) list operations; {@link #advance} costs one slot per tick.
+ *
+ * <p>Not thread-safe: callers serialize access.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Bucket<T>[][] wheels;
+    // Deadlines already due when scheduled, and those beyond the top level
+    private final Bucket<T> due = new Bucket<>();
+    private final Bucket<T> overflow = new Bucket<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Bucket[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Round up so nothing fires before its deadline
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis, -Math.floorDiv(-deadlineMillis, tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Moves time forward to {@code nowMillis} and returns every payload that came due, in tick order. */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        drain(due, expired);
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            // Cascading puts deadlines of exactly this tick into `due`
+            drain(due, expired);
+            drain(wheels[0][(int) (currentTick & MASK)], expired);
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    // When lower levels wrap, pull the matching slot of each higher level down, highest first
+    private void cascade() {
+        int wrapped = 0;
+        while (wrapped < LEVELS - 1 && ((currentTick >>> (BITS * (wrapped + 1))) << (BITS * (wrapped + 1))) == currentTick) {
+            wrapped++;
+        }
+        if (wrapped == LEVELS - 1 && !overflow.isEmpty()) {
+            reinsert(overflow);
+        }
+        for (int level = wrapped; level >= 1; level--) {
+            reinsert(wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)]);
+        }
+    }
+
+    private void reinsert(Bucket<T> bucket) {
+        Timeout<T> timeout = bucket.head.next;
+        while (timeout != bucket.head) {
+            Timeout<T> next = timeout.next;
+            bucket.remove(timeout);
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long ticks = timeout.tick;
+        if (ticks <= currentTick) {
+            due.add(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            // Same rotation of the next level up: the slot at this level is still ahead of us
+            if ((ticks >>> shift) == (currentTick >>> shift)) {
+                wheels[level][(int) ((ticks >>> (BITS * level)) & MASK)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    private void drain(Bucket<T> bucket, List<T> out) {
+        Timeout<T> timeout = bucket.head.next;
+        while (timeout != bucket.head) {
+            Timeout<T> next = timeout.next;
+            bucket.remove(timeout);
+            out.add(timeout.payload);
+            timeout = next;
+        }
+    }
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMillis;
+        private final long tick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineMillis, long tick) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private final Timeout<T> head = new Timeout<>(null, 0, 0);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = head.prev;
+            timeout.next = head;
+            head.prev.next = timeout;
+            head.prev = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            timeout.prev.next = timeout.next;
+            timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.escrow.e_com.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the highest BCrypt cost whose verify time stays within a latency budget on
+ * the current hardware. Each extra cost round doubles the work, so one measurement
+ * at the minimum cost is enough to extrapolate.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final int SAMPLES = 5;
+    private static final String PROBE_PASSWORD = "calibration-Probe#1";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        if (minStrength >= maxStrength) {
+            return minStrength;
+        }
+        double measured = medianVerifyMillis(minStrength);
+        return strengthFor(targetMillis, measured, minStrength, maxStrength);
+    }
+
+    static int strengthFor(long targetMillis, double measuredMillisAtMin, int minStrength, int maxStrength) {
+        if (measuredMillisAtMin <= 0 || targetMillis <= measuredMillisAtMin) {
+            return minStrength;
+        }
+        int extraRounds = (int) Math.floor(Math.log(targetMillis / measuredMillisAtMin) / Math.log(2));
+        return Math.min(maxStrength, minStrength + extraRounds);
+    }
+
+    private static double medianVerifyMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(PROBE_PASSWORD);
+        encoder.matches(PROBE_PASSWORD, hash); // warm-up
+
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PROBE_PASSWORD, hash);
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
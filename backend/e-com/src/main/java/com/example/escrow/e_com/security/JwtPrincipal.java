@@ -0,0 +1,16 @@
+package com.example.escrow.e_com.security;
+
+import com.example.escrow.e_com.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class JwtPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+}
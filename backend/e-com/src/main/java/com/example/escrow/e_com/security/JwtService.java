@@ -0,0 +1,105 @@
+package com.example.escrow.e_com.security;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HMAC-signed access and refresh tokens. The signing key and
+ * parser are built once, so verifying a token never touches the database.
+ */
+@Component
+public class JwtService {
+
+    static final String CLAIM_EMAIL = "email";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TYPE = "typ";
+    static final String TYPE_ACCESS = "access";
+    static final String TYPE_REFRESH = "refresh";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+
+    public JwtService(@Value("${security.jwt.secret:}") String secret,
+                      @Value("${security.jwt.access-token-ttl:PT15M}") Duration accessTokenTtl,
+                      @Value("${security.jwt.refresh-token-ttl:P7D}") Duration refreshTokenTtl) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("security.jwt.secret is not set; supply it through SECURITY_JWT_SECRET");
+        }
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    public String issueAccessToken(UserResponse user) {
+        return issue(user, TYPE_ACCESS, accessTokenTtl);
+    }
+
+    public String issueRefreshToken(UserResponse user) {
+        return issue(user, TYPE_REFRESH, refreshTokenTtl);
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    public JwtPrincipal parseAccessToken(String token) {
+        return toPrincipal(parse(token, TYPE_ACCESS));
+    }
+
+    public JwtPrincipal parseRefreshToken(String token) {
+        return toPrincipal(parse(token, TYPE_REFRESH));
+    }
+
+    private String issue(UserResponse user, String type, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(String.valueOf(user.getId()))
+                .claim(CLAIM_EMAIL, user.getEmail())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TYPE, type)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Claims parse(String token, String expectedType) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid or expired token");
+        }
+        if (!expectedType.equals(claims.get(CLAIM_TYPE, String.class))) {
+            throw new InvalidTokenException("Unexpected token type");
+        }
+        return claims;
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        return new JwtPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get(CLAIM_EMAIL, String.class),
+                Role.valueOf(claims.get(CLAIM_ROLE, String.class)));
+    }
+}
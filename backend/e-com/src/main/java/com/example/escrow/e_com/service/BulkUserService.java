@@ -0,0 +1,16 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.dto.BulkRegistrationResponse;
+import com.example.escrow.e_com.dto.UserRegisterRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface BulkUserService {
+
+    BulkRegistrationResponse registerUsers(List<UserRegisterRequest> requests);
+
+    // One UserRegisterRequest JSON object per line
+    BulkRegistrationResponse registerUsersNdjson(InputStream body) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.CheckoutResponse;
+
+import java.util.UUID;
+
+public interface CheckoutService {
+
+    /** Runs the checkout saga to completion (or compensation) before returning. */
+    CheckoutResponse checkout(Long buyerId, Long productId, int quantity);
+
+    CheckoutResponse findById(UUID id, Long actorId, Role role);
+}
@@ -0,0 +1,20 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.EscrowResponse;
+import com.example.escrow.e_com.escrow.EscrowEventType;
+
+import java.util.UUID;
+
+public interface EscrowService {
+
+    EscrowResponse createEscrow(Long buyerId, Long sellerId, long amount);
+
+    EscrowResponse findById(UUID id, Long actorId, Role actorRole);
+
+    /**
+     * Applies one transition on behalf of {@code actorId}; a null actor is the system
+     * (e.g. scheduled auto-release) and bypasses participant checks.
+     */
+    EscrowResponse transition(UUID id, EscrowEventType type, Long actorId, Role actorRole, String note);
+}
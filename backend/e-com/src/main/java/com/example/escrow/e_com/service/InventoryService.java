@@ -0,0 +1,26 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.InventoryResponse;
+import com.example.escrow.e_com.dto.ReservationResponse;
+
+import java.util.UUID;
+
+public interface InventoryService {
+
+    InventoryResponse createItem(String sku, long quantity, Long sellerId, Role role);
+
+    InventoryResponse findBySku(String sku);
+
+    InventoryResponse adjustStock(String sku, long delta, Long actorId, Role role);
+
+    /** Moves a SKU onto (or off) the in-memory flash-sale counters. */
+    InventoryResponse setHot(String sku, boolean hot, Long actorId, Role role);
+
+    ReservationResponse reserve(String sku, int quantity, Long buyerId);
+
+    /** Turns a held reservation into a sale; a null buyer skips the ownership check. */
+    ReservationResponse confirm(UUID reservationId, Long buyerId);
+
+    void release(UUID reservationId, Long buyerId);
+}
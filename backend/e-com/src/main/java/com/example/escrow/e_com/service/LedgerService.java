@@ -0,0 +1,27 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.ledger.AccountType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Money movements between buyer, escrow and seller accounts. Amounts are minor units;
+ * each future completes with the journal entry id once the posting is durable.
+ */
+public interface LedgerService {
+
+    CompletableFuture<Long> deposit(Long userId, long amount, String reference);
+
+    CompletableFuture<Long> hold(Long buyerId, long amount, String reference);
+
+    CompletableFuture<Long> release(Long buyerId, Long sellerId, long amount, String reference);
+
+    // Moves released funds from the seller back into the buyer's escrow account
+    CompletableFuture<Long> reverseRelease(Long buyerId, Long sellerId, long amount, String reference);
+
+    CompletableFuture<Long> refund(Long buyerId, long amount, String reference);
+
+    CompletableFuture<Long> withdraw(Long userId, long amount, String reference);
+
+    long availableBalance(Long userId, AccountType type);
+}
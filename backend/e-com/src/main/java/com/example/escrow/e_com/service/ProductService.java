@@ -0,0 +1,20 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.CatalogSearchResponse;
+import com.example.escrow.e_com.dto.ProductRequest;
+import com.example.escrow.e_com.dto.ProductResponse;
+
+public interface ProductService {
+
+    ProductResponse createProduct(ProductRequest request, Long sellerId, Role role);
+
+    ProductResponse updateProduct(Long id, ProductRequest request, Long actorId, Role role);
+
+    void deleteProduct(Long id, Long actorId, Role role);
+
+    ProductResponse findById(Long id);
+
+    /** Answered from the in-memory index; {@code priceBand} indexes {@code catalog.price-bands}. */
+    CatalogSearchResponse search(String text, String category, Long sellerId, Integer priceBand, int offset, int limit);
+}
@@ -0,0 +1,14 @@
+package com.example.escrow.e_com.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    void export(Format format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.example.escrow.e_com.service;
+
+import com.example.escrow.e_com.dto.UserImportRequest;
+import com.example.escrow.e_com.dto.UserImportStatus;
+
+public interface UserImportService {
+
+    UserImportStatus startImport(UserImportRequest request);
+
+    UserImportStatus getStatus(String jobId);
+}
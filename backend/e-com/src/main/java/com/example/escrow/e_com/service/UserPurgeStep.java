@@ -0,0 +1,22 @@
+package com.example.escrow.e_com.service;
+
+import java.util.List;
+
+/**
+ * Removes or anonymizes data that belongs to soft-deleted users. Each call handles at most
+ * {@code limit} rows in its own short transaction; the purger calls a step again, pausing
+ * in between, until it handles fewer than {@code limit}, and anonymizes the user rows only
+ * once every step is done. A step must skip rows it already handled, since a chunk whose
+ * claim lapsed is worked through again from the start.
+ *
+ * <p>Purged today: a seller's products (and their catalog entries), and the personal
+ * fields in outbox events still waiting for delivery. Retained on purpose, keyed only by
+ * user id and carrying no personal data: ledger accounts and journal entries, escrows and
+ * their events, checkout sagas, inventory items, and audit records. Inventory reservations
+ * and idempotency records expire on their own well inside the grace period.
+ */
+public interface UserPurgeStep {
+
+    // Returns the number of rows handled
+    int purge(List<Long> userIds, int limit);
+}
@@ -1,9 +1,13 @@
 package com.example.escrow.e_com.service;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.BulkRoleUpdateResponse;
 import com.example.escrow.e_com.dto.UpdateRequestDTO;
+import com.example.escrow.e_com.dto.UserBatchResponse;
+import com.example.escrow.e_com.dto.UserPage;
 import com.example.escrow.e_com.dto.UserRegisterRequest;
 import com.example.escrow.e_com.dto.UserResponse;
 import com.example.escrow.e_com.entity.User;
@@ -19,6 +23,8 @@ public interface UserService {
     // User Management
     UserResponse findByEmail(String email) throws UserNotFoundException;
     UserResponse findById(Long id) throws UserNotFoundException;
+    UserBatchResponse findBatch(Collection<Long> ids, Collection<String> emails);
+    UserPage listUsers(Long after, Integer limit, Role role);
     boolean existsByEmail(String email);
 
     // Profile Management
@@ -26,7 +32,9 @@ public interface UserService {
 
     // Role Management
     boolean hasRole(User user, Role role);
+    boolean hasRole(UserResponse user, Role role);
     UserResponse updateUserRole(Long userId, Role newRole);
+    BulkRoleUpdateResponse updateUserRoles(Collection<Long> userIds, Role fromRole, Role newRole);
 
 
     void deleteUser(Long id);
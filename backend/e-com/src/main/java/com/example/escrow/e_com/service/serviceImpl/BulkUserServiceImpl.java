@@ -0,0 +1,275 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Mapper.UserMapper;
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.audit.AuditAction;
+import com.example.escrow.e_com.audit.AuditLog;
+import com.example.escrow.e_com.dto.BulkRegistrationResponse;
+import com.example.escrow.e_com.dto.BulkRegistrationResult;
+import com.example.escrow.e_com.dto.BulkRegistrationResult.Status;
+import com.example.escrow.e_com.dto.UserRegisterRequest;
+import com.example.escrow.e_com.entity.User;
+import com.example.escrow.e_com.exception.DataIntegrityErrors;
+import com.example.escrow.e_com.outbox.UserEventType;
+import com.example.escrow.e_com.outbox.UserOutbox;
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
+import com.example.escrow.e_com.service.BulkUserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BulkUserServiceImpl implements BulkUserService {
+
+    private final UserRepository userRepository;
+    private final PasswordHashingExecutor passwordHashing;
+    private final UserOutbox userOutbox;
+    private final AuditLog auditLog;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader requestReader;
+    private final int maxRows;
+    private final int chunkSize;
+
+    public BulkUserServiceImpl(UserRepository userRepository,
+                               PasswordHashingExecutor passwordHashing,
+                               UserOutbox userOutbox,
+                               AuditLog auditLog,
+                               Validator validator,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${user.bulk.max-rows:10000}") int maxRows,
+                               @Value("${user.bulk.chunk-size:50}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.passwordHashing = passwordHashing;
+        this.userOutbox = userOutbox;
+        this.auditLog = auditLog;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestReader = objectMapper.readerFor(UserRegisterRequest.class);
+        this.maxRows = maxRows;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkRegistrationResponse registerUsers(List<UserRegisterRequest> requests) {
+        BulkRun run = new BulkRun();
+        for (UserRegisterRequest request : requests) {
+            if (!run.accept(request, null)) {
+                run.truncated = requests.size() - maxRows;
+                break;
+            }
+        }
+        return run.finish();
+    }
+
+    @Override
+    public BulkRegistrationResponse registerUsersNdjson(InputStream body) throws IOException {
+        BulkRun run = new BulkRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        boolean full = false;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (full) {
+                // Past the limit: count the row without parsing or keeping it
+                run.truncated++;
+                continue;
+            }
+            try {
+                full = !run.accept(requestReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                full = !run.accept(null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (full) {
+                run.truncated++;
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Accumulates rows into chunks of {@code chunkSize}; each chunk is validated, deduplicated,
+     * hashed in parallel and inserted as one JDBC batch, so memory stays bounded by the chunk
+     * plus the per-row results. Rows past {@code maxRows} are only counted.
+     */
+    private class BulkRun {
+
+        private final List<BulkRegistrationResult> results = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<Row> pending = new ArrayList<>();
+        private int index;
+        int truncated;
+
+        // False once the row limit is reached; the row is then not processed
+        boolean accept(UserRegisterRequest request, String parseError) {
+            if (index >= maxRows) {
+                return false;
+            }
+            pending.add(new Row(index++, request, parseError));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+            return true;
+        }
+
+        BulkRegistrationResponse finish() {
+            flush();
+            int created = (int) results.stream().filter(r -> r.getStatus() == Status.CREATED).count();
+            return BulkRegistrationResponse.builder()
+                    .total(results.size())
+                    .created(created)
+                    .failed(results.size() - created)
+                    .truncated(truncated)
+                    .results(results)
+                    .build();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            // Rows in a chunk carry consecutive indexes, so index - base is the position in the chunk
+            int base = pending.get(0).index();
+            BulkRegistrationResult[] chunkResults = new BulkRegistrationResult[pending.size()];
+            List<Row> candidates = new ArrayList<>(pending.size());
+
+            for (int i = 0; i < pending.size(); i++) {
+                Row row = pending.get(i);
+                String error = row.parseError() != null ? row.parseError() : validate(row.request());
+                if (error != null) {
+                    chunkResults[i] = result(row.index(), row.request(), Status.INVALID, null, error);
+                } else if (!seenEmails.add(row.request().getEmail())) {
+                    chunkResults[i] = result(row.index(), row.request(), Status.DUPLICATE, null, "Duplicate email in request");
+                } else {
+                    candidates.add(row);
+                }
+            }
+
+            Set<String> existing = candidates.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(
+                    candidates.stream().map(r -> r.request().getEmail()).toList()));
+            List<Row> inserts = new ArrayList<>(candidates.size());
+            for (Row row : candidates) {
+                if (existing.contains(row.request().getEmail())) {
+                    chunkResults[row.index() - base] = result(row.index(), row.request(), Status.DUPLICATE, null, "Email already exist");
+                } else {
+                    inserts.add(row);
+                }
+            }
+
+            List<String> hashes = passwordHashing.encodeAll(inserts.stream().map(r -> r.request().getPassword()).toList());
+            List<User> users = new ArrayList<>(inserts.size());
+            for (int i = 0; i < inserts.size(); i++) {
+                User user = UserMapper.toEntity(inserts.get(i).request());
+                user.setId(null);
+                user.setPassword(hashes.get(i));
+                user.setRole(Role.CUSTOMER);
+                users.add(user);
+            }
+            insert(users);
+
+            for (int i = 0; i < inserts.size(); i++) {
+                Row row = inserts.get(i);
+                User user = users.get(i);
+                chunkResults[row.index() - base] = user.getId() != null
+                        ? result(row.index(), row.request(), Status.CREATED, user.getId(), null)
+                        : result(row.index(), row.request(), Status.DUPLICATE, null, "Email already exist");
+            }
+
+            results.addAll(List.of(chunkResults));
+            pending.clear();
+        }
+    }
+
+    // One batched INSERT per chunk; a unique violation from a concurrent writer falls back to row-by-row
+    private void insert(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAllAndFlush(users);
+                userOutbox.recordAll(UserEventType.USER_REGISTERED, users.stream().map(UserMapper::toResponse).toList());
+                auditLog.recordAll(users.stream().map(User::getId).toList(), AuditAction.REGISTRATION, null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!DataIntegrityErrors.isUniqueViolation(e)) {
+                throw e;
+            }
+            // The failed batch already gave these entities an id and a version, so each row is retried as a fresh entity
+            for (int i = 0; i < users.size(); i++) {
+                User fresh = unsaved(users.get(i));
+                try {
+                    users.set(i, transactionTemplate.execute(status -> {
+                        User saved = userRepository.saveAndFlush(fresh);
+                        userOutbox.record(UserEventType.USER_REGISTERED, UserMapper.toResponse(saved));
+                        auditLog.record(saved.getId(), AuditAction.REGISTRATION, null);
+                        return saved;
+                    }));
+                } catch (DataIntegrityViolationException rowError) {
+                    if (!DataIntegrityErrors.isUniqueViolation(rowError)) {
+                        throw rowError;
+                    }
+                    users.set(i, unsaved(fresh));
+                }
+            }
+        }
+    }
+
+    private static User unsaved(User user) {
+        return User.builder()
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .build();
+    }
+
+    private String validate(UserRegisterRequest request) {
+        if (request == null) {
+            return "Empty row";
+        }
+        Set<ConstraintViolation<UserRegisterRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static BulkRegistrationResult result(int index, UserRegisterRequest request, Status status, Long id, String message) {
+        return BulkRegistrationResult.builder()
+                .index(index)
+                .email(request != null ? request.getEmail() : null)
+                .status(status)
+                .id(id)
+                .message(message)
+                .build();
+    }
+
+    private record Row(int index, UserRegisterRequest request, String parseError) {
+    }
+}
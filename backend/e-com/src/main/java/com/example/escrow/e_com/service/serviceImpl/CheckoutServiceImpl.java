@@ -0,0 +1,93 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.checkout.CheckoutSagaOrchestrator;
+import com.example.escrow.e_com.checkout.SagaStatus;
+import com.example.escrow.e_com.dto.CheckoutResponse;
+import com.example.escrow.e_com.dto.CheckoutStepResponse;
+import com.example.escrow.e_com.dto.ProductResponse;
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.exception.CheckoutNotFoundException;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.repository.CheckoutSagaRepository;
+import com.example.escrow.e_com.repository.CheckoutSagaStepRepository;
+import com.example.escrow.e_com.service.CheckoutService;
+import com.example.escrow.e_com.service.ProductService;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private final ProductService productService;
+    private final CheckoutSagaOrchestrator orchestrator;
+    private final CheckoutSagaRepository sagaRepository;
+    private final CheckoutSagaStepRepository stepRepository;
+
+    public CheckoutServiceImpl(ProductService productService,
+                               CheckoutSagaOrchestrator orchestrator,
+                               CheckoutSagaRepository sagaRepository,
+                               CheckoutSagaStepRepository stepRepository) {
+        this.productService = productService;
+        this.orchestrator = orchestrator;
+        this.sagaRepository = sagaRepository;
+        this.stepRepository = stepRepository;
+    }
+
+    @Override
+    public CheckoutResponse checkout(Long buyerId, Long productId, int quantity) {
+        ProductResponse product = productService.findById(productId);
+        long amount;
+        try {
+            amount = Math.multiplyExact(product.getPrice(), quantity);
+        } catch (ArithmeticException e) {
+            throw new InvalidRequestException("Order total is too large");
+        }
+        Instant now = Instant.now();
+        CheckoutSaga saga = orchestrator.run(CheckoutSaga.builder()
+                .id(UUID.randomUUID())
+                .buyerId(buyerId)
+                .sellerId(product.getSellerId())
+                .productId(product.getId())
+                .sku(product.getSku())
+                .quantity(quantity)
+                .amount(amount)
+                .status(SagaStatus.STARTED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        return toResponse(saga);
+    }
+
+    @Override
+    public CheckoutResponse findById(UUID id, Long actorId, Role role) {
+        CheckoutSaga saga = sagaRepository.findById(id)
+                .filter(found -> role == Role.ADMIN || found.getBuyerId().equals(actorId))
+                .orElseThrow(() -> new CheckoutNotFoundException("Checkout not found: " + id));
+        return toResponse(saga);
+    }
+
+    private CheckoutResponse toResponse(CheckoutSaga saga) {
+        return CheckoutResponse.builder()
+                .id(saga.getId())
+                .status(saga.getStatus())
+                .productId(saga.getProductId())
+                .quantity(saga.getQuantity())
+                .amount(saga.getAmount())
+                .fee(saga.getFee())
+                .failureReason(saga.getFailureReason())
+                .createdAt(saga.getCreatedAt())
+                .updatedAt(saga.getUpdatedAt())
+                .steps(stepRepository.findBySagaIdOrderByFinishedAt(saga.getId()).stream()
+                        .map(step -> CheckoutStepResponse.builder()
+                                .step(step.getStep())
+                                .status(step.getStatus())
+                                .durationMicros(step.getDurationMicros())
+                                .error(step.getError())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.EscrowResponse;
+import com.example.escrow.e_com.entity.EscrowEvent;
+import com.example.escrow.e_com.entity.EscrowSnapshot;
+import com.example.escrow.e_com.escrow.EscrowEventType;
+import com.example.escrow.e_com.escrow.EscrowTransaction;
+import com.example.escrow.e_com.exception.DataIntegrityErrors;
+import com.example.escrow.e_com.exception.EscrowNotFoundException;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.repository.EscrowEventRepository;
+import com.example.escrow.e_com.repository.EscrowSnapshotRepository;
+import com.example.escrow.e_com.scheduler.EscrowTimerScheduler;
+import com.example.escrow.e_com.service.EscrowService;
+import com.example.escrow.e_com.service.LedgerService;
+import com.example.escrow.e_com.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Escrow commands against event-sourced aggregates. Aggregates are cached, and commands
+ * on one escrow are serialized on its cached instance, so legality is decided in memory
+ * before anything is written. The cache is only this node's view, though: a command that
+ * moves money first claims the next seq by inserting its event as pending, so a node
+ * whose cached aggregate is behind fails on the unique (escrow_id, seq) key before it
+ * posts anything. The ledger posting runs next and the claim is then confirmed; if the
+ * posting fails the claim is dropped, and if confirming fails the posting is compensated
+ * with the opposite transfer. Claims left behind by a node that went away are dropped
+ * after claim-timeout.
+ */
+@Service
+public class EscrowServiceImpl implements EscrowService {
+
+    private static final Logger log = LoggerFactory.getLogger(EscrowServiceImpl.class);
+    private static final int CLAIM_SWEEP_BATCH_SIZE = 100;
+
+    private final EscrowEventRepository eventRepository;
+    private final EscrowSnapshotRepository snapshotRepository;
+    private final LedgerService ledgerService;
+    private final UserService userService;
+    private final EscrowTimerScheduler timerScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<UUID, EscrowTransaction> aggregates;
+    private final int snapshotEvery;
+    private final Duration claimTimeout;
+
+    public EscrowServiceImpl(EscrowEventRepository eventRepository,
+                             EscrowSnapshotRepository snapshotRepository,
+                             LedgerService ledgerService,
+                             UserService userService,
+                             EscrowTimerScheduler timerScheduler,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${escrow.cache.max-size:100000}") long cacheSize,
+                             @Value("${escrow.snapshot-every:20}") int snapshotEvery,
+                             @Value("${escrow.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.ledgerService = ledgerService;
+        this.userService = userService;
+        this.timerScheduler = timerScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.aggregates = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, aggregates, "escrow.aggregates");
+        this.snapshotEvery = snapshotEvery;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Override
+    public EscrowResponse createEscrow(Long buyerId, Long sellerId, long amount) {
+        if (Objects.equals(buyerId, sellerId)) {
+            throw new InvalidRequestException("Buyer and seller must differ");
+        }
+        if (!userService.hasRole(userService.findById(buyerId), Role.CUSTOMER)) {
+            throw new InvalidRequestException("User " + buyerId + " is not a customer");
+        }
+        if (!userService.hasRole(userService.findById(sellerId), Role.SELLER)) {
+            throw new InvalidRequestException("User " + sellerId + " is not a seller");
+        }
+        UUID id = UUID.randomUUID();
+        EscrowEvent created = EscrowTransaction.creationEvent(id, buyerId, sellerId, amount, Instant.now());
+        EscrowTransaction tx = EscrowTransaction.replay(id, null, List.of(created));
+        store(tx, List.of(created));
+        aggregates.put(id, tx);
+        return toResponse(tx);
+    }
+
+    @Override
+    public EscrowResponse findById(UUID id, Long actorId, Role actorRole) {
+        EscrowTransaction tx = load(id);
+        if (actorRole != Role.ADMIN && actorId != tx.getBuyerId() && actorId != tx.getSellerId()) {
+            throw new EscrowNotFoundException("Escrow not found: " + id);
+        }
+        return toResponse(tx);
+    }
+
+    @Override
+    public EscrowResponse transition(UUID id, EscrowEventType type, Long actorId, Role actorRole, String note) {
+        while (true) {
+            EscrowTransaction current = load(id);
+            synchronized (current) {
+                // Evicted or replaced while we waited for the monitor: start over on the live instance
+                if (aggregates.getIfPresent(id) != current) {
+                    continue;
+                }
+                authorize(current, type, actorId, actorRole);
+                EscrowEvent event = current.next(type, actorId, note, Instant.now());
+                EscrowTransaction updated = current.copy();
+                updated.apply(event);
+                if (!movesMoney(type)) {
+                    try {
+                        store(updated, List.of(event));
+                    } catch (RuntimeException e) {
+                        throw conflictOr(id, e);
+                    }
+                    aggregates.put(id, updated);
+                    return toResponse(updated);
+                }
+
+                claim(id, event);
+                Runnable compensation;
+                try {
+                    compensation = post(current, type);
+                } catch (RuntimeException e) {
+                    release(id, event);
+                    throw e;
+                }
+                try {
+                    confirm(updated, event);
+                } catch (RuntimeException e) {
+                    aggregates.invalidate(id);
+                    compensate(id, compensation);
+                    release(id, event);
+                    throw e;
+                }
+                aggregates.put(id, updated);
+                return toResponse(updated);
+            }
+        }
+    }
+
+    private static boolean movesMoney(EscrowEventType type) {
+        return type == EscrowEventType.FUNDED || type == EscrowEventType.RELEASED || type == EscrowEventType.REFUNDED;
+    }
+
+    // Takes the event's seq before any money moves; losing the race means our cached aggregate was behind
+    private void claim(UUID id, EscrowEvent event) {
+        event.setPending(true);
+        try {
+            eventRepository.saveAndFlush(event);
+        } catch (RuntimeException e) {
+            throw conflictOr(id, e);
+        }
+    }
+
+    private void release(UUID id, EscrowEvent event) {
+        try {
+            eventRepository.deletePending(event.getId());
+        } catch (RuntimeException e) {
+            log.warn("Dropping the claim for escrow {} failed; it is swept after the claim timeout", id, e);
+        }
+    }
+
+    private RuntimeException conflictOr(UUID id, RuntimeException e) {
+        aggregates.invalidate(id);
+        if (e instanceof DataIntegrityViolationException && DataIntegrityErrors.isUniqueViolation(e)) {
+            return new OptimisticLockingFailureException("Escrow " + id + " was changed concurrently");
+        }
+        return e;
+    }
+
+    private void authorize(EscrowTransaction tx, EscrowEventType type, Long actorId, Role actorRole) {
+        if (actorId == null) {
+            return;
+        }
+        boolean buyer = actorId == tx.getBuyerId();
+        boolean seller = actorId == tx.getSellerId();
+        boolean admin = actorRole == Role.ADMIN;
+        boolean allowed = switch (type) {
+            case FUNDED -> buyer;
+            case SHIPPED -> seller;
+            case RELEASED -> buyer || admin;
+            case REFUNDED -> seller || admin;
+            case DISPUTED -> buyer || seller;
+            case CREATED, EXPIRED -> false;
+        };
+        if (!allowed) {
+            throw new AccessDeniedException("Not allowed to mark escrow " + tx.getId() + " as " + type.target());
+        }
+    }
+
+    // Moves the money for a transition and returns how to undo it
+    private Runnable post(EscrowTransaction tx, EscrowEventType type) {
+        String reference = tx.getId().toString();
+        long buyer = tx.getBuyerId();
+        long seller = tx.getSellerId();
+        long amount = tx.getAmount();
+        return switch (type) {
+            case FUNDED -> {
+                await(() -> ledgerService.hold(buyer, amount, reference));
+                yield () -> await(() -> ledgerService.refund(buyer, amount, reference));
+            }
+            case RELEASED -> {
+                await(() -> ledgerService.release(buyer, seller, amount, reference));
+                yield () -> await(() -> ledgerService.reverseRelease(buyer, seller, amount, reference));
+            }
+            case REFUNDED -> {
+                await(() -> ledgerService.refund(buyer, amount, reference));
+                yield () -> await(() -> ledgerService.hold(buyer, amount, reference));
+            }
+            default -> () -> { };
+        };
+    }
+
+    private void compensate(UUID id, Runnable compensation) {
+        try {
+            compensation.run();
+        } catch (RuntimeException e) {
+            log.error("Compensation for escrow {} failed; ledger needs manual reconciliation", id, e);
+        }
+    }
+
+    private static void await(Supplier<CompletableFuture<Long>> posting) {
+        try {
+            posting.get().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Events of one command, the snapshot when due and the timer rows all go out in one transaction
+    private void store(EscrowTransaction updated, List<EscrowEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.saveAllAndFlush(events);
+            afterAppend(updated, events.size());
+        });
+    }
+
+    // Same as store, for an event whose row is already in as a claim
+    private void confirm(EscrowTransaction updated, EscrowEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (eventRepository.confirm(event.getId()) == 0) {
+                throw new OptimisticLockingFailureException("Claim on escrow " + updated.getId() + " timed out");
+            }
+            afterAppend(updated, 1);
+        });
+    }
+
+    private void afterAppend(EscrowTransaction updated, int appended) {
+        int before = updated.getVersion() - appended;
+        if (updated.getVersion() / snapshotEvery > before / snapshotEvery) {
+            snapshotRepository.save(updated.toSnapshot());
+        }
+        timerScheduler.onTransition(updated);
+    }
+
+    // A claim this old belongs to a node that went away mid-posting, so whether its money moved is unknown
+    @Scheduled(fixedDelayString = "${escrow.claim-timeout:PT5M}", initialDelayString = "${escrow.claim-timeout:PT5M}")
+    public void dropStaleClaims() {
+        Instant before = Instant.now().minus(claimTimeout);
+        for (EscrowEvent stale : eventRepository.findStalePending(before, Limit.of(CLAIM_SWEEP_BATCH_SIZE))) {
+            if (eventRepository.deletePending(stale.getId()) > 0) {
+                aggregates.invalidate(stale.getEscrowId());
+                log.error("Dropped stale {} claim on escrow {}; ledger needs manual reconciliation",
+                        stale.getType(), stale.getEscrowId());
+            }
+        }
+    }
+
+    private EscrowTransaction load(UUID id) {
+        return aggregates.get(id, key -> {
+            EscrowSnapshot snapshot = snapshotRepository.findById(key).orElse(null);
+            List<EscrowEvent> tail = eventRepository.findByEscrowIdAndSeqGreaterThanAndPendingFalseOrderBySeq(
+                    key, snapshot == null ? 0 : snapshot.getSeq());
+            if (snapshot == null && tail.isEmpty()) {
+                throw new EscrowNotFoundException("Escrow not found: " + key);
+            }
+            return EscrowTransaction.replay(key, snapshot, tail);
+        });
+    }
+
+    private static EscrowResponse toResponse(EscrowTransaction tx) {
+        return EscrowResponse.builder()
+                .id(tx.getId())
+                .buyerId(tx.getBuyerId())
+                .sellerId(tx.getSellerId())
+                .amount(tx.getAmount())
+                .state(tx.getState())
+                .version(tx.getVersion())
+                .createdAt(tx.getCreatedAt())
+                .updatedAt(tx.getUpdatedAt())
+                .build();
+    }
+}
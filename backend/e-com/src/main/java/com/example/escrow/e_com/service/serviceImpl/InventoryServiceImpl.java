@@ -0,0 +1,113 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.InventoryResponse;
+import com.example.escrow.e_com.dto.ReservationResponse;
+import com.example.escrow.e_com.entity.InventoryItem;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.exception.InventoryNotFoundException;
+import com.example.escrow.e_com.inventory.InventoryEngine;
+import com.example.escrow.e_com.inventory.Reservation;
+import com.example.escrow.e_com.repository.InventoryItemRepository;
+import com.example.escrow.e_com.service.InventoryService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private final InventoryItemRepository itemRepository;
+    private final InventoryEngine inventoryEngine;
+
+    public InventoryServiceImpl(InventoryItemRepository itemRepository, InventoryEngine inventoryEngine) {
+        this.itemRepository = itemRepository;
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    @Override
+    public InventoryResponse createItem(String sku, long quantity, Long sellerId, Role role) {
+        if (role != Role.SELLER) {
+            throw new AccessDeniedException("Only sellers can list inventory");
+        }
+        if (itemRepository.existsById(sku)) {
+            throw new InvalidRequestException("SKU " + sku + " already exists");
+        }
+        InventoryItem item = itemRepository.save(InventoryItem.builder()
+                .sku(sku)
+                .sellerId(sellerId)
+                .quantity(quantity)
+                .updatedAt(Instant.now())
+                .build());
+        return toResponse(item);
+    }
+
+    @Override
+    public InventoryResponse findBySku(String sku) {
+        return toResponse(getItem(sku));
+    }
+
+    @Override
+    public InventoryResponse adjustStock(String sku, long delta, Long actorId, Role role) {
+        InventoryItem item = getOwnedItem(sku, actorId, role);
+        inventoryEngine.adjustStock(sku, delta);
+        return toResponse(item);
+    }
+
+    @Override
+    public InventoryResponse setHot(String sku, boolean hot, Long actorId, Role role) {
+        InventoryItem item = getOwnedItem(sku, actorId, role);
+        inventoryEngine.setHot(sku, hot);
+        return toResponse(item);
+    }
+
+    @Override
+    public ReservationResponse reserve(String sku, int quantity, Long buyerId) {
+        return toResponse(inventoryEngine.reserve(sku, quantity, buyerId));
+    }
+
+    @Override
+    public ReservationResponse confirm(UUID reservationId, Long buyerId) {
+        return toResponse(inventoryEngine.confirm(reservationId, buyerId));
+    }
+
+    @Override
+    public void release(UUID reservationId, Long buyerId) {
+        inventoryEngine.release(reservationId, buyerId);
+    }
+
+    private InventoryItem getItem(String sku) {
+        return itemRepository.findById(sku)
+                .orElseThrow(() -> new InventoryNotFoundException("No inventory for SKU " + sku));
+    }
+
+    private InventoryItem getOwnedItem(String sku, Long actorId, Role role) {
+        InventoryItem item = getItem(sku);
+        if (role != Role.ADMIN && !item.getSellerId().equals(actorId)) {
+            throw new AccessDeniedException("Not the seller of SKU " + sku);
+        }
+        return item;
+    }
+
+    // Live figures come from the engine; on a node without the lease a hot row still counts held units
+    // and lags confirmed sales by up to one housekeeping interval
+    private InventoryResponse toResponse(InventoryItem item) {
+        return InventoryResponse.builder()
+                .sku(item.getSku())
+                .sellerId(item.getSellerId())
+                .available(inventoryEngine.available(item.getSku()))
+                .hot(inventoryEngine.isHot(item.getSku()))
+                .build();
+    }
+
+    private ReservationResponse toResponse(Reservation reservation) {
+        return ReservationResponse.builder()
+                .id(reservation.id())
+                .sku(reservation.sku())
+                .quantity(reservation.quantity())
+                .expiresAt(reservation.expiresAt())
+                .build();
+    }
+}
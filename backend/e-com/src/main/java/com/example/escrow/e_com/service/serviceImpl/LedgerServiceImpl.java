@@ -0,0 +1,70 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.ledger.AccountType;
+import com.example.escrow.e_com.ledger.EntryType;
+import com.example.escrow.e_com.ledger.LedgerEngine;
+import com.example.escrow.e_com.ledger.Leg;
+import com.example.escrow.e_com.service.LedgerService;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerEngine ledger;
+
+    public LedgerServiceImpl(LedgerEngine ledger) {
+        this.ledger = ledger;
+    }
+
+    @Override
+    public CompletableFuture<Long> deposit(Long userId, long amount, String reference) {
+        return transfer(EntryType.DEPOSIT, reference, amount,
+                ledger.systemAccountId(AccountType.EXTERNAL), ledger.accountId(userId, AccountType.WALLET));
+    }
+
+    @Override
+    public CompletableFuture<Long> hold(Long buyerId, long amount, String reference) {
+        return transfer(EntryType.HOLD, reference, amount,
+                ledger.accountId(buyerId, AccountType.WALLET), ledger.accountId(buyerId, AccountType.ESCROW));
+    }
+
+    @Override
+    public CompletableFuture<Long> release(Long buyerId, Long sellerId, long amount, String reference) {
+        return transfer(EntryType.RELEASE, reference, amount,
+                ledger.accountId(buyerId, AccountType.ESCROW), ledger.accountId(sellerId, AccountType.WALLET));
+    }
+
+    @Override
+    public CompletableFuture<Long> reverseRelease(Long buyerId, Long sellerId, long amount, String reference) {
+        return transfer(EntryType.REVERSAL, reference, amount,
+                ledger.accountId(sellerId, AccountType.WALLET), ledger.accountId(buyerId, AccountType.ESCROW));
+    }
+
+    @Override
+    public CompletableFuture<Long> refund(Long buyerId, long amount, String reference) {
+        return transfer(EntryType.REFUND, reference, amount,
+                ledger.accountId(buyerId, AccountType.ESCROW), ledger.accountId(buyerId, AccountType.WALLET));
+    }
+
+    @Override
+    public CompletableFuture<Long> withdraw(Long userId, long amount, String reference) {
+        return transfer(EntryType.WITHDRAWAL, reference, amount,
+                ledger.accountId(userId, AccountType.WALLET), ledger.systemAccountId(AccountType.EXTERNAL));
+    }
+
+    @Override
+    public long availableBalance(Long userId, AccountType type) {
+        return ledger.availableBalance(ledger.accountId(userId, type));
+    }
+
+    private CompletableFuture<Long> transfer(EntryType type, String reference, long amount, long from, long to) {
+        if (amount <= 0) {
+            throw new InvalidRequestException("Amount must be positive");
+        }
+        return ledger.post(type, reference, List.of(new Leg(from, -amount), new Leg(to, amount)));
+    }
+}
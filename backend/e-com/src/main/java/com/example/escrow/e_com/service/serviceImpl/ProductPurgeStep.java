@@ -0,0 +1,50 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.catalog.CatalogIndex;
+import com.example.escrow.e_com.entity.ProductTombstone;
+import com.example.escrow.e_com.repository.ProductRepository;
+import com.example.escrow.e_com.repository.ProductTombstoneRepository;
+import com.example.escrow.e_com.service.UserPurgeStep;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+// Delists a purged seller's products and tombstones them for other nodes; the autocomplete index drops them at its next rebuild
+@Component
+@Order(1)
+public class ProductPurgeStep implements UserPurgeStep {
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final CatalogIndex catalogIndex;
+
+    public ProductPurgeStep(ProductRepository productRepository, ProductTombstoneRepository tombstoneRepository,
+                            CatalogIndex catalogIndex) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.catalogIndex = catalogIndex;
+    }
+
+    @Override
+    public int purge(List<Long> userIds, int limit) {
+        List<Long> productIds = productRepository.findIdsBySellerIdIn(userIds, Limit.of(limit));
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        productRepository.deleteAllByIdInBatch(productIds);
+        Instant now = Instant.now();
+        tombstoneRepository.saveAll(productIds.stream().map(id -> new ProductTombstone(id, now)).toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(catalogIndex::remove);
+            }
+        });
+        return productIds.size();
+    }
+}
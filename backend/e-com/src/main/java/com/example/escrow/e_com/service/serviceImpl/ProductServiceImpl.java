@@ -0,0 +1,266 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.catalog.CatalogHit;
+import com.example.escrow.e_com.catalog.CatalogIndex;
+import com.example.escrow.e_com.catalog.CatalogQuery;
+import com.example.escrow.e_com.catalog.CatalogResult;
+import com.example.escrow.e_com.catalog.ProductDocument;
+import com.example.escrow.e_com.dto.CatalogSearchResponse;
+import com.example.escrow.e_com.dto.ProductRequest;
+import com.example.escrow.e_com.dto.ProductResponse;
+import com.example.escrow.e_com.entity.Product;
+import com.example.escrow.e_com.entity.ProductTombstone;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.exception.ProductNotFoundException;
+import com.example.escrow.e_com.repository.InventoryItemRepository;
+import com.example.escrow.e_com.repository.ProductRepository;
+import com.example.escrow.e_com.repository.ProductTombstoneRepository;
+import com.example.escrow.e_com.service.ProductService;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Catalog writes go to Postgres; reads are served by {@link CatalogIndex}, which follows
+ * each write once it commits and is built from the products table at startup. Writes
+ * committed on other nodes are caught up periodically: products by updated_at, deletes
+ * through product_tombstones. Each pass re-reads an overlap window, since updated_at is
+ * stamped before the writing transaction commits.
+ */
+@Service
+public class ProductServiceImpl implements ProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final CatalogIndex catalogIndex;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPageSize;
+    private final Duration catchUpOverlap;
+    private final Duration tombstoneRetention;
+
+    // Start of the last pass over the products table; null until the index is built
+    private volatile Instant indexedThrough;
+
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ProductTombstoneRepository tombstoneRepository,
+                              InventoryItemRepository inventoryItemRepository,
+                              CatalogIndex catalogIndex,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${catalog.max-page-size:100}") int maxPageSize,
+                              @Value("${catalog.catch-up-overlap:PT1M}") Duration catchUpOverlap,
+                              @Value("${catalog.tombstone-retention:PT1H}") Duration tombstoneRetention) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.catalogIndex = catalogIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+        this.catchUpOverlap = catchUpOverlap;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        Instant started = Instant.now();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                indexAll(products);
+            }
+        });
+        indexedThrough = started;
+        log.info("Indexed {} catalog products", catalogIndex.size());
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.catch-up-interval:PT30S}")
+    public void catchUp() {
+        Instant from = indexedThrough;
+        if (from == null) {
+            return;
+        }
+        Instant started = Instant.now();
+        Instant since = from.minus(catchUpOverlap);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamUpdatedSince(since)) {
+                indexAll(products);
+            }
+            tombstoneRepository.findProductIdsDeletedSince(since).forEach(catalogIndex::remove);
+        });
+        indexedThrough = started;
+        catalogIndex.forgetRemovedBefore(started.minus(tombstoneRetention));
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.tombstone-purge-interval:PT10M}",
+            initialDelayString = "${catalog.tombstone-purge-interval:PT10M}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteExpired(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} product tombstones", purged);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ProductResponse createProduct(ProductRequest request, Long sellerId, Role role) {
+        if (role != Role.SELLER) {
+            throw new AccessDeniedException("Only sellers can list products");
+        }
+        Instant now = Instant.now();
+        Product product = Product.builder()
+                .sellerId(sellerId)
+                .createdAt(now)
+                .build();
+        apply(product, request, now);
+        product = productRepository.save(product);
+        reindexAfterCommit(product);
+        return toResponse(product);
+    }
+
+    @Override
+    @Transactional
+    public ProductResponse updateProduct(Long id, ProductRequest request, Long actorId, Role role) {
+        Product product = getOwnedProduct(id, actorId, role);
+        apply(product, request, Instant.now());
+        product = productRepository.saveAndFlush(product);
+        reindexAfterCommit(product);
+        return toResponse(product);
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id, Long actorId, Role role) {
+        Product product = getOwnedProduct(id, actorId, role);
+        productRepository.delete(product);
+        tombstoneRepository.save(new ProductTombstone(id, Instant.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogIndex.remove(id);
+            }
+        });
+    }
+
+    @Override
+    public ProductResponse findById(Long id) {
+        return toResponse(getProduct(id));
+    }
+
+    @Override
+    public CatalogSearchResponse search(String text, String category, Long sellerId, Integer priceBand,
+                                        int offset, int limit) {
+        CatalogResult result = catalogIndex.search(new CatalogQuery(text, category, sellerId, priceBand,
+                Math.max(0, offset), Math.min(Math.max(1, limit), maxPageSize)));
+        return CatalogSearchResponse.builder()
+                .total(result.total())
+                .items(result.hits().stream().map(this::toResponse).toList())
+                .categories(result.categories())
+                .priceBands(result.priceBands())
+                .build();
+    }
+
+    private void indexAll(Stream<Product> products) {
+        List<ProductDocument> chunk = new ArrayList<>(1000);
+        for (Product product : (Iterable<Product>) products::iterator) {
+            chunk.add(toDocument(product));
+            if (chunk.size() == 1000) {
+                catalogIndex.indexAll(chunk);
+                chunk.clear();
+            }
+        }
+        catalogIndex.indexAll(chunk);
+    }
+
+    private void reindexAfterCommit(Product product) {
+        ProductDocument document = toDocument(product);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogIndex.index(document);
+            }
+        });
+    }
+
+    private void apply(Product product, ProductRequest request, Instant now) {
+        checkSkuOwner(request.getSku(), product.getSellerId());
+        product.setSku(request.getSku());
+        product.setTitle(request.getTitle());
+        product.setDescription(request.getDescription());
+        product.setCategory(request.getCategory().trim());
+        product.setPrice(request.getPrice());
+        product.setUpdatedAt(now);
+    }
+
+    // Checkout sells the SKU's stock and pays the product's seller, so both must be the same seller
+    private void checkSkuOwner(String sku, Long sellerId) {
+        if (sku == null) {
+            return;
+        }
+        Long owner = inventoryItemRepository.findSellerIdBySku(sku)
+                .orElseThrow(() -> new InvalidRequestException("Unknown SKU: " + sku));
+        if (!owner.equals(sellerId)) {
+            throw new InvalidRequestException("SKU " + sku + " belongs to another seller");
+        }
+    }
+
+    private Product getProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+    }
+
+    private Product getOwnedProduct(Long id, Long actorId, Role role) {
+        Product product = getProduct(id);
+        if (role != Role.ADMIN && !product.getSellerId().equals(actorId)) {
+            throw new AccessDeniedException("Not the seller of product " + id);
+        }
+        return product;
+    }
+
+    private ProductDocument toDocument(Product product) {
+        return new ProductDocument(product.getId(), product.getVersion() == null ? 0 : product.getVersion(),
+                product.getSellerId(), product.getSku(), product.getTitle(), product.getDescription(),
+                product.getCategory(), product.getPrice());
+    }
+
+    private ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .sellerId(product.getSellerId())
+                .sku(product.getSku())
+                .title(product.getTitle())
+                .description(product.getDescription())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .build();
+    }
+
+    private ProductResponse toResponse(CatalogHit hit) {
+        return ProductResponse.builder()
+                .id(hit.productId())
+                .sellerId(hit.sellerId())
+                .sku(hit.sku())
+                .title(hit.title())
+                .category(hit.category())
+                .price(hit.price())
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.service.UserExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String CSV_HEADER = "id,name,email,role\n";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+    private final int flushEvery;
+
+    public UserExportServiceImpl(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${user.export.flush-every:1000}") int flushEvery) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rowWriter = objectMapper.writerFor(UserResponse.class);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Streams every user through a forward-only cursor. The rows are DTO projections,
+     * so nothing accumulates in the persistence context; periodic flushes push bytes
+     * to the client as soon as the first rows are read.
+     */
+    @Override
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        writer.flush();
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserResponse> users = userRepository.streamAllResponses()) {
+                    long written = 0;
+                    for (Iterator<UserResponse> it = users.iterator(); it.hasNext(); ) {
+                        writeRow(writer, format, it.next());
+                        if (++written % flushEvery == 0) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, Format format, UserResponse user) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(rowWriter.writeValueAsString(user));
+        } else {
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writeCsvField(writer, user.getName());
+            writer.write(',');
+            writeCsvField(writer, user.getEmail());
+            writer.write(',');
+            writer.write(user.getRole() != null ? user.getRole().name() : "");
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.dto.UserImportRequest;
+import com.example.escrow.e_com.dto.UserImportStatus;
+import com.example.escrow.e_com.entity.UserImportCheckpoint;
+import com.example.escrow.e_com.exception.UserImportException;
+import com.example.escrow.e_com.importer.LegacyUserRecord;
+import com.example.escrow.e_com.importer.UserImportJob;
+import com.example.escrow.e_com.repository.UserImportCheckpointRepository;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
+import com.example.escrow.e_com.service.UserImportService;
+import com.example.escrow.e_com.validation.UserValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserImportCheckpointRepository checkpointRepository;
+    private final DataSource dataSource;
+    private final UserValidator userValidator;
+    private final PasswordHashingExecutor passwordHashing;
+    private final ObjectReader recordReader;
+    private final Path baseDir;
+    private final int batchSize;
+    private final int maxConcurrentJobs;
+
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public UserImportServiceImpl(UserImportCheckpointRepository checkpointRepository,
+                                 DataSource dataSource,
+                                 UserValidator userValidator,
+                                 PasswordHashingExecutor passwordHashing,
+                                 ObjectMapper objectMapper,
+                                 @Value("${user.import.base-dir:./imports}") String baseDir,
+                                 @Value("${user.import.batch-size:5000}") int batchSize,
+                                 @Value("${user.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.checkpointRepository = checkpointRepository;
+        this.dataSource = dataSource;
+        this.userValidator = userValidator;
+        this.passwordHashing = passwordHashing;
+        this.recordReader = objectMapper.readerFor(LegacyUserRecord.class);
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+        this.batchSize = batchSize;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+
+        // Each job uses two threads: the COPY writer and its reader stage
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs * 2, r -> {
+            Thread t = new Thread(r, "user-import-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public synchronized UserImportStatus startImport(UserImportRequest request) {
+        Path source = baseDir.resolve(request.getPath()).normalize();
+        if (!source.startsWith(baseDir)) {
+            throw new UserImportException("Import path must stay inside " + baseDir);
+        }
+        if (!Files.isReadable(source)) {
+            throw new UserImportException("Import file not found: " + request.getPath());
+        }
+        String jobId = request.getJobId() != null ? request.getJobId() : UUID.randomUUID().toString();
+        UserImportJob running = jobs.get(jobId);
+        if (running != null && running.isRunning()) {
+            return running.status();
+        }
+        if (jobs.values().stream().filter(UserImportJob::isRunning).count() >= maxConcurrentJobs) {
+            throw new UserImportException("Too many imports running, retry later");
+        }
+
+        Optional<UserImportCheckpoint> checkpoint = checkpointRepository.findById(jobId);
+        if (checkpoint.isPresent()) {
+            UserImportCheckpoint previous = checkpoint.get();
+            if (!previous.getSourcePath().equals(source.toString())) {
+                throw new UserImportException("Job " + jobId + " was started for a different file");
+            }
+            if (previous.getState() == UserImportStatus.State.COMPLETED) {
+                return toStatus(previous);
+            }
+        }
+
+        UserImportJob job = new UserImportJob(jobId, source, request.getFormat(), request.isHashPlainPasswords(),
+                batchSize, dataSource, userValidator, passwordHashing, recordReader, executor,
+                checkpoint.map(UserImportCheckpoint::getLinesCommitted).orElse(0L),
+                checkpoint.map(UserImportCheckpoint::getRowsImported).orElse(0L),
+                checkpoint.map(UserImportCheckpoint::getRowsDuplicate).orElse(0L),
+                checkpoint.map(UserImportCheckpoint::getRowsRejected).orElse(0L));
+        jobs.put(jobId, job);
+        executor.submit(job);
+        return job.status();
+    }
+
+    @Override
+    public UserImportStatus getStatus(String jobId) {
+        UserImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.status();
+        }
+        return checkpointRepository.findById(jobId)
+                .map(this::toStatus)
+                .orElseThrow(() -> new UserImportException("Unknown import job: " + jobId));
+    }
+
+    private UserImportStatus toStatus(UserImportCheckpoint checkpoint) {
+        return UserImportStatus.builder()
+                .jobId(checkpoint.getJobId())
+                .path(checkpoint.getSourcePath())
+                .state(checkpoint.getState())
+                .linesCommitted(checkpoint.getLinesCommitted())
+                .rowsImported(checkpoint.getRowsImported())
+                .rowsDuplicate(checkpoint.getRowsDuplicate())
+                .rowsRejected(checkpoint.getRowsRejected())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .error(checkpoint.getError())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
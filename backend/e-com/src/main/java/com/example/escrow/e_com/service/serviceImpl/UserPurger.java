@@ -0,0 +1,119 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.service.UserPurgeStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Background purge of soft-deleted users. A chunk of users is claimed in one short
+ * transaction; each purge step then removes their dependent rows in batches of at most
+ * batch-size, every batch in its own transaction with a pause in between, and only then
+ * are the user rows anonymized. A seller with many products therefore never turns into
+ * one long transaction or a burst of lock contention. Claims are taken with SKIP LOCKED
+ * and last for claim-lease, so several nodes can purge side by side and a chunk left
+ * half done by a node that went away is picked up again once its claim lapses.
+ */
+@Component
+public class UserPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPurger.class);
+
+    private final UserRepository userRepository;
+    private final ObjectProvider<UserPurgeStep> purgeSteps;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration pauseBetweenChunks;
+    private final int batchSize;
+    private final Duration claimLease;
+
+    public UserPurger(UserRepository userRepository,
+                      ObjectProvider<UserPurgeStep> purgeSteps,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${user.purge.grace-period:P1D}") Duration gracePeriod,
+                      @Value("${user.purge.chunk-size:100}") int chunkSize,
+                      @Value("${user.purge.max-chunks-per-run:50}") int maxChunksPerRun,
+                      @Value("${user.purge.pause-between-chunks:PT0.2S}") Duration pauseBetweenChunks,
+                      @Value("${user.purge.batch-size:500}") int batchSize,
+                      @Value("${user.purge.claim-lease:PT10M}") Duration claimLease) {
+        this.userRepository = userRepository;
+        this.purgeSteps = purgeSteps;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriod = gracePeriod;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+        this.batchSize = batchSize;
+        this.claimLease = claimLease;
+    }
+
+    @Scheduled(fixedDelayString = "${user.purge.interval:PT1M}", initialDelayString = "${user.purge.interval:PT1M}")
+    public void purgeDeletedUsers() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        int purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = transactionTemplate.execute(status -> claimChunk(cutoff));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            // Interrupted mid-chunk: the claim lapses and the chunk is finished later
+            if (!purgeDependents(ids)) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> userRepository.anonymize(ids));
+            purged += count == null ? 0 : count;
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} deleted users", purged);
+        }
+    }
+
+    private List<Long> claimChunk(Instant cutoff) {
+        Instant now = Instant.now();
+        List<Long> ids = userRepository.lockPurgeCandidates(cutoff, now, chunkSize);
+        if (!ids.isEmpty()) {
+            userRepository.claimForPurge(ids, now.plus(claimLease));
+        }
+        return ids;
+    }
+
+    private boolean purgeDependents(List<Long> ids) {
+        for (UserPurgeStep step : purgeSteps.orderedStream().toList()) {
+            while (true) {
+                Integer count = transactionTemplate.execute(status -> step.purge(ids, batchSize));
+                if (count == null || count < batchSize) {
+                    break;
+                }
+                if (!pause()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
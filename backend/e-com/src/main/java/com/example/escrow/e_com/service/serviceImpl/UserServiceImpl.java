@@ -2,77 +2,192 @@ package com.example.escrow.e_com.service.serviceImpl;
 
 import com.example.escrow.e_com.Mapper.UserMapper;
 import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.audit.AuditAction;
+import com.example.escrow.e_com.audit.AuditLog;
+import com.example.escrow.e_com.cache.UserResponseCache;
+import com.example.escrow.e_com.dto.BulkRoleUpdateResponse;
 import com.example.escrow.e_com.dto.UpdateRequestDTO;
+import com.example.escrow.e_com.dto.UserBatchResponse;
+import com.example.escrow.e_com.dto.UserPage;
 import com.example.escrow.e_com.dto.UserRegisterRequest;
 import com.example.escrow.e_com.dto.UserResponse;
 import com.example.escrow.e_com.entity.User;
 import com.example.escrow.e_com.exception.AlreadyExistsException;
+import com.example.escrow.e_com.exception.BatchLimitExceededException;
+import com.example.escrow.e_com.exception.DataIntegrityErrors;
+import com.example.escrow.e_com.exception.InvalidRequestException;
 import com.example.escrow.e_com.exception.RoleAlreadyAssignedException;
 import com.example.escrow.e_com.exception.UserNotFoundException;
+import com.example.escrow.e_com.outbox.UserEventType;
+import com.example.escrow.e_com.outbox.UserOutbox;
 import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.repository.UserRepository.UpdatedUser;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
 import com.example.escrow.e_com.service.UserService;
 import jakarta.transaction.Transactional;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
+
+    private final UserResponseCache userCache;
+
+    private final UserOutbox userOutbox;
+
+    private final AuditLog auditLog;
+
+    private final int batchLookupLimit;
 
+    private final int defaultPageSize;
 
+    private final int maxPageSize;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final int bulkRoleLimit;
+
+
+
+    public UserServiceImpl(UserRepository userRepository, PasswordHashingExecutor passwordHashing,
+                           UserResponseCache userCache,
+                           UserOutbox userOutbox,
+                           AuditLog auditLog,
+                           @Value("${user.batch.max-size:200}") int batchLookupLimit,
+                           @Value("${user.page.default-size:50}") int defaultPageSize,
+                           @Value("${user.page.max-size:500}") int maxPageSize,
+                           @Value("${user.bulk-role.max-ids:10000}") int bulkRoleLimit) {
         this.userRepository = userRepository;
 
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+
+        this.userCache = userCache;
+
+        this.userOutbox = userOutbox;
+
+        this.auditLog = auditLog;
+
+        this.batchLookupLimit = batchLookupLimit;
+
+        this.defaultPageSize = defaultPageSize;
+
+        this.maxPageSize = maxPageSize;
+
+        this.bulkRoleLimit = bulkRoleLimit;
 
     }
 
-    @Transactional
+    @Transactional(rollbackOn = AlreadyExistsException.class)
     @Override
     public UserResponse registerUser(UserRegisterRequest dto) throws AlreadyExistsException {
 
-
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            throw new AlreadyExistsException("Email already exist");
-        }
-
         User user = UserMapper.toEntity(dto);
+        user.setId(null); // ids are always generated; a client-supplied id would turn the insert into a merge
 
         // Hash the password before saving
-        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+        user.setPassword(passwordHashing.encode(dto.getPassword()));
 
         user.setRole(Role.CUSTOMER); // Default role assignment
 
-        userRepository.save(user);
-        return UserMapper.toResponse(user);
+        // One INSERT; the unique constraint on users.email decides duplicates, even under concurrent signups
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (DataIntegrityErrors.isUniqueViolation(e)) {
+                throw new AlreadyExistsException("Email already exist");
+            }
+            throw e;
+        }
+        UserResponse response = UserMapper.toResponse(user);
+        userOutbox.record(UserEventType.USER_REGISTERED, response);
+        auditLog.record(user.getId(), AuditAction.REGISTRATION, null);
+        return response;
     }
 
     @Override
     public UserResponse authenticateUser(String email, String password) throws UserNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
-            if (!passwordEncoder.matches(password, user.getPassword())) {
+            if (!passwordHashing.matches(password, user.getPassword())) {
+                auditLog.record(user.getId(), AuditAction.LOGIN_FAILURE, null);
                 throw new UserNotFoundException("Invalid password");
             }
+            // Transparently move old hashes to the current algorithm and cost
+            if (passwordHashing.upgradeEncoding(user.getPassword())) {
+                userRepository.updatePassword(user.getId(), user.getPassword(), passwordHashing.encode(password));
+            }
+            auditLog.record(user.getId(), AuditAction.LOGIN_SUCCESS, null);
             return UserMapper.toResponse(user);
     }
 
     @Override
     public UserResponse findByEmail(String email) throws UserNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("Email not found"));
-        return UserMapper.toResponse(user);
+        return userCache.getByEmail(email, key -> userRepository.findResponseByEmail(key)
+                .orElseThrow(() -> new UserNotFoundException("Email not found")));
     }
 
     @Override
     public UserResponse findById(Long id) throws UserNotFoundException {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        return UserMapper.toResponse(user);
+        return userCache.getById(id, key -> userRepository.findResponseById(key)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id)));
+    }
+
+    @Override
+    public UserBatchResponse findBatch(Collection<Long> ids, Collection<String> emails) {
+        Set<Long> uniqueIds = ids == null ? Set.of() : ids.stream()
+                .filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> uniqueEmails = emails == null ? Set.of() : emails.stream()
+                .filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.size() + uniqueEmails.size() > batchLookupLimit) {
+            throw new BatchLimitExceededException("At most " + batchLookupLimit + " ids and emails per request");
+        }
+
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        if (!uniqueIds.isEmpty()) {
+            users.putAll(userCache.getAllById(uniqueIds, missing -> userRepository.findResponsesByIdIn(missing).stream()
+                    .collect(Collectors.toMap(UserResponse::getId, Function.identity()))));
+        }
+        Map<String, UserResponse> byEmail = uniqueEmails.isEmpty() ? Map.of()
+                : userCache.getAllByEmail(uniqueEmails, missing -> userRepository.findResponsesByEmailIn(missing).stream()
+                        .collect(Collectors.toMap(UserResponse::getEmail, Function.identity())));
+        byEmail.values().forEach(user -> users.putIfAbsent(user.getId(), user));
+
+        List<Long> missingIds = uniqueIds.stream().filter(id -> !users.containsKey(id)).toList();
+        List<String> missingEmails = uniqueEmails.stream().filter(email -> !byEmail.containsKey(email)).toList();
+        return UserBatchResponse.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .missingEmails(missingEmails)
+                .build();
+    }
+
+    @Override
+    public UserPage listUsers(Long after, Integer limit, Role role) {
+        long cursor = after != null ? after : 0L;
+        int size = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        List<UserResponse> items = role == null
+                ? userRepository.findPageAfter(cursor, Limit.of(size))
+                : userRepository.findPageByRoleAfter(role, cursor, Limit.of(size));
+
+        Long nextAfter = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return UserPage.builder().items(items).nextAfter(nextAfter).build();
     }
 
     @Override
@@ -83,17 +198,36 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public UserResponse updateUserProfile(Long userId, UpdateRequestDTO dto) throws UserNotFoundException {
-       User updateUser = userRepository.findById(userId)
-               .orElseThrow(() ->  new UserNotFoundException("User not found with id: " + userId));
+       User updateUser = findActiveUser(userId);
+        String previousEmail = updateUser.getEmail();
+        List<String> changed = new ArrayList<>(3);
 
-        if (dto.getName() != null) updateUser.setName(dto.getName());
-        if (dto.getEmail() != null) updateUser.setEmail(dto.getEmail());
-        if (dto.getPassword() != null) updateUser.setPassword(passwordEncoder.encode(dto.getPassword()));
+        if (dto.getName() != null && !dto.getName().equals(updateUser.getName())) {
+            updateUser.setName(dto.getName());
+            changed.add("name");
+        }
+        if (dto.getEmail() != null && !dto.getEmail().equals(updateUser.getEmail())) {
+            updateUser.setEmail(dto.getEmail());
+            changed.add("email");
+        }
+        // Re-submitting the current password must not cost a new hash or an UPDATE
+        if (dto.getPassword() != null && !passwordHashing.matches(dto.getPassword(), updateUser.getPassword())) {
+            updateUser.setPassword(passwordHashing.encode(dto.getPassword()));
+            changed.add("password");
+        }
 
+        if (changed.isEmpty()) {
+            return UserMapper.toResponse(updateUser);
+        }
 
+       // @DynamicUpdate writes only the changed columns; @Version turns a concurrent edit into a 409
        userRepository.save(updateUser);
+       userCache.invalidate(userId, previousEmail, updateUser.getEmail());
 
-       return UserMapper.toResponse(updateUser);
+       UserResponse response = UserMapper.toResponse(updateUser);
+       userOutbox.record(UserEventType.PROFILE_UPDATED, response);
+       auditLog.record(userId, AuditAction.PROFILE_CHANGE, String.join(",", changed));
+       return response;
     }
 
     @Override
@@ -101,15 +235,24 @@ public class UserServiceImpl implements UserService {
         return user != null && user.getRole().equals(role);
     }
 
+    @Override
+    public boolean hasRole(UserResponse user, Role role) {
+        return user != null && user.getRole() == role;
+    }
+
     @Transactional
     @Override
     public UserResponse updateUserRole(Long userId, Role newRole) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        User user = findActiveUser(userId);
 
 
         if (!user.getRole().equals(newRole)) {
+            Role previousRole = user.getRole();
             user.setRole(newRole);
             userRepository.save(user);
+            userCache.invalidate(userId, user.getEmail());
+            userOutbox.record(UserEventType.ROLE_CHANGED, UserMapper.toResponse(user));
+            auditLog.record(userId, AuditAction.ROLE_CHANGE, previousRole + "->" + newRole);
         } else {
             throw new RoleAlreadyAssignedException("Role Already assign ");
         }
@@ -117,8 +260,74 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toResponse(user);
     }
 
+    // One UPDATE ... RETURNING instead of a select + update per user; a role filter is applied bulkRoleLimit users at a time
+    @Transactional
+    @Override
+    public BulkRoleUpdateResponse updateUserRoles(Collection<Long> userIds, Role fromRole, Role newRole) {
+        boolean byIds = userIds != null && !userIds.isEmpty();
+        if (byIds == (fromRole != null)) {
+            throw new InvalidRequestException("Provide either ids or fromRole");
+        }
+        if (fromRole == newRole) {
+            throw new RoleAlreadyAssignedException("Role Already assign ");
+        }
+
+        Set<Long> requested = byIds ? new LinkedHashSet<>(userIds) : Set.of();
+        if (requested.size() > bulkRoleLimit) {
+            throw new BatchLimitExceededException("At most " + bulkRoleLimit + " ids per request");
+        }
+        List<UpdatedUser> changed = byIds
+                ? userRepository.updateRoleByIds(requested, newRole.name())
+                : userRepository.updateRoleByRole(fromRole.name(), newRole.name(), bulkRoleLimit);
+
+        List<Long> updatedIds = new ArrayList<>(changed.size());
+        List<String> emails = new ArrayList<>(changed.size());
+        List<UserResponse> updatedUsers = new ArrayList<>(changed.size());
+        for (UpdatedUser row : changed) {
+            updatedIds.add(row.getId());
+            emails.add(row.getEmail());
+            updatedUsers.add(new UserResponse(row.getId(), row.getName(), row.getEmail(), Role.valueOf(row.getRole())));
+        }
+        userCache.invalidateAll(updatedIds, emails);
+        userOutbox.recordAll(UserEventType.ROLE_CHANGED, updatedUsers);
+        auditLog.recordAll(updatedIds, AuditAction.ROLE_CHANGE, (fromRole != null ? fromRole : "") + "->" + newRole);
+
+        List<Long> alreadyAssigned = List.of();
+        List<Long> missing = List.of();
+        if (byIds) {
+            Set<Long> unchanged = new LinkedHashSet<>(requested);
+            updatedIds.forEach(unchanged::remove);
+            Set<Long> existing = unchanged.isEmpty() ? Set.of() : Set.copyOf(userRepository.findExistingIds(unchanged));
+            alreadyAssigned = unchanged.stream().filter(existing::contains).toList();
+            missing = unchanged.stream().filter(id -> !existing.contains(id)).toList();
+        }
+
+        return BulkRoleUpdateResponse.builder()
+                .role(newRole)
+                .updated(updatedIds.size())
+                .updatedIds(updatedIds)
+                .alreadyAssignedIds(alreadyAssigned)
+                .missingIds(missing)
+                .more(!byIds && changed.size() == bulkRoleLimit)
+                .build();
+    }
+
+    // O(1): flags the row; dependent data is purged asynchronously by UserPurger
+    @Transactional
     @Override
     public void deleteUser(Long id) {
-        userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        UserResponse user = findById(id);
+        if (userRepository.softDelete(id, Instant.now()) == 0) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        userCache.invalidate(id, user.getEmail());
+        userOutbox.record(UserEventType.USER_DELETED, user);
+        auditLog.record(id, AuditAction.DELETION, null);
+    }
+
+    private User findActiveUser(Long id) {
+        return userRepository.findById(id)
+                .filter(user -> user.getDeletedAt() == null)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
 }
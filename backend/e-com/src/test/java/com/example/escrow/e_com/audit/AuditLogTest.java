@@ -0,0 +1,114 @@
+package com.example.escrow.e_com.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    private AuditLog open(int segmentBytes, Duration retention) {
+        AuditLog log = new AuditLog(dir.toString(), segmentBytes, 4, Duration.ofHours(1), retention, Duration.ofMillis(5));
+        log.open();
+        return log;
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void queriesByUserAndTimeRange() throws Exception {
+        AuditLog log = open(1 << 16, Duration.ofDays(1));
+        log.append(1, AuditAction.REGISTRATION, null);
+        log.append(2, AuditAction.REGISTRATION, null);
+        Thread.sleep(5);
+        Instant middle = Instant.now();
+        Thread.sleep(5);
+        log.append(1, AuditAction.LOGIN_SUCCESS, null);
+        log.append(1, AuditAction.ROLE_CHANGE, "CUSTOMER->ADMIN");
+
+        List<AuditRecord> all = log.query(1, null, null, 100);
+        assertEquals(List.of(AuditAction.REGISTRATION, AuditAction.LOGIN_SUCCESS, AuditAction.ROLE_CHANGE),
+                all.stream().map(AuditRecord::getAction).toList());
+        assertNull(all.get(0).getDetail());
+        assertEquals("CUSTOMER->ADMIN", all.get(2).getDetail());
+
+        List<AuditRecord> later = log.query(1, middle, null, 100);
+        assertEquals(2, later.size());
+        assertEquals(1, log.query(1, null, null, 1).size());
+        assertTrue(log.query(3, null, null, 100).isEmpty());
+        log.close();
+    }
+
+    @Test
+    void rollsIntoNewSegmentsAndSealsOldOnes() throws Exception {
+        AuditLog log = open(512, Duration.ofDays(1));
+        for (int i = 0; i < 100; i++) {
+            log.append(i % 5, AuditAction.LOGIN_SUCCESS, "attempt " + i);
+        }
+        log.maintain();
+        assertTrue(segmentFiles() > 3);
+
+        List<AuditRecord> user3 = log.query(3, null, null, 1000);
+        assertEquals(20, user3.size());
+        assertEquals("attempt 3", user3.get(0).getDetail());
+        assertEquals("attempt 98", user3.get(19).getDetail());
+        log.close();
+    }
+
+    @Test
+    void recoversAfterRestartAndDropsTornTail() throws Exception {
+        AuditLog log = open(1 << 16, Duration.ofDays(1));
+        log.append(7, AuditAction.REGISTRATION, "x");
+        log.append(7, AuditAction.LOGIN_SUCCESS, "x");
+        log.append(7, AuditAction.LOGIN_FAILURE, "x");
+        log.close();
+
+        // Corrupt the CRC of the third record (each frame is 8 + 17 + 1 bytes)
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.sorted().findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(2 * 26 + 4);
+            file.writeInt(0xDEADBEEF);
+        }
+
+        AuditLog reopened = open(1 << 16, Duration.ofDays(1));
+        assertEquals(List.of(AuditAction.REGISTRATION, AuditAction.LOGIN_SUCCESS),
+                reopened.query(7, null, null, 100).stream().map(AuditRecord::getAction).toList());
+
+        reopened.append(7, AuditAction.DELETION, null);
+        assertEquals(AuditAction.DELETION, reopened.query(7, null, null, 100).get(2).getAction());
+        reopened.close();
+    }
+
+    @Test
+    void dropsSealedSegmentsPastRetention() throws Exception {
+        AuditLog log = open(512, Duration.ZERO);
+        for (int i = 0; i < 50; i++) {
+            log.append(1, AuditAction.LOGIN_SUCCESS, "attempt " + i);
+        }
+        Thread.sleep(5);
+        log.maintain();
+
+        List<AuditRecord> remaining = log.query(1, null, null, 1000);
+        assertTrue(remaining.size() < 50);
+        assertEquals("attempt 49", remaining.get(remaining.size() - 1).getDetail());
+        log.close();
+    }
+}
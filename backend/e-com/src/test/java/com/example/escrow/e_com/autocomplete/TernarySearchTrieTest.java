@@ -0,0 +1,86 @@
+package com.example.escrow.e_com.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TernarySearchTrieTest {
+
+    @Test
+    void completesByWeightAcrossWordStarts() {
+        TernarySearchTrie trie = TernarySearchTrie.build(List.of(
+                product("Red Wool Scarf", 3),
+                product("Wool Yarn", 5),
+                product("Wooden Spoon", 1),
+                seller("Woolly Crafts", 42L, 2)), 10);
+
+        assertEquals(List.of("Wool Yarn", "Red Wool Scarf", "Woolly Crafts", "Wooden Spoon"), texts(trie.complete("woo", 10)));
+        assertEquals(List.of("Wool Yarn", "Red Wool Scarf"), texts(trie.complete("  WOOL  ", 2)));
+        assertEquals(List.of("Red Wool Scarf"), texts(trie.complete("red   wool s", 10)));
+        assertEquals(List.of("Red Wool Scarf"), texts(trie.complete("sc", 10)));
+        assertEquals(new Suggestion("Woolly Crafts", SuggestionKind.SELLER, 42L), trie.complete("crafts", 10).get(0));
+        assertTrue(trie.complete("wok", 10).isEmpty());
+        assertTrue(trie.complete("", 10).isEmpty());
+        assertTrue(TernarySearchTrie.empty().complete("a", 10).isEmpty());
+    }
+
+    @Test
+    void repeatedLookupsReturnTheSharedList() {
+        TernarySearchTrie trie = TernarySearchTrie.build(List.of(product("lamp", 1), product("lantern", 2)), 10);
+
+        assertSame(trie.complete("la", 10), trie.complete("LA", 10));
+    }
+
+    @Test
+    void matchesBruteForceTopK() {
+        Random random = new Random(7);
+        List<WeightedSuggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 1 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                int length = 2 + random.nextInt(5);
+                for (int c = 0; c < length; c++) {
+                    text.append((char) ('a' + random.nextInt(4)));
+                }
+            }
+            suggestions.add(product(text + " " + i, random.nextInt(100)));
+        }
+        TernarySearchTrie trie = TernarySearchTrie.build(suggestions, 10);
+
+        Comparator<WeightedSuggestion> rank = Comparator.comparingLong(WeightedSuggestion::weight).reversed()
+                .thenComparingInt(s -> s.suggestion().text().length())
+                .thenComparing(s -> s.suggestion().text());
+        for (String prefix : List.of("a", "ab", "bca", "d", "cc d", "dd", "abcd")) {
+            List<String> expected = suggestions.stream()
+                    .filter(s -> TernarySearchTrie.keys(s.suggestion().text()).stream()
+                            .anyMatch(key -> key.startsWith(prefix.toLowerCase(Locale.ROOT))))
+                    .sorted(rank)
+                    .limit(10)
+                    .map(s -> s.suggestion().text())
+                    .toList();
+            assertEquals(expected, texts(trie.complete(prefix, 10)), prefix);
+        }
+    }
+
+    private static WeightedSuggestion product(String title, long weight) {
+        return new WeightedSuggestion(new Suggestion(title, SuggestionKind.PRODUCT, null), weight);
+    }
+
+    private static WeightedSuggestion seller(String name, Long id, long weight) {
+        return new WeightedSuggestion(new Suggestion(name, SuggestionKind.SELLER, id), weight);
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.escrow.e_com.cache;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserResponseCacheTest {
+
+    private final UserResponseCache cache = new UserResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    private static UserResponse user(long id, String name) {
+        return new UserResponse(id, name, "user" + id + "@example.com", Role.CUSTOMER);
+    }
+
+    @Test
+    void servesRepeatReadsFromTheCacheUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, id -> { loads.incrementAndGet(); return user(id, "Old"); });
+        cache.getById(1L, id -> { loads.incrementAndGet(); return user(id, "Old"); });
+        assertEquals(1, loads.get());
+
+        cache.invalidate(1L, "user1@example.com");
+
+        assertEquals("New", cache.getById(1L, id -> user(id, "New")).getName());
+    }
+
+    @Test
+    void bulkLoadsOnlyAskForMissesAndCacheWhatWasFound() {
+        cache.getById(1L, id -> user(id, "Cached"));
+
+        Map<Long, UserResponse> users = cache.getAllById(List.of(1L, 2L, 3L), missing -> {
+            assertEquals(Set.of(2L, 3L), missing);
+            return Map.of(2L, user(2L, "Loaded"));
+        });
+
+        assertEquals("Cached", users.get(1L).getName());
+        assertEquals("Loaded", users.get(2L).getName());
+        assertFalse(users.containsKey(3L));
+        assertEquals("Loaded", cache.getById(2L, id -> fail("should be cached")).getName());
+    }
+
+    @Test
+    void bulkLoadRacingAnInvalidationDoesNotCacheTheStaleRow() {
+        Map<Long, UserResponse> users = cache.getAllById(List.of(1L), missing -> {
+            // A writer commits and invalidates after this load read the old row
+            cache.invalidate(1L, "user1@example.com");
+            return Map.of(1L, user(1L, "Stale"));
+        });
+
+        assertEquals("Stale", users.get(1L).getName());
+        assertEquals("Fresh", cache.getById(1L, id -> user(id, "Fresh")).getName());
+    }
+}
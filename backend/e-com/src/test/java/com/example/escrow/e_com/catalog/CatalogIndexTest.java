@@ -0,0 +1,118 @@
+package com.example.escrow.e_com.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogIndexTest {
+
+    private final CatalogIndex index = new CatalogIndex(new long[]{1000, 5000});
+
+    @Test
+    void postingListRoundTripsLargeGaps() {
+        PostingList postings = new PostingList();
+        int[] docs = {0, 1, 127, 128, 16_511, 2_000_000, Integer.MAX_VALUE - 1};
+        for (int doc : docs) {
+            postings.add(doc);
+        }
+        assertThrows(IllegalArgumentException.class, () -> postings.add(5));
+
+        PostingList.Cursor cursor = postings.cursor();
+        for (int doc : docs) {
+            assertEquals(doc, cursor.next());
+        }
+        assertEquals(PostingList.Cursor.NO_MORE, cursor.next());
+        assertEquals(127, postings.cursor().advance(100));
+        assertEquals(2_000_000, postings.cursor().advance(16_512));
+    }
+
+    @Test
+    void searchesTextWithFacetsNewestFirst() {
+        index.index(product(1, 0, 10L, "Red Wool Scarf", "Warm winter scarf", "Clothing", 2500));
+        index.index(product(2, 0, 10L, "Blue wool hat", null, "Clothing", 900));
+        index.index(product(3, 0, 20L, "Wool yarn", "For knitting a scarf", "Crafts", 700));
+
+        CatalogResult wool = index.search(new CatalogQuery("WOOL", null, null, null, 0, 10));
+        assertEquals(3, wool.total());
+        assertEquals(List.of(3L, 2L, 1L), ids(wool));
+        assertEquals(Map.of("Clothing", 2, "Crafts", 1), wool.categories());
+        assertEquals(Map.of("0-999", 2, "1000-4999", 1), wool.priceBands());
+
+        assertEquals(List.of(3L, 1L), ids(index.search(new CatalogQuery("wool scarf", null, null, null, 0, 10))));
+        assertEquals(List.of(1L), ids(index.search(new CatalogQuery("scarf", "clothing", null, null, 0, 10))));
+        assertEquals(List.of(3L), ids(index.search(new CatalogQuery("wool", null, 20L, 0, 0, 10))));
+        assertEquals(List.of(2L), ids(index.search(new CatalogQuery(null, null, 10L, 0, 0, 10))));
+        assertEquals(0, index.search(new CatalogQuery("wool silk", null, null, null, 0, 10)).total());
+
+        CatalogResult page = index.search(new CatalogQuery("wool", null, null, null, 1, 1));
+        assertEquals(3, page.total());
+        assertEquals(List.of(2L), ids(page));
+    }
+
+    @Test
+    void updatesReplaceAndStaleVersionsAreIgnored() {
+        index.index(product(1, 0, 10L, "Leather wallet", null, "Accessories", 3000));
+        index.index(product(1, 2, 10L, "Canvas wallet", null, "Accessories", 1500));
+        index.index(product(1, 1, 10L, "Leather wallet", null, "Accessories", 3000));
+
+        assertEquals(0, index.search(new CatalogQuery("leather", null, null, null, 0, 10)).total());
+        assertEquals(List.of(1L), ids(index.search(new CatalogQuery("canvas", null, null, null, 0, 10))));
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertEquals(0, index.search(new CatalogQuery("wallet", null, null, null, 0, 10)).total());
+        assertEquals(0, index.search(new CatalogQuery(null, "accessories", null, null, 0, 10)).total());
+    }
+
+    @Test
+    void compactionKeepsLiveProductsSearchable() {
+        List<ProductDocument> batch = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            batch.add(product(id, 0, id % 7, "Item " + id + " lamp", null, "Home", id));
+        }
+        index.indexAll(batch);
+        for (long id = 1; id <= 1500; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(500, index.size());
+        CatalogResult lamps = index.search(new CatalogQuery("lamp", null, null, null, 0, 3));
+        assertEquals(500, lamps.total());
+        assertEquals(List.of(2000L, 1999L, 1998L), ids(lamps));
+        assertEquals(List.of(1777L), ids(index.search(new CatalogQuery("1777", "HOME", 1777L % 7, 1, 0, 10))));
+    }
+
+    @Test
+    void updateArrivingAfterTheDeleteStaysDeleted() {
+        index.index(product(1, 1, 10L, "Leather wallet", null, "Accessories", 3000));
+        index.remove(1L);
+
+        index.index(product(1, 2, 10L, "Leather wallet", "Now in brown", "Accessories", 3200));
+        assertEquals(0, index.size());
+        assertEquals(0, index.search(new CatalogQuery("wallet", null, null, null, 0, 10)).total());
+
+        index.forgetRemovedBefore(Instant.now().plusSeconds(1));
+        index.index(product(1, 2, 10L, "Leather wallet", "Now in brown", "Accessories", 3200));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void tokenizerLowercasesAndDropsShortTerms() {
+        assertEquals(Set.of("usb", "c0", "cable", "2m"), CatalogIndex.tokenize("USB-C0 cable, 2m (x)"));
+    }
+
+    private static ProductDocument product(long id, long version, Long sellerId, String title, String description,
+                                           String category, long price) {
+        return new ProductDocument(id, version, sellerId, "SKU-" + id, title, description, category, price);
+    }
+
+    private static List<Long> ids(CatalogResult result) {
+        return result.hits().stream().map(CatalogHit::productId).toList();
+    }
+}
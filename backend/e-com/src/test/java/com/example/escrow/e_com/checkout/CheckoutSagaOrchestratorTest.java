@@ -0,0 +1,249 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.entity.CheckoutSagaStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutSagaOrchestratorTest {
+
+    private final InMemorySagaStore store = new InMemorySagaStore();
+    private final RecordingSteps steps = new RecordingSteps();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CheckoutSagaOrchestrator orchestrator = new CheckoutSagaOrchestrator(store, steps, meterRegistry,
+            Duration.ofSeconds(5), Duration.ofMinutes(5), 8);
+
+    @AfterEach
+    void stop() {
+        orchestrator.stop();
+    }
+
+    @Test
+    void runsTheStepsOfAPhaseConcurrently() {
+        // Each validation step waits for all four to have started; run one by one, none would finish
+        CountDownLatch started = new CountDownLatch(4);
+        for (SagaStep step : SagaStep.values()) {
+            if (step.phase() == 1) {
+                steps.on(step, (saga, results) -> {
+                    started.countDown();
+                    await(started);
+                    return step == SagaStep.COMPUTE_FEES ? "250" : step.name();
+                });
+            }
+        }
+
+        CheckoutSaga saga = orchestrator.run(newSaga(SagaStatus.STARTED));
+
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        assertEquals(250L, saga.getFee());
+        assertEquals(SagaStep.values().length, store.steps(saga.getId()).size());
+        assertEquals(SagaStep.values().length, meterRegistry.find("checkout.saga.step").timers().size());
+    }
+
+    @Test
+    void compensatesCompletedStepsNewestFirstWhenAStepFails() {
+        steps.on(SagaStep.FUND_ESCROW, (saga, results) -> {
+            throw new IllegalStateException("card declined");
+        });
+
+        CheckoutSaga saga = orchestrator.run(newSaga(SagaStatus.STARTED));
+
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertEquals("card declined", saga.getFailureReason());
+        assertFalse(steps.compensated.containsKey(SagaStep.FUND_ESCROW));
+        // Phase 2 finished after phase 1, so it is undone first
+        List<SagaStep> order = new ArrayList<>(steps.compensationOrder);
+        assertTrue(order.indexOf(SagaStep.CHARGE_PAYMENT) < order.indexOf(SagaStep.RESERVE_INVENTORY));
+        assertTrue(order.indexOf(SagaStep.CREATE_ESCROW) < order.indexOf(SagaStep.VALIDATE_BUYER));
+        assertEquals("CREATE_ESCROW", steps.compensated.get(SagaStep.CREATE_ESCROW));
+        for (CheckoutSagaStep step : store.steps(saga.getId())) {
+            StepStatus expected = step.getStep() == SagaStep.FUND_ESCROW ? StepStatus.FAILED : StepStatus.COMPENSATED;
+            assertEquals(expected, step.getStatus(), step.getStep().name());
+        }
+    }
+
+    @Test
+    void compensatesAStepThatFinishesAfterTheSagaFailed() throws Exception {
+        CountDownLatch slowEscrow = new CountDownLatch(1);
+        steps.on(SagaStep.CREATE_ESCROW, (saga, results) -> {
+            await(slowEscrow);
+            return "escrow-1";
+        });
+        steps.on(SagaStep.CHARGE_PAYMENT, (saga, results) -> {
+            throw new IllegalStateException("gateway down");
+        });
+
+        CheckoutSaga saga = orchestrator.run(newSaga(SagaStatus.STARTED));
+        assertEquals(SagaStatus.COMPENSATED, saga.getStatus());
+        assertFalse(steps.compensated.containsKey(SagaStep.CREATE_ESCROW));
+
+        slowEscrow.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!steps.compensated.containsKey(SagaStep.CREATE_ESCROW) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("escrow-1", steps.compensated.get(SagaStep.CREATE_ESCROW));
+        assertFalse(steps.performed.contains(SagaStep.FUND_ESCROW));
+    }
+
+    @Test
+    void resumesAPaidSagaForwardFromItsRecordedSteps() {
+        CheckoutSaga saga = store.save(newSaga(SagaStatus.PAID));
+        saga.setFee(250L);
+        for (SagaStep step : SagaStep.values()) {
+            if (step.phase() < 3) {
+                store.recordStep(completed(saga, step, step.name()));
+            }
+        }
+        steps.on(SagaStep.FUND_ESCROW, (s, results) -> results.get(SagaStep.CREATE_ESCROW));
+
+        orchestrator.resume(saga);
+
+        CheckoutSaga resumed = store.sagas.get(saga.getId());
+        assertEquals(SagaStatus.COMPLETED, resumed.getStatus());
+        assertEquals(List.of(SagaStep.FUND_ESCROW, SagaStep.CONFIRM_RESERVATION),
+                steps.performed.stream().sorted().toList());
+        assertTrue(steps.compensated.isEmpty());
+    }
+
+    @Test
+    void resumesAnUnpaidSagaByCompensatingIt() {
+        CheckoutSaga saga = store.save(newSaga(SagaStatus.STARTED));
+        store.recordStep(completed(saga, SagaStep.RESERVE_INVENTORY, "reservation-1"));
+
+        orchestrator.resume(saga);
+
+        assertEquals(SagaStatus.COMPENSATED, store.sagas.get(saga.getId()).getStatus());
+        assertTrue(steps.performed.isEmpty());
+        assertEquals("reservation-1", steps.compensated.get(SagaStep.RESERVE_INVENTORY));
+        // Phase 1 steps without a record may or may not have run; they are compensated blind
+        assertTrue(steps.compensated.containsKey(SagaStep.VALIDATE_BUYER));
+        assertFalse(steps.compensated.containsKey(SagaStep.CHARGE_PAYMENT));
+    }
+
+    private static CheckoutSaga newSaga(SagaStatus status) {
+        Instant now = Instant.now();
+        return CheckoutSaga.builder()
+                .id(UUID.randomUUID())
+                .buyerId(1L)
+                .sellerId(2L)
+                .productId(3L)
+                .sku("SKU-1")
+                .quantity(1)
+                .amount(10_000)
+                .status(status)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static CheckoutSagaStep completed(CheckoutSaga saga, SagaStep step, String result) {
+        return CheckoutSagaStep.builder()
+                .sagaId(saga.getId())
+                .step(step)
+                .status(StepStatus.COMPLETED)
+                .result(result)
+                .finishedAt(Instant.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for latch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Every step succeeds with its own name (the fee with a number) unless told otherwise
+    private static class RecordingSteps implements SagaSteps {
+
+        final Queue<SagaStep> performed = new ConcurrentLinkedQueue<>();
+        final Queue<SagaStep> compensationOrder = new ConcurrentLinkedQueue<>();
+        // Null results are stored as "" so the map can be concurrent
+        final Map<SagaStep, String> compensated = new ConcurrentHashMap<>();
+        private final Map<SagaStep, BiFunction<CheckoutSaga, Map<SagaStep, String>, String>> behaviour =
+                new ConcurrentHashMap<>();
+
+        void on(SagaStep step, BiFunction<CheckoutSaga, Map<SagaStep, String>, String> perform) {
+            behaviour.put(step, perform);
+        }
+
+        @Override
+        public SagaStepHandler handler(SagaStep step) {
+            return new SagaStepHandler() {
+                @Override
+                public String perform(CheckoutSaga saga, Map<SagaStep, String> results) {
+                    performed.add(step);
+                    BiFunction<CheckoutSaga, Map<SagaStep, String>, String> perform = behaviour.get(step);
+                    if (perform != null) {
+                        return perform.apply(saga, results);
+                    }
+                    return step == SagaStep.COMPUTE_FEES ? "250" : step.name();
+                }
+
+                @Override
+                public void compensate(CheckoutSaga saga, String result) {
+                    compensationOrder.add(step);
+                    compensated.put(step, result == null ? "" : result);
+                }
+            };
+        }
+    }
+
+    private static class InMemorySagaStore implements SagaStore {
+
+        final Map<UUID, CheckoutSaga> sagas = new ConcurrentHashMap<>();
+        private final Queue<CheckoutSagaStep> steps = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public CheckoutSaga save(CheckoutSaga saga) {
+            sagas.put(saga.getId(), saga);
+            return saga;
+        }
+
+        @Override
+        public void recordStep(CheckoutSagaStep step) {
+            steps.add(step);
+        }
+
+        @Override
+        public void markCompensated(UUID sagaId, SagaStep step) {
+            steps.stream()
+                    .filter(row -> row.getSagaId().equals(sagaId) && row.getStep() == step)
+                    .forEach(row -> row.setStatus(StepStatus.COMPENSATED));
+        }
+
+        @Override
+        public List<CheckoutSagaStep> steps(UUID sagaId) {
+            return steps.stream().filter(row -> row.getSagaId().equals(sagaId)).toList();
+        }
+
+        @Override
+        public List<CheckoutSaga> findUnfinished(Instant updatedBefore, int limit) {
+            return sagas.values().stream()
+                    .filter(saga -> !saga.getStatus().isTerminal() && saga.getUpdatedAt().isBefore(updatedBefore))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+}
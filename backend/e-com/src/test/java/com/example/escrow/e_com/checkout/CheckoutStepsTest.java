@@ -0,0 +1,35 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.dto.InventoryResponse;
+import com.example.escrow.e_com.entity.CheckoutSaga;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.service.EscrowService;
+import com.example.escrow.e_com.service.InventoryService;
+import com.example.escrow.e_com.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutStepsTest {
+
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final CheckoutSteps steps = new CheckoutSteps(mock(UserService.class), inventoryService,
+            mock(EscrowService.class), mock(PaymentGateway.class), 250, 50);
+
+    @Test
+    void reservationRefusesStockOfAnotherSeller() {
+        CheckoutSaga saga = CheckoutSaga.builder().id(UUID.randomUUID()).buyerId(1L).sellerId(2L)
+                .sku("SKU-1").quantity(1).amount(1_000).build();
+        when(inventoryService.findBySku("SKU-1"))
+                .thenReturn(InventoryResponse.builder().sku("SKU-1").sellerId(3L).available(10).build());
+
+        assertThrows(InvalidRequestException.class,
+                () -> steps.handler(SagaStep.RESERVE_INVENTORY).perform(saga, Map.of()));
+        verify(inventoryService, never()).reserve(anyString(), anyInt(), anyLong());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.escrow.e_com.checkout;
+
+import com.example.escrow.e_com.ledger.EntryType;
+import com.example.escrow.e_com.repository.JournalEntryRepository;
+import com.example.escrow.e_com.repository.JournalEntryRepository.WalletPosting;
+import com.example.escrow.e_com.service.LedgerService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SimulatedPaymentGatewayTest {
+
+    private static final String REFERENCE = "checkout:42";
+    private static final long BUYER = 7L;
+
+    private final LedgerService ledgerService = mock(LedgerService.class);
+    private final JournalEntryRepository journalEntryRepository = mock(JournalEntryRepository.class);
+
+    private record Posting(Long getEntryId, Long getUserId, long getAmount) implements WalletPosting {
+    }
+
+    private SimulatedPaymentGateway gateway() {
+        return new SimulatedPaymentGateway(ledgerService, journalEntryRepository, Duration.ZERO);
+    }
+
+    @Test
+    void freshGatewayRefundsAChargeSettledBeforeTheRestart() {
+        when(ledgerService.deposit(BUYER, 1_000, REFERENCE)).thenReturn(CompletableFuture.completedFuture(10L));
+        assertEquals("sim-10", gateway().charge(REFERENCE, BUYER, 1_000, 30).join());
+
+        // The deposit is now in the journal; the gateway that made it is gone
+        when(journalEntryRepository.findWalletPostings(REFERENCE, EntryType.DEPOSIT))
+                .thenReturn(List.of(new Posting(10L, BUYER, 1_000)));
+        when(ledgerService.withdraw(BUYER, 1_000, "refund:" + REFERENCE)).thenReturn(CompletableFuture.completedFuture(11L));
+        gateway().refund(REFERENCE).join();
+        verify(ledgerService).withdraw(BUYER, 1_000, "refund:" + REFERENCE);
+
+        when(journalEntryRepository.existsByReferenceAndType("refund:" + REFERENCE, EntryType.WITHDRAWAL)).thenReturn(true);
+        gateway().refund(REFERENCE).join();
+        verify(ledgerService, times(1)).withdraw(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void freshGatewayDoesNotChargeASettledReferenceAgain() {
+        when(journalEntryRepository.findWalletPostings(REFERENCE, EntryType.DEPOSIT))
+                .thenReturn(List.of(new Posting(10L, BUYER, 1_000)));
+
+        assertEquals("sim-10", gateway().charge(REFERENCE, BUYER, 1_000, 30).join());
+        verify(ledgerService, never()).deposit(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void refundOfAChargeThatNeverSettledMovesNothing() {
+        when(ledgerService.deposit(BUYER, 1_000, REFERENCE))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("ledger down")));
+        SimulatedPaymentGateway gateway = gateway();
+        CompletableFuture<String> charge = gateway.charge(REFERENCE, BUYER, 1_000, 30);
+
+        gateway.refund(REFERENCE).join();
+        assertThrows(Exception.class, charge::join);
+        verify(ledgerService, never()).withdraw(anyLong(), anyLong(), anyString());
+    }
+}
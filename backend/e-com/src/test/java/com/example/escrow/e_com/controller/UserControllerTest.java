@@ -0,0 +1,90 @@
+package com.example.escrow.e_com.controller;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserBatchRequest;
+import com.example.escrow.e_com.dto.UserBatchResponse;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.security.JwtPrincipal;
+import com.example.escrow.e_com.security.JwtService;
+import com.example.escrow.e_com.service.BulkUserService;
+import com.example.escrow.e_com.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final UserController controller = new UserController(userService, mock(BulkUserService.class),
+            mock(JwtService.class));
+
+    private final JwtPrincipal buyer = new JwtPrincipal(1L, "buyer@example.com", Role.CUSTOMER);
+    private final JwtPrincipal admin = new JwtPrincipal(9L, "admin@example.com", Role.ADMIN);
+    private final UserResponse self = new UserResponse(1L, "Buyer", "buyer@example.com", Role.CUSTOMER);
+    private final UserResponse seller = new UserResponse(2L, "Seller", "seller@example.com", Role.SELLER);
+
+    @Test
+    void otherUsersGetThePublicView() throws Exception {
+        when(userService.findById(2L)).thenReturn(seller);
+
+        UserResponse seen = controller.getUserById(buyer, 2L).getBody();
+
+        assertEquals(2L, seen.getId());
+        assertEquals("Seller", seen.getName());
+        assertNull(seen.getEmail());
+        assertNull(seen.getRole());
+        assertEquals("{\"id\":2,\"name\":\"Seller\"}", new ObjectMapper().writeValueAsString(seen));
+    }
+
+    @Test
+    void ownerAndAdminGetTheFullAccount() {
+        when(userService.findById(1L)).thenReturn(self);
+        when(userService.findById(2L)).thenReturn(seller);
+
+        assertEquals(self, controller.getUserById(buyer, 1L).getBody());
+        assertEquals(seller, controller.getUserById(admin, 2L).getBody());
+    }
+
+    @Test
+    void batchForANonAdminIsPublicExceptForTheCaller() {
+        Map<Long, UserResponse> found = new LinkedHashMap<>();
+        found.put(1L, self);
+        found.put(2L, seller);
+        when(userService.findBatch(List.of(1L, 2L, 3L), List.of())).thenReturn(UserBatchResponse.builder()
+                .users(found).missingIds(List.of(3L)).missingEmails(List.of()).build());
+        UserBatchRequest request = new UserBatchRequest();
+        request.setIds(List.of(1L, 2L, 3L));
+
+        UserBatchResponse batch = controller.getUsers(buyer, request).getBody();
+
+        assertEquals(self, batch.getUsers().get(1L));
+        assertEquals(seller.publicView(), batch.getUsers().get(2L));
+        assertEquals(List.of(3L), batch.getMissingIds());
+    }
+
+    @Test
+    void onlyAdminsMayLookUpByEmail() {
+        UserBatchRequest request = new UserBatchRequest();
+        request.setEmails(List.of("seller@example.com"));
+        when(userService.findBatch(any(), any())).thenReturn(UserBatchResponse.builder()
+                .users(Map.of(2L, seller)).missingIds(List.of()).missingEmails(List.of()).build());
+
+        assertThrows(AccessDeniedException.class, () -> controller.getUsers(buyer, request));
+        assertEquals(seller, controller.getUsers(admin, request).getBody().getUsers().get(2L));
+        verify(userService, times(1)).findBatch(any(), any());
+    }
+
+    @Test
+    void changesStayOwnerOrAdminOnly() {
+        assertThrows(AccessDeniedException.class, () -> controller.deleteUser(buyer, 2L));
+        verify(userService, never()).deleteUser(anyLong());
+    }
+}
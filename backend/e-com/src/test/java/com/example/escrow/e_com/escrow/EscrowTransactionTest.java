@@ -0,0 +1,73 @@
+package com.example.escrow.e_com.escrow;
+
+import com.example.escrow.e_com.entity.EscrowEvent;
+import com.example.escrow.e_com.exception.IllegalEscrowTransitionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscrowTransactionTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    private List<EscrowEvent> history(EscrowEventType... types) {
+        List<EscrowEvent> events = new ArrayList<>();
+        events.add(EscrowTransaction.creationEvent(id, 1, 2, 5_000, Instant.now()));
+        EscrowTransaction tx = EscrowTransaction.replay(id, null, events);
+        for (EscrowEventType type : types) {
+            EscrowEvent event = tx.next(type, 1L, null, Instant.now());
+            tx.apply(event);
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Test
+    void followsTheHappyPath() {
+        EscrowTransaction tx = EscrowTransaction.replay(id, null,
+                history(EscrowEventType.FUNDED, EscrowEventType.SHIPPED, EscrowEventType.RELEASED));
+        assertEquals(EscrowState.RELEASED, tx.getState());
+        assertEquals(4, tx.getVersion());
+        assertEquals(5_000, tx.getAmount());
+        assertTrue(tx.getState().isTerminal());
+    }
+
+    @Test
+    void rejectsIllegalTransitionsWithoutChangingState() {
+        EscrowTransaction tx = EscrowTransaction.replay(id, null, history());
+        assertThrows(IllegalEscrowTransitionException.class, () -> tx.next(EscrowEventType.SHIPPED, 2L, null, Instant.now()));
+        assertThrows(IllegalEscrowTransitionException.class, () -> tx.next(EscrowEventType.CREATED, 1L, null, Instant.now()));
+        assertEquals(EscrowState.CREATED, tx.getState());
+
+        EscrowTransaction released = EscrowTransaction.replay(id, null,
+                history(EscrowEventType.FUNDED, EscrowEventType.DISPUTED, EscrowEventType.RELEASED));
+        assertThrows(IllegalEscrowTransitionException.class, () -> released.next(EscrowEventType.REFUNDED, null, null, Instant.now()));
+    }
+
+    @Test
+    void snapshotPlusTailMatchesFullReplay() {
+        List<EscrowEvent> events = history(EscrowEventType.FUNDED, EscrowEventType.SHIPPED, EscrowEventType.DISPUTED);
+        EscrowTransaction full = EscrowTransaction.replay(id, null, events);
+
+        EscrowTransaction upToFunded = EscrowTransaction.replay(id, null, events.subList(0, 2));
+        EscrowTransaction fromSnapshot = EscrowTransaction.replay(id, upToFunded.toSnapshot(), events.subList(2, events.size()));
+
+        assertEquals(full.getState(), fromSnapshot.getState());
+        assertEquals(full.getVersion(), fromSnapshot.getVersion());
+        assertEquals(full.getBuyerId(), fromSnapshot.getBuyerId());
+        assertEquals(full.getSellerId(), fromSnapshot.getSellerId());
+        assertEquals(full.getUpdatedAt(), fromSnapshot.getUpdatedAt());
+    }
+
+    @Test
+    void rejectsGapsInTheEventSequence() {
+        List<EscrowEvent> events = history(EscrowEventType.FUNDED, EscrowEventType.SHIPPED);
+        assertThrows(IllegalStateException.class,
+                () -> EscrowTransaction.replay(id, null, List.of(events.get(0), events.get(2))));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.escrow.e_com.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, new ObjectMapper().findAndRegisterModules(),
+            1000, Duration.ofHours(1), Duration.ofSeconds(5), 1024, Duration.ofMillis(10), Set.of("/api/user/auth"));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain created = (request, response) -> {
+        executions.incrementAndGet();
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(201);
+        http.setContentType("application/json");
+        http.getOutputStream().write(("{\"echo\":" + new String(body, StandardCharsets.UTF_8) + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    private MockHttpServletResponse send(String key, String body, FilterChain chain) throws Exception {
+        return send("/api/user/create", key, body, chain);
+    }
+
+    private MockHttpServletResponse send(String path, String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRequestURI(path);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void replaysTheStoredResponseForARetry() throws Exception {
+        MockHttpServletResponse first = send("k1", "{\"a\":1}", created);
+        MockHttpServletResponse retry = send("k1", "{\"a\":1}", created);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void rejectsTheSameKeyWithADifferentBody() throws Exception {
+        send("k2", "{\"a\":1}", created);
+        MockHttpServletResponse other = send("k2", "{\"a\":2}", created);
+
+        assertEquals(422, other.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void requestsWithoutAKeyAlwaysRun() throws Exception {
+        send(null, "{}", created);
+        send(null, "{}", created);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void excludedPathsAreNeitherStoredNorReplayed() throws Exception {
+        send("/api/user/auth", "k5", "{}", created);
+        MockHttpServletResponse retry = send("/api/user/auth", "k5", "{}", created);
+
+        assertEquals(2, executions.get());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertTrue(store.rows.isEmpty());
+    }
+
+    @Test
+    void slowRequestsKeepTheirClaimAlive() throws Exception {
+        FilterChain slow = (request, response) -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created.doFilter(request, response);
+        };
+        send("k6", "{}", slow);
+        int beats = store.heartbeats.get();
+        assertTrue(beats > 0);
+
+        Thread.sleep(50);
+        assertEquals(beats, store.heartbeats.get());
+    }
+
+    @Test
+    void serverErrorsAreNotStored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+        assertEquals(503, send("k3", "{}", failing).getStatus());
+        assertEquals(201, send("k3", "{}", created).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created.doFilter(request, response);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<MockHttpServletResponse> first = pool.submit(() -> send("k4", "{}", slow));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> second = pool.submit(() -> send("k4", "{}", slow));
+            Future<MockHttpServletResponse> third = pool.submit(() -> send("k4", "{}", slow));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, second.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(201, third.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, executions.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void responseIsReplayedOnlyOnceStoringItFinallySucceeds() throws Exception {
+        store.failingCompletes.set(5);
+        assertEquals(201, send("k7", "{}", created).getStatus());
+
+        // Not stored yet: the claim stays pending instead of letting the request run again
+        assertEquals(409, send("k7", "{}", created).getStatus());
+        int beats = store.heartbeats.get();
+        for (int i = 0; i < 200 && !store.rows.values().stream().allMatch(StoredResponse::isComplete); i++) {
+            Thread.sleep(10);
+        }
+
+        MockHttpServletResponse retry = send("k7", "{}", created);
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+        assertTrue(store.heartbeats.get() > beats);
+    }
+
+    @Test
+    void cachedBodyCanBeReadThroughAReadListener() throws Exception {
+        FilterChain async = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    ((HttpServletResponse) response).setStatus(201);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    ((HttpServletResponse) response).setStatus(500);
+                }
+            });
+            response.getOutputStream().write(read.toByteArray());
+        };
+
+        MockHttpServletResponse response = send("k8", "{\"a\":1}", async);
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"a\":1}", response.getContentAsString());
+    }
+
+    private static final class InMemoryStore implements IdempotencyStore {
+        final Map<String, StoredResponse> rows = new ConcurrentHashMap<>();
+        final AtomicInteger heartbeats = new AtomicInteger();
+        final AtomicInteger failingCompletes = new AtomicInteger();
+
+        @Override
+        public boolean tryBegin(String keyHash, String fingerprint) {
+            return rows.putIfAbsent(keyHash, new StoredResponse(fingerprint, null, null, null)) == null;
+        }
+
+        @Override
+        public void heartbeat(String keyHash) {
+            heartbeats.incrementAndGet();
+        }
+
+        @Override
+        public Optional<StoredResponse> find(String keyHash) {
+            return Optional.ofNullable(rows.get(keyHash));
+        }
+
+        @Override
+        public void complete(String keyHash, StoredResponse response) {
+            if (failingCompletes.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw new IllegalStateException("store unavailable");
+            }
+            rows.put(keyHash, response);
+        }
+
+        @Override
+        public void abandon(String keyHash) {
+            rows.computeIfPresent(keyHash, (k, v) -> v.isComplete() ? v : null);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.escrow.e_com.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvLineParserTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("a@example.com", "Alice", "", "SELLER"), CsvLineParser.parse("a@example.com,Alice,,SELLER"));
+    }
+
+    @Test
+    void keepsCommasAndEscapedQuotesInsideQuotedFields() {
+        assertEquals(List.of("Smith, \"Jr\"", "x"), CsvLineParser.parse("\"Smith, \"\"Jr\"\"\",x"));
+    }
+
+    @Test
+    void quotedOutputParsesBackToTheSameValue() {
+        StringBuilder csv = new StringBuilder();
+        CsvLineParser.appendQuoted(csv, "say \"hi\", bye");
+        csv.append(',');
+        CsvLineParser.appendQuoted(csv, "");
+
+        assertEquals("\"say \"\"hi\"\", bye\",\"\"", csv.toString());
+        assertEquals(List.of("say \"hi\", bye", ""), CsvLineParser.parse(csv.toString()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.escrow.e_com.importer;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserImportRequest.Format;
+import com.example.escrow.e_com.validation.UserValidator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Staging is pure validation; the COPY pipeline needs a database and is not covered here
+class UserImportJobTest {
+
+    private static final String HASH = "$2a$10$" + "a".repeat(53);
+
+    private static UserImportJob job(boolean hashPlainPasswords) {
+        return new UserImportJob("job", Path.of("users.csv"), Format.CSV, hashPlainPasswords, 100,
+                null, new UserValidator(), null, null, null, 0, 0, 0, 0);
+    }
+
+    private static LegacyUserRecord record(String email, String name, String password, String role) {
+        LegacyUserRecord record = new LegacyUserRecord();
+        record.setEmail(email);
+        record.setName(name);
+        record.setPassword(password);
+        record.setRole(role);
+        return record;
+    }
+
+    @Test
+    void stagesBcryptHashesWithTheAlgorithmPrefix() {
+        UserImportJob.StagedUser row = job(false).stage(record(" a@example.com ", " Alice ", HASH, "seller"));
+
+        assertEquals("a@example.com", row.email());
+        assertEquals("Alice", row.name());
+        assertEquals("{bcrypt}" + HASH, row.password());
+        assertEquals(Role.SELLER, row.role());
+        assertFalse(row.needsHashing());
+    }
+
+    @Test
+    void defaultsMissingRoleToCustomer() {
+        assertEquals(Role.CUSTOMER, job(false).stage(record("a@example.com", "Alice", "{bcrypt}" + HASH, " ")).role());
+    }
+
+    @Test
+    void plainPasswordsNeedOptInAndAStrongPassword() {
+        assertNull(job(false).stage(record("a@example.com", "Alice", "Password1@", null)));
+        assertNull(job(true).stage(record("a@example.com", "Alice", "weak", null)));
+        assertTrue(job(true).stage(record("a@example.com", "Alice", "Password1@", null)).needsHashing());
+    }
+
+    @Test
+    void rejectsInvalidRows() {
+        UserImportJob job = job(true);
+        assertNull(job.stage(record("not-an-email", "Alice", HASH, null)));
+        assertNull(job.stage(record("a@example.com", " ", HASH, null)));
+        assertNull(job.stage(record("a@example.com", "Alice", null, null)));
+        assertNull(job.stage(record("a@example.com", "Alice", HASH, "OWNER")));
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.escrow.e_com.inventory;
+
+import com.example.escrow.e_com.entity.InventoryReservation;
+import com.example.escrow.e_com.exception.InventoryNotFoundException;
+import com.example.escrow.e_com.exception.InventoryUnavailableException;
+import com.example.escrow.e_com.exception.OutOfStockException;
+import com.example.escrow.e_com.repository.InventoryItemRepository;
+import com.example.escrow.e_com.repository.InventoryItemRepository.HotStock;
+import com.example.escrow.e_com.repository.InventoryReservationRepository;
+import com.example.escrow.e_com.repository.InventoryReservationRepository.SettledHold;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InventoryEngineTest {
+
+    private static final String SKU = "FLASH-1";
+
+    private final InventoryItemRepository itemRepository = mock(InventoryItemRepository.class);
+    private final InventoryReservationRepository reservationRepository = mock(InventoryReservationRepository.class);
+
+    private record Stock(long getQuantity, long getEpoch) implements HotStock {
+    }
+
+    private record Settled(UUID getId, ReservationStatus getStatus, int getQuantity) implements SettledHold {
+    }
+
+    private InventoryEngine engine(String nodeId, Duration hotLease) {
+        return new InventoryEngine(itemRepository, reservationRepository,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), Duration.ofSeconds(1), 2, 1, nodeId, hotLease);
+    }
+
+    private InventoryEngine engine(Duration hotLease) {
+        return engine("node-a", hotLease);
+    }
+
+    private static InventoryReservation hotRow(Reservation reservation, long epoch) {
+        return InventoryReservation.builder().id(reservation.id()).sku(SKU).buyerId(reservation.buyerId())
+                .quantity(reservation.quantity()).expiresAt(reservation.expiresAt()).hotEpoch(epoch)
+                .status(ReservationStatus.HELD).build();
+    }
+
+    @BeforeEach
+    void hotRow() {
+        when(itemRepository.findHotBySku(SKU)).thenReturn(Optional.of(true));
+        when(itemRepository.decrementIfAvailable(eq(SKU), anyLong(), any())).thenReturn(0);
+        when(itemRepository.renewHotLease(eq(SKU), anyLong(), any())).thenReturn(1);
+        when(itemRepository.applyHotSales(eq(SKU), anyLong(), anyLong(), any())).thenReturn(1);
+    }
+
+    @Test
+    void hotSkuLeasedByAnotherNodeIsRefused() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(0);
+
+        assertThrows(InventoryUnavailableException.class, () -> engine.reserve(SKU, 1, 7L));
+        // Refused from memory until it is worth asking again
+        assertThrows(InventoryUnavailableException.class, () -> engine.reserve(SKU, 1, 7L));
+        verify(itemRepository, times(1)).acquireHotLease(eq(SKU), eq("node-a"), any(), any());
+    }
+
+    @Test
+    void confirmedSalesAreFlushedTogetherUnderTheCountersEpoch() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(Optional.of(new Stock(10, 7)));
+
+        Reservation first = engine.reserve(SKU, 3, 7L);
+        Reservation second = engine.reserve(SKU, 2, 8L);
+        assertTrue(first.isHot());
+        verify(reservationRepository).save(argThat(row -> row.getId().equals(first.id()) && row.getHotEpoch() == 7L));
+        assertThrows(OutOfStockException.class, () -> engine.reserve(SKU, 6, 9L));
+        assertEquals(5, engine.available(SKU));
+
+        for (Reservation reservation : List.of(first, second)) {
+            when(reservationRepository.findById(reservation.id())).thenReturn(Optional.of(hotRow(reservation, 7)));
+            when(reservationRepository.settleHot(reservation.id(), 7, ReservationStatus.CONFIRMED)).thenReturn(1);
+            engine.confirm(reservation.id(), reservation.buyerId());
+        }
+        verify(itemRepository, never()).applyHotSales(any(), anyLong(), anyLong(), any());
+
+        when(reservationRepository.findSettledHot(SKU, 7)).thenReturn(List.of(
+                new Settled(first.id(), ReservationStatus.CONFIRMED, 3),
+                new Settled(second.id(), ReservationStatus.CONFIRMED, 2)));
+        engine.housekeep();
+
+        verify(itemRepository).applyHotSales(eq(SKU), eq(7L), eq(5L), any());
+        verify(reservationRepository).deleteAllByIdInBatch(List.of(first.id(), second.id()));
+        assertEquals(5, engine.available(SKU));
+    }
+
+    @Test
+    void holdReleasedOnAnotherNodeReturnsToTheHoldersCounter() {
+        InventoryEngine holder = engine(Duration.ofSeconds(10));
+        InventoryEngine other = engine("node-b", Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(Optional.of(new Stock(5, 7)));
+
+        Reservation reservation = holder.reserve(SKU, 2, 7L);
+        when(reservationRepository.findById(reservation.id())).thenReturn(Optional.of(hotRow(reservation, 7)));
+        when(reservationRepository.settleHot(reservation.id(), 7, ReservationStatus.RELEASED)).thenReturn(1);
+
+        assertThrows(InventoryNotFoundException.class, () -> other.release(reservation.id(), 8L));
+        other.release(reservation.id(), 7L);
+        assertEquals(3, holder.available(SKU));
+
+        when(reservationRepository.findSettledHot(SKU, 7)).thenReturn(
+                List.of(new Settled(reservation.id(), ReservationStatus.RELEASED, 2)));
+        holder.housekeep();
+
+        assertEquals(5, holder.available(SKU));
+        verify(itemRepository).applyHotSales(eq(SKU), eq(7L), eq(0L), any());
+    }
+
+    @Test
+    void flushFromACounterWhoseEpochMovedOnIsRefused() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(Optional.of(new Stock(5, 7)));
+        when(itemRepository.applyHotSales(eq(SKU), eq(7L), anyLong(), any())).thenReturn(0);
+
+        Reservation reservation = engine.reserve(SKU, 2, 7L);
+        when(reservationRepository.findSettledHot(SKU, 7)).thenReturn(
+                List.of(new Settled(reservation.id(), ReservationStatus.RELEASED, 2)));
+        engine.housekeep();
+
+        // The rows stay for the next holder to fold in; nothing goes back into this counter
+        verify(reservationRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(3, engine.available(SKU));
+    }
+
+    @Test
+    void failedRenewalStopsServingFromTheCounter() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1, 0);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(Optional.of(new Stock(5, 7)));
+        when(itemRepository.renewHotLease(eq(SKU), eq(7L), any())).thenReturn(0);
+
+        engine.reserve(SKU, 1, 7L);
+        engine.housekeep();
+
+        assertFalse(engine.isHot(SKU));
+        assertThrows(InventoryUnavailableException.class, () -> engine.reserve(SKU, 1, 7L));
+    }
+
+    @Test
+    void takeOverFoldsEarlierSalesAndVoidsEarlierHolds() throws Exception {
+        InventoryEngine engine = engine(Duration.ofMillis(40));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(
+                Optional.of(new Stock(5, 1)), Optional.of(new Stock(5, 1)),
+                Optional.of(new Stock(5, 2)), Optional.of(new Stock(4, 2)));
+        when(reservationRepository.sumConfirmedBefore(SKU, 2)).thenReturn(1L);
+
+        Reservation before = engine.reserve(SKU, 1, 7L);
+        Thread.sleep(30);
+        Reservation after = engine.reserve(SKU, 1, 8L);
+
+        verify(reservationRepository).deleteUnsoldBefore(SKU, 2);
+        verify(itemRepository).increment(eq(SKU), eq(-1L), any());
+        verify(reservationRepository).deleteHotBefore(SKU, 2);
+        assertEquals(3, engine.available(SKU));
+        // The old hold's row is gone, so it can no longer sell
+        when(reservationRepository.findById(before.id())).thenReturn(Optional.empty());
+        assertThrows(InventoryNotFoundException.class, () -> engine.confirm(before.id(), 7L));
+        assertTrue(after.isHot());
+    }
+
+    @Test
+    void goingColdTurnsOpenHoldsIntoColdReservations() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        when(itemRepository.acquireHotLease(eq(SKU), eq("node-a"), any(), any())).thenReturn(1);
+        when(itemRepository.findHotStockBySku(SKU)).thenReturn(Optional.of(new Stock(5, 7)));
+        when(reservationRepository.sumHot(SKU, 7, ReservationStatus.RELEASED)).thenReturn(1L);
+        when(itemRepository.markCold(eq(SKU), eq(7L), anyLong(), any())).thenReturn(1);
+
+        engine.reserve(SKU, 2, 7L);
+        engine.setHot(SKU, false);
+
+        var order = inOrder(reservationRepository, itemRepository);
+        order.verify(reservationRepository).coolHeld(SKU, 7);
+        // Drained counter plus units released elsewhere but not flushed yet
+        order.verify(itemRepository).markCold(eq(SKU), eq(7L), eq(4L), any());
+        order.verify(reservationRepository).deleteHot(SKU, 7);
+        assertFalse(engine.isHot(SKU));
+    }
+
+    @Test
+    void sweepRestocksExpiredReservationsOfANodeThatWentAway() {
+        InventoryEngine engine = engine(Duration.ofSeconds(10));
+        UUID orphan = UUID.randomUUID();
+        when(reservationRepository.findExpired(any(), any())).thenReturn(List.of(InventoryReservation.builder()
+                .id(orphan).sku("COLD-1").buyerId(7L).quantity(2).expiresAt(Instant.now().minusSeconds(1))
+                .status(ReservationStatus.HELD).build()));
+        when(reservationRepository.deleteReservation(orphan)).thenReturn(1, 0);
+        when(itemRepository.increment(eq("COLD-1"), eq(2L), any())).thenReturn(1);
+        when(itemRepository.findHotBySku("COLD-1")).thenReturn(Optional.of(false));
+
+        engine.sweepExpired();
+        // Another node's sweep got there first: nothing is restocked twice
+        engine.sweepExpired();
+
+        verify(itemRepository, times(1)).increment(eq("COLD-1"), eq(2L), any());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.escrow.e_com.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedCounterTest {
+
+    @Test
+    void splitsStockAcrossShardsAndGathersMultiUnitRequests() {
+        ShardedCounter counter = new ShardedCounter(8, 10);
+
+        assertEquals(10, counter.sum());
+        // 10 units over 8 shards: no shard holds 7, so this must gather from several
+        assertTrue(counter.tryAcquire(7));
+        assertEquals(3, counter.sum());
+        assertFalse(counter.tryAcquire(4));
+        assertEquals(3, counter.sum(), "a failed request gives back what it gathered");
+
+        counter.release(2);
+        assertTrue(counter.tryAcquire(5));
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void drainEmptiesEveryShard() {
+        ShardedCounter counter = new ShardedCounter(4, 101);
+
+        assertEquals(101, counter.drain());
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryAcquire(1));
+    }
+
+    @Test
+    void neverOversellsUnderContention() throws Exception {
+        int threads = 16;
+        int stock = 5_000;
+        ShardedCounter counter = new ShardedCounter(8, stock);
+        AtomicLong sold = new AtomicLong();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int units = 1 + t % 3;
+                buyers.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        if (counter.tryAcquire(units)) {
+                            sold.addAndGet(units);
+                            // Some buyers abandon their cart
+                            if (i % 5 == 0) {
+                                counter.release(units);
+                                sold.addAndGet(-units);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(sold.get() <= stock);
+        assertEquals(stock, sold.get() + counter.sum());
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.escrow.e_com.ledger;
+
+import com.example.escrow.e_com.entity.LedgerAccount;
+import com.example.escrow.e_com.exception.InsufficientFundsException;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEngineTest {
+
+    private final StubStore store = new StubStore();
+    private final LedgerEngine engine = new LedgerEngine(store, new SimpleMeterRegistry(), 64, 100, 10_000);
+
+    {
+        engine.start();
+    }
+
+    @AfterEach
+    void stop() {
+        engine.stop();
+    }
+
+    private long deposit(long account, long amount) throws Exception {
+        long external = engine.systemAccountId(AccountType.EXTERNAL);
+        return engine.post(EntryType.DEPOSIT, null, List.of(new Leg(external, -amount), new Leg(account, amount)))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectsUnbalancedEntries() {
+        long a = engine.accountId(1, AccountType.WALLET);
+        long b = engine.accountId(1, AccountType.ESCROW);
+        assertThrows(InvalidRequestException.class,
+                () -> engine.post(EntryType.HOLD, null, List.of(new Leg(a, -5), new Leg(b, 4))));
+        assertThrows(InvalidRequestException.class,
+                () -> engine.post(EntryType.HOLD, null, List.of(new Leg(a, 0), new Leg(b, 0))));
+        assertThrows(InvalidRequestException.class,
+                () -> engine.post(EntryType.HOLD, null, List.of(new Leg(a, 5))));
+    }
+
+    @Test
+    void creditsBecomeAvailableAfterCommitAndOverdraftIsRejected() throws Exception {
+        long wallet = engine.accountId(1, AccountType.WALLET);
+        long escrow = engine.accountId(1, AccountType.ESCROW);
+        deposit(wallet, 1_000);
+        assertEquals(1_000, engine.availableBalance(wallet));
+        assertEquals(-1_000, engine.availableBalance(engine.systemAccountId(AccountType.EXTERNAL)));
+
+        engine.post(EntryType.HOLD, "e-1", List.of(new Leg(wallet, -600), new Leg(escrow, 600))).get(5, TimeUnit.SECONDS);
+        assertThrows(InsufficientFundsException.class,
+                () -> engine.post(EntryType.HOLD, "e-2", List.of(new Leg(wallet, -600), new Leg(escrow, 600))));
+        assertEquals(400, engine.availableBalance(wallet));
+        assertEquals(600, engine.availableBalance(escrow));
+        assertEquals(400, store.balances.get(wallet).get());
+    }
+
+    @Test
+    void failedBatchReturnsDebitsAndDropsCredits() throws Exception {
+        long wallet = engine.accountId(2, AccountType.WALLET);
+        long escrow = engine.accountId(2, AccountType.ESCROW);
+        deposit(wallet, 100);
+
+        store.failNext.set(true);
+        CompletableFuture<Long> hold = engine.post(EntryType.HOLD, null, List.of(new Leg(wallet, -100), new Leg(escrow, 100)));
+        assertThrows(ExecutionException.class, () -> hold.get(5, TimeUnit.SECONDS));
+        assertEquals(100, engine.availableBalance(wallet));
+        assertEquals(0, engine.availableBalance(escrow));
+    }
+
+    @Test
+    void creditsCommittedByAnotherNodeAreSeenOnShortfall() throws Exception {
+        long wallet = engine.accountId(3, AccountType.WALLET);
+        long escrow = engine.accountId(3, AccountType.ESCROW);
+        store.balances.get(wallet).set(500);
+
+        engine.post(EntryType.HOLD, null, List.of(new Leg(wallet, -300), new Leg(escrow, 300))).get(5, TimeUnit.SECONDS);
+        assertEquals(200, engine.availableBalance(wallet));
+        assertEquals(200, store.balances.get(wallet).get());
+    }
+
+    @Test
+    void debitRefusedByTheStoreFailsAloneAndReloadsTheAccount() throws Exception {
+        long spent = engine.accountId(4, AccountType.WALLET);
+        long other = engine.accountId(5, AccountType.WALLET);
+        long escrow = engine.accountId(5, AccountType.ESCROW);
+        deposit(spent, 100);
+        deposit(other, 100);
+        // Another node spends it behind this node's back
+        store.balances.get(spent).set(0);
+
+        CountDownLatch gate = new CountDownLatch(1);
+        store.gate = gate;
+        CompletableFuture<Long> blocker = engine.post(EntryType.HOLD, null, List.of(new Leg(other, -10), new Leg(escrow, 10)));
+        while (store.waiting.get() == 0) {
+            Thread.sleep(1);
+        }
+        store.gate = null;
+        CompletableFuture<Long> refused = engine.post(EntryType.HOLD, null, List.of(new Leg(spent, -100), new Leg(escrow, 100)));
+        CompletableFuture<Long> accepted = engine.post(EntryType.HOLD, null, List.of(new Leg(other, -50), new Leg(escrow, 50)));
+        gate.countDown();
+
+        blocker.get(5, TimeUnit.SECONDS);
+        accepted.get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> refused.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientFundsException.class, error.getCause());
+        assertEquals(0, engine.availableBalance(spent));
+        assertEquals(40, engine.availableBalance(other));
+        assertEquals(60, store.balances.get(escrow).get());
+        assertTrue(store.batchSizes.containsAll(List.of(2, 1)));
+    }
+
+    @Test
+    void concurrentHoldsAndRefundsConserveMoneyAndNeverOverdraw() throws Exception {
+        int users = 16;
+        long[] wallets = new long[users];
+        long[] escrows = new long[users];
+        for (int u = 0; u < users; u++) {
+            wallets[u] = engine.accountId(100 + u, AccountType.WALLET);
+            escrows[u] = engine.accountId(100 + u, AccountType.ESCROW);
+            deposit(wallets[u], 50);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        AtomicLong rejected = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    int u = (seed * 7 + i) % users;
+                    boolean hold = (i & 1) == 0;
+                    long from = hold ? wallets[u] : escrows[u];
+                    long to = hold ? escrows[u] : wallets[u];
+                    try {
+                        CompletableFuture<Long> future = engine.post(hold ? EntryType.HOLD : EntryType.REFUND, null,
+                                List.of(new Leg(from, -3), new Leg(to, 3)));
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        for (int u = 0; u < users; u++) {
+            long wallet = engine.availableBalance(wallets[u]);
+            long escrow = engine.availableBalance(escrows[u]);
+            assertTrue(wallet >= 0 && escrow >= 0);
+            assertEquals(50, wallet + escrow);
+            assertEquals(wallet, store.balances.get(wallets[u]).get());
+            assertEquals(escrow, store.balances.get(escrows[u]).get());
+        }
+        assertEquals(16_000, futures.size() + rejected.get());
+    }
+
+    private static final class StubStore implements LedgerStore {
+        final Map<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+        final Map<Long, AtomicLong> balances = new ConcurrentHashMap<>();
+        final AtomicLong ids = new AtomicLong();
+        final AtomicBoolean failNext = new AtomicBoolean();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final AtomicInteger waiting = new AtomicInteger();
+        volatile CountDownLatch gate;
+
+        @Override
+        public synchronized LedgerAccount findOrCreateAccount(Long userId, AccountType type) {
+            return accounts.values().stream()
+                    .filter(a -> a.getUserId().equals(userId) && a.getType() == type)
+                    .findFirst()
+                    .orElseGet(() -> {
+                        LedgerAccount account = new LedgerAccount(ids.incrementAndGet(), userId, type, 0, Instant.now());
+                        accounts.put(account.getId(), account);
+                        balances.put(account.getId(), new AtomicLong());
+                        return account;
+                    });
+        }
+
+        @Override
+        public Optional<LedgerAccount> findAccount(long accountId) {
+            return Optional.ofNullable(accounts.get(accountId)).map(account -> new LedgerAccount(account.getId(),
+                    account.getUserId(), account.getType(), balances.get(accountId).get(), account.getCreatedAt()));
+        }
+
+        @Override
+        public List<Long> commit(List<LedgerEntry> entries) {
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                waiting.incrementAndGet();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(entries.size());
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("database unavailable");
+            }
+            Map<Long, Long> deltas = new HashMap<>();
+            entries.forEach(entry -> entry.legs().forEach(leg -> deltas.merge(leg.accountId(), leg.amount(), Long::sum)));
+            deltas.forEach((accountId, delta) -> {
+                if (accounts.get(accountId).getType() != AccountType.EXTERNAL && balances.get(accountId).get() + delta < 0) {
+                    throw new InsufficientFundsException("Insufficient funds in account " + accountId);
+                }
+            });
+            deltas.forEach((accountId, delta) -> balances.get(accountId).addAndGet(delta));
+            List<Long> entryIds = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                entryIds.add(ids.incrementAndGet());
+            }
+            return entryIds;
+        }
+    }
+}
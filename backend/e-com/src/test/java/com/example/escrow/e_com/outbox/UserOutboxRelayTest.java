@@ -0,0 +1,53 @@
+package com.example.escrow.e_com.outbox;
+
+import com.example.escrow.e_com.entity.UserOutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserOutboxRelayTest {
+
+    private static UserOutboxEvent event(long id, long userId) {
+        return UserOutboxEvent.builder()
+                .id(id)
+                .userId(userId)
+                .eventType(UserEventType.PROFILE_UPDATED)
+                .payload("{}")
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void deliversWholeBatchWhenNothingIsHeldElsewhere() {
+        List<UserOutboxEvent> batch = List.of(event(1, 10), event(2, 11), event(3, 10));
+        assertEquals(batch, UserOutboxRelay.deliverable(batch, Map.of()));
+    }
+
+    @Test
+    void stopsAtFirstEventHeldByAnotherRelay() {
+        // Another relay holds event 2 of user 10, so event 3 must wait; user 11 is unaffected
+        List<UserOutboxEvent> batch = List.of(event(1, 10), event(3, 10), event(4, 11));
+        List<Long> ids = UserOutboxRelay.deliverable(batch, Map.of(10L, 2L)).stream()
+                .map(UserOutboxEvent::getId)
+                .toList();
+        assertEquals(List.of(1L, 4L), ids);
+    }
+
+    @Test
+    void holdsEverythingBehindAnOlderEvent() {
+        List<UserOutboxEvent> batch = List.of(event(5, 10), event(6, 10));
+        assertTrue(UserOutboxRelay.deliverable(batch, Map.of(10L, 4L)).isEmpty());
+    }
+
+    @Test
+    void inMemorySinkCollectsDeliveries() {
+        InMemoryUserEventSink sink = new InMemoryUserEventSink();
+        sink.deliver(List.of(UserEvent.builder().id(1L).userId(10L).type(UserEventType.USER_REGISTERED).build()));
+        assertEquals(1, sink.getEvents().size());
+        assertEquals(UserEventType.USER_REGISTERED, sink.getEvents().get(0).getType());
+    }
+}
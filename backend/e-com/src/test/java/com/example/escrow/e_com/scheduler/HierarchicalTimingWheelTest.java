@@ -0,0 +1,72 @@
+package com.example.escrow.e_com.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesAtTheRightTickAcrossLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 0);
+        wheel.schedule("soon", 5_000);
+        wheel.schedule("level1", 300_000);
+        wheel.schedule("level2", 70_000_000);
+        assertEquals(3, wheel.size());
+
+        assertEquals(List.of(), wheel.advance(4_999));
+        assertEquals(List.of("soon"), wheel.advance(5_000));
+        assertEquals(List.of(), wheel.advance(299_999));
+        assertEquals(List.of("level1"), wheel.advance(300_500));
+        assertEquals(List.of(), wheel.advance(69_999_999));
+        assertEquals(List.of("level2"), wheel.advance(70_000_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvanceAndCancelledOnesNever() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 1_000_000);
+        wheel.schedule("overdue", 10);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 1_002_000);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        assertEquals(List.of("overdue"), wheel.advance(1_000_000));
+        assertEquals(List.of(), wheel.advance(1_010_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void matchesABruteForceScheduleForRandomDeadlines() {
+        Random random = new Random(42);
+        long start = 1_700_000_000_000L;
+        long tick = 1000;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tick, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = start + (long) (random.nextDouble() * 40_000_000L);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+
+        long now = start;
+        List<Integer> seen = new ArrayList<>();
+        while (seen.size() < deadlines.size()) {
+            long previous = now;
+            now += tick * (1 + random.nextInt(600));
+            for (Integer fired : wheel.advance(now)) {
+                long deadline = deadlines.get(fired);
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(deadline > previous, "fired late");
+                seen.add(fired);
+            }
+        }
+        assertEquals(deadlines.size(), seen.stream().distinct().count());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.escrow.e_com.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void addsOneRoundPerDoublingOfHeadroom() {
+        assertEquals(12, BCryptStrengthCalibrator.strengthFor(50, 12.0, 10, 16));
+        assertEquals(11, BCryptStrengthCalibrator.strengthFor(50, 20.0, 10, 16));
+    }
+
+    @Test
+    void neverGoesBelowMinimum() {
+        assertEquals(10, BCryptStrengthCalibrator.strengthFor(50, 80.0, 10, 16));
+    }
+
+    @Test
+    void neverGoesAboveMaximum() {
+        assertEquals(16, BCryptStrengthCalibrator.strengthFor(5_000, 1.0, 10, 16));
+    }
+}
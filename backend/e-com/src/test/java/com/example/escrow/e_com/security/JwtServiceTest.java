@@ -0,0 +1,54 @@
+package com.example.escrow.e_com.security;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.exception.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "c2VjcmV0LXNlY3JldC1zZWNyZXQtc2VjcmV0LXNlY3JldC0xMjM0NTY3ODk=";
+
+    private final JwtService jwtService = new JwtService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7));
+
+    private UserResponse user() {
+        UserResponse user = new UserResponse();
+        user.setId(42L);
+        user.setEmail("seller@example.com");
+        user.setName("Seller");
+        user.setRole(Role.SELLER);
+        return user;
+    }
+
+    @Test
+    void accessTokenRoundTrip() {
+        JwtPrincipal principal = jwtService.parseAccessToken(jwtService.issueAccessToken(user()));
+        assertEquals(42L, principal.getId());
+        assertEquals("seller@example.com", principal.getEmail());
+        assertEquals(Role.SELLER, principal.getRole());
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() {
+        String refreshToken = jwtService.issueRefreshToken(user());
+        assertThrows(InvalidTokenException.class, () -> jwtService.parseAccessToken(refreshToken));
+        assertEquals(42L, jwtService.parseRefreshToken(refreshToken).getId());
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        String token = jwtService.issueAccessToken(user());
+        assertThrows(InvalidTokenException.class, () -> jwtService.parseAccessToken(token + "x"));
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        JwtService shortLived = new JwtService(SECRET, Duration.ofSeconds(-1), Duration.ofDays(7));
+        String token = shortLived.issueAccessToken(user());
+        assertThrows(InvalidTokenException.class, () -> jwtService.parseAccessToken(token));
+    }
+}
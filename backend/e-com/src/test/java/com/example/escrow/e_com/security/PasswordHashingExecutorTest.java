@@ -0,0 +1,86 @@
+package com.example.escrow.e_com.security;
+
+import com.example.escrow.e_com.exception.HashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    };
+
+    private final PasswordHashingExecutor hashing =
+            new PasswordHashingExecutor(blockingEncoder, new SimpleMeterRegistry(), 1, 1, 0.25);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashing.shutdown();
+    }
+
+    @Test
+    void encodeAndMatchRunOnPool() {
+        release.countDown();
+        String hash = hashing.encode("secret");
+        assertEquals("hashed:secret", hash);
+        assertTrue(hashing.matches("secret", hash));
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hashing.encode("a"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hashing.encode("b"));
+        Thread.sleep(200);
+
+        assertThrows(HashingUnavailableException.class, () -> hashing.encode("c"));
+
+        release.countDown();
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void bulkHashingLeavesQueueRoomForLogins() throws Exception {
+        // One thread, two queue slots, one of them for bulk work
+        PasswordHashingExecutor shared = new PasswordHashingExecutor(blockingEncoder, new SimpleMeterRegistry(), 1, 2, 0.5);
+        try {
+            CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> shared.encodeAll(List.of("a", "b", "c")));
+            Thread.sleep(200);
+
+            CompletableFuture<String> login = CompletableFuture.supplyAsync(() -> shared.encode("login"));
+            Thread.sleep(100);
+            assertFalse(login.isCompletedExceptionally());
+
+            release.countDown();
+            assertEquals(List.of("hashed:a", "hashed:b", "hashed:c"), bulk.get(5, TimeUnit.SECONDS));
+            assertEquals("hashed:login", login.get(5, TimeUnit.SECONDS));
+        } finally {
+            shared.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.audit.AuditAction;
+import com.example.escrow.e_com.audit.AuditLog;
+import com.example.escrow.e_com.dto.BulkRegistrationResponse;
+import com.example.escrow.e_com.dto.BulkRegistrationResult;
+import com.example.escrow.e_com.dto.BulkRegistrationResult.Status;
+import com.example.escrow.e_com.dto.UserRegisterRequest;
+import com.example.escrow.e_com.entity.User;
+import com.example.escrow.e_com.outbox.UserOutbox;
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkUserServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHashingExecutor passwordHashing = mock(PasswordHashingExecutor.class);
+    private final AuditLog auditLog = mock(AuditLog.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private final BulkUserServiceImpl bulkUserService = new BulkUserServiceImpl(userRepository, passwordHashing,
+            mock(UserOutbox.class), auditLog, Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class), new ObjectMapper(), 4, 2);
+
+    @BeforeEach
+    void stubs() {
+        when(passwordHashing.encodeAll(anyList()))
+                .thenAnswer(call -> call.<List<String>>getArgument(0).stream().map(raw -> "hash:" + raw).toList());
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(call -> {
+            List<User> users = call.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+    }
+
+    private static UserRegisterRequest request(String email) {
+        UserRegisterRequest request = new UserRegisterRequest();
+        request.setName("Bulk User");
+        request.setEmail(email);
+        request.setPassword("secret1");
+        return request;
+    }
+
+    private static List<Status> statuses(BulkRegistrationResponse response) {
+        return response.getResults().stream().map(BulkRegistrationResult::getStatus).toList();
+    }
+
+    @Test
+    void rowsAreCheckedInsertedInChunksAndCappedAtMaxRows() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+
+        BulkRegistrationResponse response = bulkUserService.registerUsers(List.of(
+                request("a@example.com"), request("not-an-email"), request("a@example.com"),
+                request("taken@example.com"), request("late@example.com")));
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.DUPLICATE, Status.DUPLICATE), statuses(response));
+        assertEquals(1, response.getCreated());
+        assertEquals(3, response.getFailed());
+        assertEquals(1, response.getTruncated());
+        assertEquals(101L, response.getResults().get(0).getId());
+        verify(passwordHashing).encodeAll(List.of("secret1"));
+        // Registration audit records carry no detail
+        verify(auditLog).recordAll(List.of(101L), AuditAction.REGISTRATION, null);
+    }
+
+    @Test
+    void ndjsonSkipsBlankLinesAndReportsMalformedOnes() throws Exception {
+        String body = """
+                {"name":"Bulk User","email":"a@example.com","password":"secret1"}
+
+                {"name":
+                {"name":"Bulk User","email":"b@example.com","password":"secret1"}
+                {"name":"Bulk User","email":"c@example.com","password":"secret1"}
+                {"name":"Bulk User","email":"d@example.com","password":"secret1"}
+                {"name":"Bulk User","email":"e@example.com","password":"secret1"}
+                """;
+
+        BulkRegistrationResponse response = bulkUserService.registerUsersNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.CREATED, Status.CREATED), statuses(response));
+        assertTrue(response.getResults().get(1).getMessage().startsWith("Malformed JSON"));
+        assertEquals(2, response.getTruncated());
+    }
+
+    @Test
+    void uniqueViolationFromAConcurrentWriterFallsBackToRowByRow() {
+        when(userRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate",
+                new SQLException("duplicate key", "23505")));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(call -> {
+            User user = call.getArgument(0);
+            if (user.getEmail().equals("raced@example.com")) {
+                throw new DataIntegrityViolationException("duplicate", new SQLException("duplicate key", "23505"));
+            }
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+
+        BulkRegistrationResponse response = bulkUserService.registerUsers(List.of(
+                request("raced@example.com"), request("fresh@example.com")));
+
+        assertEquals(List.of(Status.DUPLICATE, Status.CREATED), statuses(response));
+        assertNull(response.getResults().get(0).getId());
+        verify(auditLog).record(101L, AuditAction.REGISTRATION, null);
+        verify(auditLog, never()).recordAll(anyList(), any(), any());
+    }
+
+    @Test
+    void rowRetryAfterAVersionSeedingBatchPersistInsertsFreshEntities() {
+        // Like Hibernate: persist hands out an id and seeds @Version before the flush fails
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(call -> {
+            call.<List<User>>getArgument(0).forEach(user -> {
+                user.setId(ids.incrementAndGet());
+                user.setVersion(0L);
+            });
+            throw new DataIntegrityViolationException("duplicate", new SQLException("duplicate key", "23505"));
+        });
+        // Like SimpleJpaRepository: a non-null version means merge, which returns a managed copy
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(call -> {
+            User user = call.getArgument(0);
+            assertNull(user.getId());
+            User saved = user.getVersion() == null ? user : User.builder().email(user.getEmail()).build();
+            saved.setId(ids.incrementAndGet());
+            saved.setVersion(0L);
+            return saved;
+        });
+
+        BulkRegistrationResponse response = bulkUserService.registerUsers(List.of(
+                request("a@example.com"), request("b@example.com")));
+
+        assertEquals(List.of(Status.CREATED, Status.CREATED), statuses(response));
+        assertEquals(List.of(103L, 104L), response.getResults().stream().map(BulkRegistrationResult::getId).toList());
+        verify(auditLog).record(103L, AuditAction.REGISTRATION, null);
+        verify(auditLog).record(104L, AuditAction.REGISTRATION, null);
+    }
+}
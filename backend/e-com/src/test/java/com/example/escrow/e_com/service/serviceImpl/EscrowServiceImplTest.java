@@ -0,0 +1,113 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.dto.EscrowResponse;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.entity.EscrowEvent;
+import com.example.escrow.e_com.escrow.EscrowEventType;
+import com.example.escrow.e_com.escrow.EscrowState;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.repository.EscrowEventRepository;
+import com.example.escrow.e_com.repository.EscrowSnapshotRepository;
+import com.example.escrow.e_com.scheduler.EscrowTimerScheduler;
+import com.example.escrow.e_com.service.LedgerService;
+import com.example.escrow.e_com.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EscrowServiceImplTest {
+
+    private static final long BUYER = 1L;
+    private static final long SELLER = 2L;
+
+    private final EscrowEventRepository eventRepository = mock(EscrowEventRepository.class);
+    private final LedgerService ledgerService = mock(LedgerService.class);
+    private final UserService userService = mock(UserService.class);
+    private final EscrowServiceImpl escrowService = new EscrowServiceImpl(eventRepository,
+            mock(EscrowSnapshotRepository.class), ledgerService, userService, mock(EscrowTimerScheduler.class),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 100, 20, Duration.ofMinutes(5));
+
+    @BeforeEach
+    void users() {
+        when(userService.findById(BUYER)).thenReturn(new UserResponse(BUYER, "Buyer", "buyer@example.com", Role.CUSTOMER));
+        when(userService.findById(SELLER)).thenReturn(new UserResponse(SELLER, "Seller", "seller@example.com", Role.SELLER));
+        when(userService.hasRole(any(UserResponse.class), any(Role.class)))
+                .thenAnswer(call -> call.<UserResponse>getArgument(0).getRole() == call.getArgument(1));
+    }
+
+    @Test
+    void createRequiresACustomerBuyerAndASellerSeller() {
+        assertThrows(InvalidRequestException.class, () -> escrowService.createEscrow(SELLER, BUYER, 1_000));
+        assertThrows(InvalidRequestException.class, () -> escrowService.createEscrow(BUYER, BUYER, 1_000));
+        verifyNoInteractions(eventRepository);
+
+        EscrowResponse escrow = escrowService.createEscrow(BUYER, SELLER, 1_000);
+        assertEquals(EscrowState.CREATED, escrow.getState());
+        verify(eventRepository).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void failedConfirmUndoesTheLedgerPostingAndDropsTheClaim() {
+        EscrowResponse escrow = escrowService.createEscrow(BUYER, SELLER, 1_000);
+        String reference = escrow.getId().toString();
+        when(eventRepository.saveAndFlush(any())).thenAnswer(call -> {
+            EscrowEvent event = call.getArgument(0);
+            assertTrue(event.isPending());
+            event.setId(42L);
+            return event;
+        });
+        when(ledgerService.hold(BUYER, 1_000, reference)).thenReturn(CompletableFuture.completedFuture(10L));
+        when(ledgerService.refund(BUYER, 1_000, reference)).thenReturn(CompletableFuture.completedFuture(11L));
+        when(eventRepository.confirm(42L)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> escrowService.transition(escrow.getId(), EscrowEventType.FUNDED, BUYER, Role.CUSTOMER, null));
+        var order = inOrder(eventRepository, ledgerService);
+        order.verify(eventRepository).saveAndFlush(any());
+        order.verify(ledgerService).hold(BUYER, 1_000, reference);
+        order.verify(ledgerService).refund(BUYER, 1_000, reference);
+        order.verify(eventRepository).deletePending(42L);
+    }
+
+    @Test
+    void staleCacheLosesTheSeqClaimBeforeAnyMoneyMoves() {
+        EscrowResponse escrow = escrowService.createEscrow(BUYER, SELLER, 1_000);
+        SQLException unique = new SQLException("duplicate key", "23505");
+        when(eventRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("seq taken", unique));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> escrowService.transition(escrow.getId(), EscrowEventType.FUNDED, BUYER, Role.CUSTOMER, null));
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void failedPostingDropsTheClaim() {
+        EscrowResponse escrow = escrowService.createEscrow(BUYER, SELLER, 1_000);
+        String reference = escrow.getId().toString();
+        when(eventRepository.saveAndFlush(any())).thenAnswer(call -> {
+            EscrowEvent event = call.getArgument(0);
+            event.setId(43L);
+            return event;
+        });
+        when(ledgerService.hold(BUYER, 1_000, reference))
+                .thenReturn(CompletableFuture.failedFuture(new InvalidRequestException("insufficient funds")));
+
+        assertThrows(InvalidRequestException.class,
+                () -> escrowService.transition(escrow.getId(), EscrowEventType.FUNDED, BUYER, Role.CUSTOMER, null));
+        verify(eventRepository).deletePending(43L);
+        verify(eventRepository, never()).confirm(anyLong());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.catalog.CatalogIndex;
+import com.example.escrow.e_com.dto.ProductRequest;
+import com.example.escrow.e_com.entity.Product;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.repository.InventoryItemRepository;
+import com.example.escrow.e_com.repository.ProductRepository;
+import com.example.escrow.e_com.repository.ProductTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductServiceImplTest {
+
+    private static final long SELLER = 2L;
+    private static final long OTHER_SELLER = 3L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+    private final ProductServiceImpl productService = new ProductServiceImpl(productRepository,
+            mock(ProductTombstoneRepository.class), inventoryItemRepository, new CatalogIndex(new long[]{1000}),
+            mock(PlatformTransactionManager.class), 100, Duration.ofMinutes(1), Duration.ofHours(1));
+
+    @BeforeEach
+    void transaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static ProductRequest listing(String sku) {
+        return ProductRequest.builder().sku(sku).title("Wool scarf").category("Clothing").price(2500L).build();
+    }
+
+    @Test
+    void productCanOnlySellItsOwnSellersSku() {
+        when(inventoryItemRepository.findSellerIdBySku("MINE")).thenReturn(Optional.of(SELLER));
+        when(inventoryItemRepository.findSellerIdBySku("THEIRS")).thenReturn(Optional.of(OTHER_SELLER));
+        when(productRepository.save(any(Product.class))).thenAnswer(call -> call.getArgument(0));
+
+        assertThrows(InvalidRequestException.class, () -> productService.createProduct(listing("THEIRS"), SELLER, Role.SELLER));
+        assertThrows(InvalidRequestException.class, () -> productService.createProduct(listing("UNKNOWN"), SELLER, Role.SELLER));
+        verify(productRepository, never()).save(any());
+
+        assertEquals("MINE", productService.createProduct(listing("MINE"), SELLER, Role.SELLER).getSku());
+
+        // An admin edit is checked against the product's seller, not the admin
+        Product product = Product.builder().id(5L).sellerId(SELLER).build();
+        when(productRepository.findById(5L)).thenReturn(Optional.of(product));
+        assertThrows(InvalidRequestException.class,
+                () -> productService.updateProduct(5L, listing("THEIRS"), 1L, Role.ADMIN));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.service.UserPurgeStep;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserPurgerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserPurgeStep products = mock(UserPurgeStep.class);
+    private final UserPurgeStep outbox = mock(UserPurgeStep.class);
+
+    @SuppressWarnings("unchecked")
+    private UserPurger purger() {
+        ObjectProvider<UserPurgeStep> steps = mock(ObjectProvider.class);
+        when(steps.orderedStream()).thenAnswer(invocation -> Stream.of(products, outbox));
+        return new UserPurger(userRepository, steps, transactionManager, Duration.ofDays(1),
+                2, 10, Duration.ZERO, 3, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void dependentsGoInBoundedBatchesBeforeTheUsersAreAnonymized() {
+        List<Long> ids = List.of(1L, 2L);
+        when(userRepository.lockPurgeCandidates(any(), any(), eq(2))).thenReturn(ids, List.of());
+        when(products.purge(ids, 3)).thenReturn(3, 3, 1);
+        when(outbox.purge(ids, 3)).thenReturn(0);
+        when(userRepository.anonymize(ids)).thenReturn(2);
+
+        purger().purgeDeletedUsers();
+
+        var order = inOrder(userRepository, products, outbox);
+        order.verify(userRepository).claimForPurge(eq(ids), any());
+        order.verify(products, times(3)).purge(ids, 3);
+        order.verify(outbox).purge(ids, 3);
+        order.verify(userRepository).anonymize(ids);
+        // Claim, three product batches, one outbox batch and the anonymize: each its own transaction
+        verify(transactionManager, times(7)).getTransaction(any());
+        verify(transactionManager, times(7)).commit(any());
+    }
+
+    @Test
+    void usersStayUntouchedWhenThePurgeStopsBeforeTheirDependentsAreGone() {
+        List<Long> ids = List.of(1L, 2L);
+        when(userRepository.lockPurgeCandidates(any(), any(), eq(2))).thenReturn(ids);
+        when(products.purge(ids, 3)).thenAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            return 3;
+        });
+
+        purger().purgeDeletedUsers();
+
+        verify(products, times(1)).purge(ids, 3);
+        verifyNoInteractions(outbox);
+        verify(userRepository, never()).anonymize(any());
+    }
+
+    @Test
+    void emptyClaimEndsTheRun() {
+        when(userRepository.lockPurgeCandidates(any(), any(), eq(2))).thenReturn(List.of());
+
+        purger().purgeDeletedUsers();
+
+        verify(userRepository, never()).claimForPurge(any(), any());
+        verifyNoInteractions(products, outbox);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+}
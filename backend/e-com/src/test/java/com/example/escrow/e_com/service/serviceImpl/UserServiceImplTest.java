@@ -0,0 +1,208 @@
+package com.example.escrow.e_com.service.serviceImpl;
+
+import com.example.escrow.e_com.Mapper.UserMapper;
+import com.example.escrow.e_com.Role;
+import com.example.escrow.e_com.audit.AuditAction;
+import com.example.escrow.e_com.audit.AuditLog;
+import com.example.escrow.e_com.cache.UserResponseCache;
+import com.example.escrow.e_com.dto.BulkRoleUpdateResponse;
+import com.example.escrow.e_com.dto.UpdateRequestDTO;
+import com.example.escrow.e_com.dto.UserBatchResponse;
+import com.example.escrow.e_com.dto.UserPage;
+import com.example.escrow.e_com.dto.UserResponse;
+import com.example.escrow.e_com.entity.User;
+import com.example.escrow.e_com.exception.BatchLimitExceededException;
+import com.example.escrow.e_com.exception.GlobalExceptionHandler;
+import com.example.escrow.e_com.exception.InvalidRequestException;
+import com.example.escrow.e_com.exception.RoleAlreadyAssignedException;
+import com.example.escrow.e_com.exception.UserNotFoundException;
+import com.example.escrow.e_com.outbox.UserEventType;
+import com.example.escrow.e_com.outbox.UserOutbox;
+import com.example.escrow.e_com.repository.UserRepository;
+import com.example.escrow.e_com.repository.UserRepository.UpdatedUser;
+import com.example.escrow.e_com.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceImplTest {
+
+    private static final int BULK_ROLE_LIMIT = 3;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserOutbox userOutbox = mock(UserOutbox.class);
+    private final AuditLog auditLog = mock(AuditLog.class);
+    private final PasswordHashingExecutor passwordHashing = mock(PasswordHashingExecutor.class);
+    private final UserResponseCache userCache = new UserResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    private final UserServiceImpl userService = new UserServiceImpl(userRepository, passwordHashing,
+            userCache, userOutbox, auditLog, 5, 2, 4, BULK_ROLE_LIMIT);
+
+    private record Updated(Long getId, String getName, String getEmail, String getRole) implements UpdatedUser {
+    }
+
+    private static UpdatedUser updated(long id, Role role) {
+        return new Updated(id, "User " + id, "user" + id + "@example.com", role.name());
+    }
+
+    private static UserResponse response(long id) {
+        return new UserResponse(id, "User " + id, "user" + id + "@example.com", Role.CUSTOMER);
+    }
+
+    private User storedUser() {
+        User user = User.builder().id(1L).name("Old Name").email("old@example.com").password("hash")
+                .role(Role.CUSTOMER).version(0L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordHashing.matches("secret1", "hash")).thenReturn(true);
+        return user;
+    }
+
+    private static UpdateRequestDTO profile(String name, String email, String password) {
+        UpdateRequestDTO dto = new UpdateRequestDTO();
+        dto.setName(name);
+        dto.setEmail(email);
+        dto.setPassword(password);
+        return dto;
+    }
+
+    @Test
+    void profileUpdateThatChangesNothingSkipsTheWrite() {
+        storedUser();
+
+        UserResponse response = userService.updateUserProfile(1L, profile("Old Name", "old@example.com", "secret1"));
+
+        assertEquals("Old Name", response.getName());
+        verify(userRepository, never()).save(any());
+        verify(passwordHashing, never()).encode(anyString());
+        verifyNoInteractions(userOutbox, auditLog);
+    }
+
+    @Test
+    void profileUpdateWritesAndAuditsOnlyTheChangedFields() {
+        User user = storedUser();
+        userCache.getById(1L, id -> UserMapper.toResponse(user));
+        userCache.getByEmail("old@example.com", email -> UserMapper.toResponse(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        UserResponse response = userService.updateUserProfile(1L, profile(null, "new@example.com", "secret1"));
+
+        assertEquals("new@example.com", response.getEmail());
+        assertEquals("Old Name", user.getName());
+        verify(userRepository).save(user);
+        verify(auditLog).record(1L, AuditAction.PROFILE_CHANGE, "email");
+        verify(userOutbox).record(UserEventType.PROFILE_UPDATED, response);
+        // Both the old and the new email are evicted along with the id
+        assertEquals("new@example.com", userCache.getById(1L, id -> response).getEmail());
+        assertThrows(UserNotFoundException.class, () -> userCache.getByEmail("old@example.com", email -> {
+            throw new UserNotFoundException("Email not found");
+        }));
+
+        when(passwordHashing.encode("secret2")).thenReturn("hash2");
+        userService.updateUserProfile(1L, profile("New Name", null, "secret2"));
+        verify(auditLog).record(1L, AuditAction.PROFILE_CHANGE, "name,password");
+        assertEquals("hash2", user.getPassword());
+    }
+
+    @Test
+    void concurrentProfileEditIsAConflict() {
+        User user = storedUser();
+        when(userRepository.save(user)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        ObjectOptimisticLockingFailureException conflict = assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> userService.updateUserProfile(1L, profile("New Name", null, "secret1")));
+
+        verifyNoInteractions(userOutbox, auditLog);
+        assertEquals(HttpStatus.CONFLICT,
+                new GlobalExceptionHandler().handleOptimisticLockingFailureException(conflict).getStatusCode());
+    }
+
+    @Test
+    void batchLookupDeduplicatesCachesAndReportsMisses() {
+        when(userRepository.findResponsesByIdIn(anyCollection())).thenReturn(List.of(response(1)));
+        when(userRepository.findResponsesByEmailIn(anyCollection())).thenReturn(List.of(response(3)));
+
+        UserBatchResponse batch = userService.findBatch(Arrays.asList(1L, 1L, null, 2L),
+                List.of("user3@example.com", "nobody@example.com"));
+
+        assertEquals(Set.of(1L, 3L), batch.getUsers().keySet());
+        assertEquals(List.of(2L), batch.getMissingIds());
+        assertEquals(List.of("nobody@example.com"), batch.getMissingEmails());
+        verify(userRepository).findResponsesByIdIn(Set.of(1L, 2L));
+
+        // Found users come from the cache now; only the miss is asked for again
+        userService.findBatch(List.of(1L, 2L), null);
+        verify(userRepository).findResponsesByIdIn(Set.of(2L));
+
+        assertThrows(BatchLimitExceededException.class, () -> userService.findBatch(List.of(1L, 2L, 3L, 4L),
+                List.of("a@example.com", "b@example.com")));
+    }
+
+    @Test
+    void listUsersClampsThePageSizeAndHandsBackACursor() {
+        when(userRepository.findPageAfter(anyLong(), any())).thenReturn(List.of(response(5), response(6)));
+        when(userRepository.findPageByRoleAfter(eq(Role.SELLER), anyLong(), any())).thenReturn(List.of(response(9)));
+
+        UserPage full = userService.listUsers(null, null, null);
+        assertEquals(6L, full.getNextAfter());
+        verify(userRepository).findPageAfter(eq(0L), argThat(limit -> limit.max() == 2));
+
+        userService.listUsers(4L, 0, null);
+        verify(userRepository).findPageAfter(eq(4L), argThat(limit -> limit.max() == 2));
+
+        UserPage last = userService.listUsers(8L, 1_000, Role.SELLER);
+        assertNull(last.getNextAfter());
+        verify(userRepository).findPageByRoleAfter(eq(Role.SELLER), eq(8L), argThat(limit -> limit.max() == 4));
+    }
+
+    @Test
+    void roleUpdateNeedsExactlyOneSelector() {
+        assertThrows(InvalidRequestException.class, () -> userService.updateUserRoles(null, null, Role.SELLER));
+        assertThrows(InvalidRequestException.class,
+                () -> userService.updateUserRoles(List.of(1L), Role.CUSTOMER, Role.SELLER));
+        assertThrows(RoleAlreadyAssignedException.class,
+                () -> userService.updateUserRoles(null, Role.SELLER, Role.SELLER));
+        assertThrows(BatchLimitExceededException.class,
+                () -> userService.updateUserRoles(List.of(1L, 2L, 3L, 4L), null, Role.SELLER));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void roleUpdateByIdsReportsUnchangedAndMissingIds() {
+        when(userRepository.updateRoleByIds(anyCollection(), eq("SELLER"))).thenReturn(List.of(updated(1, Role.SELLER)));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(2L));
+
+        BulkRoleUpdateResponse response = userService.updateUserRoles(List.of(1L, 2L, 3L, 1L), null, Role.SELLER);
+
+        assertEquals(List.of(1L), response.getUpdatedIds());
+        assertEquals(List.of(2L), response.getAlreadyAssignedIds());
+        assertEquals(List.of(3L), response.getMissingIds());
+        assertFalse(response.isMore());
+        verify(userOutbox).recordAll(any(), argThat(users -> users.size() == 1));
+    }
+
+    @Test
+    void roleUpdateByRoleIsCappedAndSaysWhetherToRepeat() {
+        when(userRepository.updateRoleByRole("CUSTOMER", "SELLER", BULK_ROLE_LIMIT)).thenReturn(
+                List.of(updated(1, Role.SELLER), updated(2, Role.SELLER), updated(3, Role.SELLER)),
+                List.of(updated(4, Role.SELLER)));
+
+        BulkRoleUpdateResponse first = userService.updateUserRoles(null, Role.CUSTOMER, Role.SELLER);
+        BulkRoleUpdateResponse second = userService.updateUserRoles(List.of(), Role.CUSTOMER, Role.SELLER);
+
+        assertEquals(3, first.getUpdated());
+        assertTrue(first.isMore());
+        assertEquals(List.of(4L), second.getUpdatedIds());
+        assertFalse(second.isMore());
+        verify(userRepository, never()).findExistingIds(anyCollection());
+    }
+}